@@ -0,0 +1,37 @@
+package bgn.benchmarks;
+
+import bgn.settings.util.GenerateAccessors;
+
+/**
+* The settings enum of the enum keyed benchmarks
+*/
+@GenerateAccessors
+public enum BenchmarkKeys {
+	
+	FEATURE_ENABLED("TRUE", "a boolean setting", true),
+	PAGE_SIZE("50", "an int setting", true),
+	GREETING("hello", "a string setting", true),
+	RATE_LIMIT("1000", "a long setting", true);
+	
+	private final String defaultValue;
+	private final String defaultDescription;
+	private final Boolean createIfNotExist;
+	
+	private BenchmarkKeys(String defaultValue, String defaultDescription, Boolean createIfNotExist) {
+		this.defaultValue = defaultValue;
+		this.defaultDescription = defaultDescription;
+		this.createIfNotExist = createIfNotExist;
+	}
+
+	public String getDefaultValue() {
+		return defaultValue;
+	}
+
+	public String getDefaultDescription() {
+		return defaultDescription;
+	}
+
+	public Boolean getCreateIfNotExist() {
+		return createIfNotExist;
+	}
+}
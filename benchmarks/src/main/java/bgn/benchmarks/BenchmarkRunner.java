@@ -0,0 +1,26 @@
+package bgn.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+* Runs the benchmarks matching the first argument (all by default) with the gc profiler, 
+* so the allocation rate of each path is reported next to its time
+*/
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException {
+		
+		String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName();
+		
+		Options options = new OptionsBuilder()
+				.include(include)
+				.addProfiler(GCProfiler.class)
+				.build();
+		
+		new Runner(options).run();
+	}
+}
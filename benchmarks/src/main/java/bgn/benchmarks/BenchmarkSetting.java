@@ -0,0 +1,60 @@
+package bgn.benchmarks;
+
+import bgn.settings.util.GenerateAccessors;
+
+/**
+* The setting POJO of the benchmarks. Up to three of company, branch and region
+* are used as grid fields
+*/
+@GenerateAccessors
+public class BenchmarkSetting {
+	
+	private String name;
+	private String value;
+	private String description;
+	private String company;
+	private String branch;
+	private String region;
+	
+	public String getName() {
+		return name;
+	}
+	public void setName(String name) {
+		this.name = name;
+	}
+	public String getValue() {
+		return value;
+	}
+	public void setValue(String value) {
+		this.value = value;
+	}
+	public String getDescription() {
+		return description;
+	}
+	public void setDescription(String description) {
+		this.description = description;
+	}
+	public String getCompany() {
+		return company;
+	}
+	public void setCompany(String company) {
+		this.company = company;
+	}
+	public String getBranch() {
+		return branch;
+	}
+	public void setBranch(String branch) {
+		this.branch = branch;
+	}
+	public String getRegion() {
+		return region;
+	}
+	public void setRegion(String region) {
+		this.region = region;
+	}
+	@Override
+	public String toString() {
+		return super.toString()+" [name = "+name+", value = "+value+", description = "+description
+				+", company = "+company+", branch = "+branch+", region = "+region+"]";
+	}
+}
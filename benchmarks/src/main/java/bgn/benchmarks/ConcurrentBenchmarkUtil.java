@@ -0,0 +1,16 @@
+package bgn.benchmarks;
+
+/**
+* The simple settings util of the benchmarks with the thread safe cache
+*/
+public class ConcurrentBenchmarkUtil extends SimpleBenchmarkUtil {
+
+	public ConcurrentBenchmarkUtil(InMemoryService service) {
+		super(true, service);
+	}
+	
+	@Override
+	protected boolean concurrentCache() {
+		return true;
+	}
+}
@@ -0,0 +1,64 @@
+package bgn.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Cached lookups from many threads through the thread safe cache, all on one hot setting 
+* and spread over a few settings
+*/
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ContentionBenchmark {
+
+	private static final int SETTINGS = 64;
+	
+	private final String[] names = new String[SETTINGS];
+	private ConcurrentBenchmarkUtil settingsUtil;
+	
+	@State(Scope.Thread)
+	public static class Cursor {
+		int next;
+	}
+	
+	@Setup
+	public void setUp(){
+		InMemoryService service = new InMemoryService();
+		for(int x = 0; x < SETTINGS; x++){
+			names[x] = "setting."+x;
+			service.put(names[x], String.valueOf(x));
+		}
+		settingsUtil = new ConcurrentBenchmarkUtil(service);
+	}
+	
+	@Benchmark
+	public String hotSetting(){
+		return settingsUtil.getSettingValue(names[0], "default", "description", false);
+	}
+	
+	@Benchmark
+	public String spreadSettings(Cursor cursor){
+		return settingsUtil.getSettingValue(names[cursor.next++ & (SETTINGS - 1)], "default", "description", false);
+	}
+	
+	@Benchmark
+	public int hotInt(){
+		return settingsUtil.getInt(names[1], 0, "description", false);
+	}
+}
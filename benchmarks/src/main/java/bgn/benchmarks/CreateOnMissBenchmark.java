@@ -0,0 +1,63 @@
+package bgn.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* A lookup of a missing setting with createIfNotExist, i.e. a backend load followed by a create
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CreateOnMissBenchmark {
+
+	private static final int NAMES = 1 << 16;
+	
+	@Param({"true", "false"})
+	public boolean cached;
+	
+	private final String[] names = new String[NAMES];
+	private InMemoryService service;
+	private SimpleBenchmarkUtil settingsUtil;
+	private int next;
+	
+	@Setup
+	public void setUp(){
+		for(int x = 0; x < NAMES; x++){
+			names[x] = "created.setting."+x;
+		}
+	}
+	
+//	starts every iteration from an empty backend and cache, so each call misses and creates
+	@Setup(Level.Iteration)
+	public void reset(){
+		service = new InMemoryService();
+		settingsUtil = new SimpleBenchmarkUtil(cached, service);
+		next = 0;
+	}
+	
+	@Benchmark
+	public String getSettingValue(){
+		if(next == NAMES){
+			service.clear();
+			settingsUtil.clearCache();
+			next = 0;
+		}
+		return settingsUtil.getSettingValue(names[next++], "default", "description", true);
+	}
+}
@@ -0,0 +1,56 @@
+package bgn.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Enum keyed lookups, which resolve the defaults of the enum constant before the setting
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnumLookupBenchmark {
+
+	@Param({"true", "false"})
+	public boolean cached;
+	
+	private SimpleBenchmarkUtil settingsUtil;
+	
+	@Setup
+	public void setUp(){
+		settingsUtil = new SimpleBenchmarkUtil(cached, new InMemoryService());
+//		creates the settings with their enum defaults
+		for(BenchmarkKeys key : BenchmarkKeys.values()){
+			settingsUtil.getSettingValue(key);
+		}
+	}
+	
+	@Benchmark
+	public Boolean getSettingBooleanValue(){
+		return settingsUtil.getSettingBooleanValue(BenchmarkKeys.FEATURE_ENABLED);
+	}
+	
+	@Benchmark
+	public Integer getSettingIntValue(){
+		return settingsUtil.getSettingIntValue(BenchmarkKeys.PAGE_SIZE);
+	}
+	
+	@Benchmark
+	public String getSettingValue(){
+		return settingsUtil.getSettingValue(BenchmarkKeys.GREETING);
+	}
+}
@@ -0,0 +1,97 @@
+package bgn.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Cached grid setting lookups through the one, two and three grid value overloads, which do not
+* build the varargs array. Run with the gc profiler, gc.alloc.rate.norm should be about 0 bytes
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FixedArityBenchmark {
+
+	private static final String[] GRID_FIELDS = {"company", "branch", "region"};
+	private static final String[] GRID_VALUES = {"acme", "lagos", "west"};
+	
+	@Param({"1", "2", "3"})
+	public int gridFields;
+	
+	private GridBenchmarkUtil settingsUtil;
+	
+	@Setup
+	public void setUp(){
+		String[] fields = Arrays.copyOf(GRID_FIELDS, gridFields);
+		Object[] gridValues = Arrays.copyOf(GRID_VALUES, gridFields, Object[].class);
+		
+		InMemoryService service = new InMemoryService(fields);
+		service.put("string.setting", "some value", gridValues);
+		service.put("int.setting", "42", gridValues);
+		service.put("boolean.setting", "TRUE", gridValues);
+		settingsUtil = new GridBenchmarkUtil(true, service, fields);
+	}
+	
+	@Benchmark
+	public String getSettingValue(){
+		switch (gridFields) {
+		case 1:
+			return settingsUtil.getSettingValue("string.setting", "default", "description", false, GRID_VALUES[0]);
+		case 2:
+			return settingsUtil.getSettingValue("string.setting", "default", "description", false, GRID_VALUES[0], GRID_VALUES[1]);
+		default:
+			return settingsUtil.getSettingValue("string.setting", "default", "description", false, GRID_VALUES[0], GRID_VALUES[1], GRID_VALUES[2]);
+		}
+	}
+	
+	@Benchmark
+	public int getInt(){
+		switch (gridFields) {
+		case 1:
+			return settingsUtil.getInt("int.setting", 0, "description", false, GRID_VALUES[0]);
+		case 2:
+			return settingsUtil.getInt("int.setting", 0, "description", false, GRID_VALUES[0], GRID_VALUES[1]);
+		default:
+			return settingsUtil.getInt("int.setting", 0, "description", false, GRID_VALUES[0], GRID_VALUES[1], GRID_VALUES[2]);
+		}
+	}
+	
+	@Benchmark
+	public boolean getBoolean(){
+		switch (gridFields) {
+		case 1:
+			return settingsUtil.getBoolean("boolean.setting", false, "description", false, GRID_VALUES[0]);
+		case 2:
+			return settingsUtil.getBoolean("boolean.setting", false, "description", false, GRID_VALUES[0], GRID_VALUES[1]);
+		default:
+			return settingsUtil.getBoolean("boolean.setting", false, "description", false, GRID_VALUES[0], GRID_VALUES[1], GRID_VALUES[2]);
+		}
+	}
+	
+	@Benchmark
+	public BenchmarkSetting getByName(){
+		switch (gridFields) {
+		case 1:
+			return settingsUtil.getByName("string.setting", GRID_VALUES[0]);
+		case 2:
+			return settingsUtil.getByName("string.setting", GRID_VALUES[0], GRID_VALUES[1]);
+		default:
+			return settingsUtil.getByName("string.setting", GRID_VALUES[0], GRID_VALUES[1], GRID_VALUES[2]);
+		}
+	}
+}
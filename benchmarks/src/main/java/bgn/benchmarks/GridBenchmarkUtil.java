@@ -0,0 +1,38 @@
+package bgn.benchmarks;
+
+import bgn.settings.GridSettingsUtilBase;
+
+public class GridBenchmarkUtil extends GridSettingsUtilBase<BenchmarkSetting> {
+
+	private final InMemoryService service;
+	
+	public GridBenchmarkUtil(boolean cacheSetting, InMemoryService service, String... gridFields) {
+		super(cacheSetting, BenchmarkSetting.class, gridFields);
+		this.service = service;
+	}
+	
+	@Override
+	protected boolean showOnlyErrorLogs() {
+		return true;
+	}
+	
+	@Override
+	protected boolean registerMetricsMBean() {
+		return false;
+	}
+
+	@Override
+	protected BenchmarkSetting getSettingByName(String settingName, Object... gridValues) throws Exception {
+		return service.getSettingByName(settingName, gridValues);
+	}
+
+	@Override
+	protected boolean createSetting(BenchmarkSetting setting) throws Exception {
+		return service.createSetting(setting);
+	}
+
+	@Override
+	protected boolean updateSetting(BenchmarkSetting setting) throws Exception {
+		return service.updateSetting(setting);
+	}
+}
@@ -0,0 +1,66 @@
+package bgn.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Grid setting lookups with one to three orderedGridUniqueSettingsFields, cached and uncached
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GridLookupBenchmark {
+
+	private static final String[] GRID_FIELDS = {"company", "branch", "region"};
+	private static final String[] GRID_VALUES = {"acme", "lagos", "west"};
+	
+	@Param({"1", "2", "3"})
+	public int gridFields;
+	
+	@Param({"true", "false"})
+	public boolean cached;
+	
+	private GridBenchmarkUtil settingsUtil;
+	private Object[] gridValues;
+	
+	@Setup
+	public void setUp(){
+		String[] fields = Arrays.copyOf(GRID_FIELDS, gridFields);
+		gridValues = Arrays.copyOf(GRID_VALUES, gridFields, Object[].class);
+		
+		InMemoryService service = new InMemoryService(fields);
+		service.put("string.setting", "some value", gridValues);
+		service.put("boolean.setting", "TRUE", gridValues);
+		settingsUtil = new GridBenchmarkUtil(cached, service, fields);
+	}
+	
+	@Benchmark
+	public String getSettingValue(){
+		return settingsUtil.getSettingValue("string.setting", "default", "description", false, gridValues);
+	}
+	
+	@Benchmark
+	public Boolean getSettingBooleanValue(){
+		return settingsUtil.getSettingBooleanValue("boolean.setting", Boolean.FALSE, "description", false, gridValues);
+	}
+	
+	@Benchmark
+	public BenchmarkSetting getByName(){
+		return settingsUtil.getByName("string.setting", gridValues);
+	}
+}
@@ -0,0 +1,67 @@
+package bgn.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bgn.settings.SettingHandle;
+
+/**
+* Repeated reads of the same cached settings through a bound setting handle, next to the
+* getters they replace
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HandleBenchmark {
+
+	private static final String[] GRID_FIELDS = {"company", "branch", "region"};
+	
+	private SimpleBenchmarkUtil settingsUtil;
+	private GridBenchmarkUtil gridSettingsUtil;
+	private SettingHandle<Integer> enumHandle;
+	private SettingHandle<Boolean> gridHandle;
+	
+	@Setup
+	public void setUp(){
+		settingsUtil = new SimpleBenchmarkUtil(true, new InMemoryService());
+		enumHandle = settingsUtil.getHandle(BenchmarkKeys.PAGE_SIZE, Integer.class);
+		
+		InMemoryService gridService = new InMemoryService(GRID_FIELDS);
+		gridService.put("boolean.setting", "TRUE", "acme", "lagos", "west");
+		gridSettingsUtil = new GridBenchmarkUtil(true, gridService, GRID_FIELDS);
+		gridHandle = gridSettingsUtil.getHandle("boolean.setting", Boolean.class, Boolean.FALSE, "acme", "lagos", "west");
+	}
+	
+	@Benchmark
+	public Integer enumHandle(){
+		return enumHandle.get();
+	}
+	
+	@Benchmark
+	public Integer enumGetter(){
+		return settingsUtil.getSettingIntValue(BenchmarkKeys.PAGE_SIZE);
+	}
+	
+	@Benchmark
+	public Boolean gridHandle(){
+		return gridHandle.get();
+	}
+	
+	@Benchmark
+	public boolean gridGetter(){
+		return gridSettingsUtil.getBoolean("boolean.setting", false, "description", false, "acme", "lagos", "west");
+	}
+}
@@ -0,0 +1,112 @@
+package bgn.benchmarks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+* The in memory backend of the benchmarks, derived from the bgn.test.Service of the main style tests: 
+* an instance per benchmark instead of a static map, thread safe, and keyed by the 
+* setting name and its grid values
+*/
+public class InMemoryService {
+	
+	private final ConcurrentMap<String, BenchmarkSetting> localDB = new ConcurrentHashMap<String, BenchmarkSetting>();
+	private final String[] gridFields;
+	
+	/**
+	 * @param gridFields the grid fields in use, any of company, branch and region in that order
+	 */
+	public InMemoryService(String... gridFields) {
+		this.gridFields = gridFields;
+	}
+	
+	public BenchmarkSetting getSettingByName(String settingName, Object... gridValues){
+		return localDB.get(key(settingName, gridValues));
+	}
+
+	public boolean createSetting(BenchmarkSetting setting){
+		
+		validateSetting(setting);
+		
+		if(localDB.putIfAbsent(key(setting), setting) != null){
+			throw new IllegalArgumentException("setting with name already exists");
+		}
+		
+		return true;
+	}
+	
+	public boolean updateSetting(BenchmarkSetting setting){
+		validateSetting(setting);
+		localDB.put(key(setting), setting);
+		return true;
+	}
+	
+	public void put(String settingName, String value, Object... gridValues){
+		
+		BenchmarkSetting setting = new BenchmarkSetting();
+		setting.setName(settingName);
+		setting.setValue(value);
+		setting.setDescription("");
+		
+		for(int x = 0; x < gridFields.length; x++){
+			String gridValue = (String) gridValues[x];
+			if("company".equals(gridFields[x])){
+				setting.setCompany(gridValue);
+			}else if("branch".equals(gridFields[x])){
+				setting.setBranch(gridValue);
+			}else{
+				setting.setRegion(gridValue);
+			}
+		}
+		
+		createSetting(setting);
+	}
+	
+	public void clear(){
+		localDB.clear();
+	}
+	
+	public int size(){
+		return localDB.size();
+	}
+	
+	private String key(BenchmarkSetting setting){
+		
+		Object[] gridValues = new Object[gridFields.length];
+		
+		for(int x = 0; x < gridFields.length; x++){
+			if("company".equals(gridFields[x])){
+				gridValues[x] = setting.getCompany();
+			}else if("branch".equals(gridFields[x])){
+				gridValues[x] = setting.getBranch();
+			}else{
+				gridValues[x] = setting.getRegion();
+			}
+		}
+		
+		return key(setting.getName(), gridValues);
+	}
+	
+	private static String key(String settingName, Object... gridValues){
+		
+		if(gridValues == null || gridValues.length == 0){
+			return settingName.trim();
+		}
+		
+		StringBuilder key = new StringBuilder(settingName.trim());
+		for(Object gridValue : gridValues){
+			key.append('\u0000').append(gridValue);
+		}
+		return key.toString();
+	}
+	
+	public void validateSetting(BenchmarkSetting setting){
+		
+		if(setting == null){
+			throw new IllegalArgumentException("setting is null");
+		}
+		if(setting.getName() == null || setting.getName().trim().equals("")){
+			throw new IllegalArgumentException("setting name is null or empty");
+		}
+	}
+}
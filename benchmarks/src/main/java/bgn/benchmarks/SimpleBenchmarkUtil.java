@@ -0,0 +1,47 @@
+package bgn.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+
+import bgn.settings.EnumFields;
+import bgn.settings.SimpleSettingsUtilBase;
+
+public class SimpleBenchmarkUtil extends SimpleSettingsUtilBase<BenchmarkSetting> {
+
+	private final InMemoryService service;
+	
+	public SimpleBenchmarkUtil(boolean cacheSetting, InMemoryService service) {
+		super(cacheSetting, BenchmarkSetting.class);
+		this.service = service;
+	}
+	
+	@Override
+	protected boolean showOnlyErrorLogs() {
+		return true;
+	}
+	
+	@Override
+	protected boolean registerMetricsMBean() {
+		return false;
+	}
+	
+	@Override
+	protected List<EnumFields> getAllowedSettingsEnum() {
+		return Collections.singletonList(new EnumFields(BenchmarkKeys.class));
+	}
+
+	@Override
+	protected BenchmarkSetting getSettingByName(String settingName) throws Exception {
+		return service.getSettingByName(settingName);
+	}
+
+	@Override
+	protected boolean createSetting(BenchmarkSetting setting) throws Exception {
+		return service.createSetting(setting);
+	}
+
+	@Override
+	protected boolean updateSetting(BenchmarkSetting setting) throws Exception {
+		return service.updateSetting(setting);
+	}
+}
@@ -0,0 +1,61 @@
+package bgn.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Simple setting lookups of an existing setting, cached and uncached
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimpleLookupBenchmark {
+
+	@Param({"true", "false"})
+	public boolean cached;
+	
+	private SimpleBenchmarkUtil settingsUtil;
+	
+	@Setup
+	public void setUp(){
+		InMemoryService service = new InMemoryService();
+		service.put("string.setting", "some value");
+		service.put("boolean.setting", "TRUE");
+		service.put("int.setting", "42");
+		settingsUtil = new SimpleBenchmarkUtil(cached, service);
+	}
+	
+	@Benchmark
+	public String getSettingValue(){
+		return settingsUtil.getSettingValue("string.setting", "default", "description", false);
+	}
+	
+	@Benchmark
+	public Boolean getSettingBooleanValue(){
+		return settingsUtil.getSettingBooleanValue("boolean.setting", Boolean.FALSE, "description", false);
+	}
+	
+	@Benchmark
+	public Integer getSettingIntValue(){
+		return settingsUtil.getSettingIntValue("int.setting", 0, "description", false);
+	}
+	
+	@Benchmark
+	public int getInt(){
+		return settingsUtil.getInt("int.setting", 0, "description", false);
+	}
+}
@@ -0,0 +1,65 @@
+package bgn.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bgn.settings.MetadataRegistryReset;
+
+/**
+* The cost of creating a settings util. The first util of a setting class and settings enum
+* in a JVM validates them by reflection, the next ones reuse the validated metadata.
+* validatingUtil clears the metadata before each util, so compared with nextUtil in the same
+* mode it isolates the cost of the validation once the classes are loaded and compiled.
+* The single shot firstUtil is the cold cost of a fresh JVM, class loading and the
+* interpreter included, and is not to be compared with the other two
+*/
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+	private static final String[] GRID_FIELDS = {"company", "branch", "region"};
+
+	private final InMemoryService service = new InMemoryService();
+	private final InMemoryService gridService = new InMemoryService(GRID_FIELDS);
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 0)
+	@Measurement(iterations = 1)
+	@Fork(20)
+	public Object firstUtil(){
+		return newUtils();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@Warmup(iterations = 3, time = 1)
+	@Measurement(iterations = 5, time = 1)
+	@Fork(1)
+	public Object validatingUtil(){
+		MetadataRegistryReset.clear(BenchmarkSetting.class, BenchmarkKeys.class);
+		return newUtils();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@Warmup(iterations = 3, time = 1)
+	@Measurement(iterations = 5, time = 1)
+	@Fork(1)
+	public Object nextUtil(){
+		return newUtils();
+	}
+
+	private Object newUtils(){
+		return new Object[]{new SimpleBenchmarkUtil(true, service), new GridBenchmarkUtil(true, gridService, GRID_FIELDS)};
+	}
+}
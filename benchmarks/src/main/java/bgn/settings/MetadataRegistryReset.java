@@ -0,0 +1,17 @@
+package bgn.settings;
+
+/**
+* Clears the {@link MetadataRegistry} for the benchmarks, which live outside the settings package.
+* Only meant for measuring the cost of a util that validates its classes by reflection
+*/
+public final class MetadataRegistryReset {
+
+	private MetadataRegistryReset() {
+	}
+
+	public static void clear(Class<?>... classes){
+		for(Class<?> clazz : classes){
+			MetadataRegistry.clear(clazz);
+		}
+	}
+}
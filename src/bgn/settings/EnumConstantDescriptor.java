@@ -0,0 +1,49 @@
+package bgn.settings;
+
+/**
+* The default value, default description and createIfNotExist flag of one settings enum constant, 
+* read once by {@link EnumFields} when it is created
+*
+*/
+
+public class EnumConstantDescriptor {
+
+	private final Enum<?> enumConstant;
+	private final String defaultValue;
+	private final String defaultDescription;
+	private final boolean createIfNotExist;
+
+	EnumConstantDescriptor(Enum<?> enumConstant, String defaultValue,
+			String defaultDescription, boolean createIfNotExist) {
+		this.enumConstant = enumConstant;
+		this.defaultValue = defaultValue;
+		this.defaultDescription = defaultDescription;
+		this.createIfNotExist = createIfNotExist;
+	}
+
+	public Enum<?> getEnumConstant() {
+		return enumConstant;
+	}
+
+	public String getName() {
+		return enumConstant.name();
+	}
+
+	/**
+	 * @return the default value as a String, null if the enum constant has none
+	 */
+	public String getDefaultValue() {
+		return defaultValue;
+	}
+
+	/**
+	 * @return the default description, null if it is not declared or the enum class has no description field
+	 */
+	public String getDefaultDescription() {
+		return defaultDescription;
+	}
+
+	public boolean isCreateIfNotExist() {
+		return createIfNotExist;
+	}
+}
@@ -1,8 +1,14 @@
 package bgn.settings;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import bgn.exception.UtilException;
+import bgn.settings.util.PropertyAccessor;
 import bgn.settings.util.SUBUtils;
 
 public class EnumFields {
@@ -12,6 +18,9 @@ public class EnumFields {
 	private String defaultValueFieldName = "defaultValue";
 	private String defaultDescriptionFieldName = "defaultDescription";
 	private String createIfNotExistFieldName = "createIfNotExist";
+//	indexed by the ordinal of the enum constants
+	private EnumConstantDescriptor[] descriptors;
+	private boolean defaultDescriptionReadable;
 	
 	public EnumFields(Class<?> enumClass, String defaultValueFieldName,
 			String defaultDescriptionFieldName, String createIfNotExistFieldName) {
@@ -64,24 +73,75 @@ public class EnumFields {
 			throw new IllegalArgumentException("The defaultValueFieldName and createIfNotExistFieldName arguments are equal");
 		}
 		
+		final Object[] constants = enumConstants;
+		
+		ConstantsMetadata metadata = MetadataRegistry.get(enumClass, 
+				Arrays.asList("enum", defaultValueFieldName, defaultDescriptionFieldName, createIfNotExistFieldName), 
+				new Function<List<?>, ConstantsMetadata>() {
+					@Override
+					public ConstantsMetadata apply(List<?> key) {
+						return readConstants(constants);
+					}
+				});
+		
+		descriptors = metadata.descriptors;
+		defaultDescriptionReadable = metadata.defaultDescriptionReadable;
+	}
+	
+//	the reflective part of the validation, done once per enum class and field names
+	private ConstantsMetadata readConstants(Object[] enumConstants){
+		
+		EnumConstantDescriptor[] descriptors = new EnumConstantDescriptor[enumConstants.length];
+		PropertyAccessor defaultDescriptionAccessor = null;
+		
 		if(enumConstants.length == 0){
 			log.warn("This enum class "+enumClass.getName()+" does not have any enum elements");
 		}else{
 			
+			PropertyAccessor defaultValueAccessor = SUBUtils.getPropertyAccessor(enumClass, defaultValueFieldName, false);
+			PropertyAccessor createIfNotExistAccessor = SUBUtils.getPropertyAccessor(enumClass, createIfNotExistFieldName, false);
+			defaultDescriptionAccessor = getDefaultDescriptionAccessor();
+			
 			for(Object anEnum : enumConstants){
-				Object defaultValue = SUBUtils.getProperty(enumClass, anEnum, defaultValueFieldName);
-				Boolean createIfNotExist = (Boolean) SUBUtils.getProperty(enumClass, anEnum, createIfNotExistFieldName);
+				Object defaultValue = defaultValueAccessor.get(anEnum);
+				Boolean createIfNotExist = (Boolean) createIfNotExistAccessor.get(anEnum);
 				if(createIfNotExist == null){
 					throw new IllegalArgumentException("None of the enum constants should have a null createIfNotExist value. Error enum constant : "+anEnum.toString());
 				}
 				if(createIfNotExist && (defaultValue == null)){
 					throw new IllegalArgumentException("If createIfNotExist is true then a default value must be specified. Error enum constant : "+anEnum.toString());
 				}
+				
+				String defaultDescription = null;
+				if(defaultDescriptionAccessor != null){
+					defaultDescription = (String) defaultDescriptionAccessor.get(anEnum);
+				}
+				
+				Enum<?> enumConstant = (Enum<?>) anEnum;
+				descriptors[enumConstant.ordinal()] = new EnumConstantDescriptor(enumConstant, 
+						defaultValue == null ? null : defaultValue.toString(), defaultDescription, createIfNotExist);
 			}
 			
 //			the test for defaultDescriptionFieldName would be done in the settingUtilBase class depending on whether description is ignored or not
 		}
 		
+		return new ConstantsMetadata(descriptors, defaultDescriptionAccessor != null);
+	}
+
+//	the description field is optional here, see SettingsUtilBase.validateAllowedEnumFields
+	private PropertyAccessor getDefaultDescriptionAccessor(){
+		try {
+			return SUBUtils.getPropertyAccessor(enumClass, defaultDescriptionFieldName, false);
+		} catch (UtilException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the descriptor of the enum constant, which must be a constant of the enum class
+	 */
+	public EnumConstantDescriptor getDescriptor(Enum<?> enumConstant) {
+		return descriptors[enumConstant.ordinal()];
 	}
 
 	public String getDefaultValueFieldName() {
@@ -99,4 +159,22 @@ public class EnumFields {
 	public Class<?> getEnumClass() {
 		return enumClass;
 	}
+
+	/**
+	 * @return true if the default description field has a getter, see SettingsUtilBase.validateAllowedEnumFields
+	 */
+	boolean isDefaultDescriptionReadable() {
+		return defaultDescriptionReadable;
+	}
+
+//	shared by the EnumFields of the same enum class and field names, see MetadataRegistry
+	private static final class ConstantsMetadata{
+		private final EnumConstantDescriptor[] descriptors;
+		private final boolean defaultDescriptionReadable;
+
+		ConstantsMetadata(EnumConstantDescriptor[] descriptors, boolean defaultDescriptionReadable) {
+			this.descriptors = descriptors;
+			this.defaultDescriptionReadable = defaultDescriptionReadable;
+		}
+	}
 }
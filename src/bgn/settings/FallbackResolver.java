@@ -0,0 +1,228 @@
+package bgn.settings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import bgn.settings.cache.CacheEntry;
+import bgn.settings.cache.LookupKey;
+import bgn.settings.cache.SettingKey;
+import bgn.settings.cache.SettingsCache;
+
+/**
+* Resolves a grid setting through a chain of fallback levels for
+* {@link GridSettingsUtilBase#resolve(String, Object...)}. Level 0 is the grid values asked
+* for, each next level sets the value of the next fallback field to null, e.g. branch
+* override, then company default, then global.
+* <br>
+* When the settings are cached, the level a full key resolved to is remembered so the next
+* resolve of that key is a single cache probe. A resolution depends on every level up to the
+* one it resolved to, and is dropped when any of them is created, updated or invalidated.
+* The resolutions are kept in a bounded {@link SettingsCache}, an evicted one is walked again.
+*
+*/
+
+class FallbackResolver<T> {
+
+	private static final ThreadLocal<LookupKey> lookupKeys = new ThreadLocal<LookupKey>(){
+		@Override
+		protected LookupKey initialValue() {
+			return new LookupKey();
+		}
+	};
+
+	private final GridSettingsUtilBase<T> settingsUtil;
+//	the grid field indexes in the order their values are dropped
+	private final int[] fallbackIndexes;
+	private final boolean cacheResolutions;
+
+//	keyed by the full key of a resolve call, null unless the resolutions are cached
+	private final SettingsCache<Resolution> resolutions;
+//	the full keys resolved through each level key, for the resolutions in the cache only
+	private final ConcurrentMap<Object, Set<Object>> dependents = new ConcurrentHashMap<Object, Set<Object>>();
+//	incremented before every invalidation, so a resolution walked while a level changed is not kept
+	private final AtomicLong generation = new AtomicLong();
+
+	/**
+	 * @param maximumResolutions the maximum number of resolutions remembered, zero or less for no limit
+	 */
+	FallbackResolver(GridSettingsUtilBase<T> settingsUtil, int[] fallbackIndexes, boolean cacheResolutions,
+			boolean concurrent, long maximumResolutions) {
+		this.settingsUtil = settingsUtil;
+		this.fallbackIndexes = fallbackIndexes;
+		this.cacheResolutions = cacheResolutions;
+		if(cacheResolutions){
+			resolutions = new SettingsCache<Resolution>(concurrent, maximumResolutions, new Consumer<CacheEntry<Resolution>>() {
+				@Override
+				public void accept(CacheEntry<Resolution> entry) {
+					forget(entry.getSetting());
+				}
+			});
+		}else{
+			resolutions = null;
+		}
+	}
+
+	/**
+	 * @param orderedGridUniqueSettingsValues validated grid values, not modified
+	 * @return the setting of the most specific level that has one, null if none has
+	 */
+	T resolve(String settingName, Object[] orderedGridUniqueSettingsValues){
+
+		if(!cacheResolutions){
+			return walk(settingName, orderedGridUniqueSettingsValues, null, 0);
+		}
+
+		Resolution resolution;
+		LookupKey lookupKey = lookupKeys.get();
+		try{
+			resolution = resolutions.get(lookupKey.set(settingName, orderedGridUniqueSettingsValues));
+		}finally{
+			lookupKey.clear();
+		}
+
+		if(resolution != null){
+			T setting = settingsUtil.getByName(settingName, resolution.levelValues);
+			if(setting != null){
+				return setting;
+			}
+//			the level it resolved to is gone, walk the chain again
+			drop(resolution.fullKey);
+		}
+
+		long walkGeneration = generation.get();
+
+		return walk(settingName, orderedGridUniqueSettingsValues,
+				SettingKey.of(settingName, orderedGridUniqueSettingsValues), walkGeneration);
+	}
+
+	private T walk(String settingName, Object[] orderedGridUniqueSettingsValues, Object fullKey, long walkGeneration){
+
+		Object[] levelValues = orderedGridUniqueSettingsValues.clone();
+		List<Object> chain = fullKey == null ? null : new ArrayList<Object>(fallbackIndexes.length + 1);
+		int next = 0;
+
+		while(true){
+
+			if(chain != null){
+				chain.add(SettingKey.of(settingName, levelValues));
+			}
+
+			T setting = settingsUtil.getByName(settingName, levelValues);
+
+			if(setting != null){
+				if(chain != null){
+					remember(new Resolution(fullKey, levelValues, chain), walkGeneration);
+				}
+				return setting;
+			}
+
+//			skip the fields that are already null, they would give the same level again
+			while(next < fallbackIndexes.length && levelValues[fallbackIndexes[next]] == null){
+				next++;
+			}
+
+			if(next == fallbackIndexes.length){
+				return null;
+			}
+
+//			a new array per level, the one resolved to is kept by the resolution
+			levelValues = levelValues.clone();
+			levelValues[fallbackIndexes[next++]] = null;
+		}
+	}
+
+	private void remember(final Resolution resolution, long walkGeneration){
+
+//		the dependents first, so a resolution evicted as soon as it is put leaves none behind
+		for(Object levelKey : resolution.chain){
+			dependents.compute(levelKey, (key, fullKeys) -> {
+				if(fullKeys == null){
+					fullKeys = ConcurrentHashMap.newKeySet();
+				}
+				fullKeys.add(resolution.fullKey);
+				return fullKeys;
+			});
+		}
+
+		resolutions.put(resolution.fullKey, resolution, 1);
+
+		if(generation.get() != walkGeneration){
+			drop(resolution.fullKey);
+		}
+	}
+
+	private void drop(Object fullKey){
+
+		Resolution resolution = resolutions.remove(fullKey);
+
+		if(resolution != null){
+			forget(resolution);
+		}
+	}
+
+//	also called under the eviction lock of the resolutions cache, it must not call back into it
+	private void forget(final Resolution resolution){
+
+		final Object fullKey = resolution.fullKey;
+
+		for(Object levelKey : resolution.chain){
+			dependents.computeIfPresent(levelKey, (key, fullKeys) -> {
+				fullKeys.remove(fullKey);
+				return fullKeys.isEmpty() ? null : fullKeys;
+			});
+		}
+	}
+
+	/**
+	 * Drops the resolutions that depend on a level, see {@link SettingsUtilBase#settingChanged(String, Object[])}
+	 */
+	void invalidate(String settingName, Object[] orderedGridUniqueSettingsValues){
+
+		if(!cacheResolutions){
+			return;
+		}
+
+		generation.incrementAndGet();
+
+		if(settingName == null){
+			resolutions.clear();
+			dependents.clear();
+		}
+		else if(orderedGridUniqueSettingsValues == null){
+			for(CacheEntry<Resolution> entry : resolutions.entries()){
+				if(settingName.equals(SettingKey.nameOf(entry.getKey()))){
+					drop(entry.getKey());
+				}
+			}
+		}
+		else{
+			Set<Object> fullKeys = dependents.get(SettingKey.of(settingName, orderedGridUniqueSettingsValues));
+			if(fullKeys != null){
+				for(Object fullKey : fullKeys.toArray()){
+					drop(fullKey);
+				}
+			}
+		}
+	}
+
+	int size(){
+		return resolutions == null ? 0 : resolutions.size();
+	}
+
+	private static class Resolution{
+		private final Object fullKey;
+		private final Object[] levelValues;
+		private final List<Object> chain;
+
+		Resolution(Object fullKey, Object[] levelValues, List<Object> chain) {
+			this.fullKey = fullKey;
+			this.levelValues = levelValues;
+			this.chain = chain;
+		}
+	}
+}
@@ -1,10 +1,24 @@
 package bgn.settings;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+
+import bgn.settings.cache.ParsedValue;
+
 /**
 * This wrapper class eases the implementation of settings util in projects 
 * by presenting a generic settings util class that can be extended
 * for grid settings scenarios. It changes the visibility to public for the 
-* getSettingByName and the basic get setting value methods to ease extension
+* getSettingByName and the basic get setting value methods to ease extension. 
+* <br>
+* The lookups also come in one, two and three grid value overloads, which a grid of that many 
+* fields can call without the varargs array: a cached read through them allocates nothing. 
+* A miss, or grid values that do not match the grid fields, goes through the varargs method
 * 
 * @author Okafor Ezewuzie Dawuzi
 * @version 1.0
@@ -13,25 +27,164 @@ package bgn.settings;
 */
 
 public abstract class GridSettingsUtilBase<T> extends SettingsUtilBase<T> { 
+	
+	private final FallbackResolver<T> fallbackResolver;
+//	the number of grid values the fixed arity overloads must be given to skip the varargs method
+	private final int gridArity;
 
 	public GridSettingsUtilBase(boolean cacheSetting, Class<T> clazz,String... orderedGridUniqueSettingsFields) { 
-		super(cacheSetting, clazz, orderedGridUniqueSettingsFields);
+		this(cacheSetting, 0, clazz, orderedGridUniqueSettingsFields);
+	}
+
+	public GridSettingsUtilBase(boolean cacheSetting, long maximumCacheSize, Class<T> clazz,String... orderedGridUniqueSettingsFields) { 
+		super(cacheSetting, maximumCacheSize, clazz, orderedGridUniqueSettingsFields);
         
 		if(orderedGridUniqueSettingsFields == null || orderedGridUniqueSettingsFields.length == 0){
 			throw new IllegalArgumentException("You must specify an orderedGridUniqueSettingsFields. Use" +
 					" the SimpleSettingsUtilBase instead if it is not needed");
 		}
+		
+		fallbackResolver = new FallbackResolver<T>(this, getFallbackIndexes(fallbackOrder()), cacheSetting, 
+				concurrentCache, maximumFallbackResolutions());
+		gridArity = orderedGridUniqueSettingsFields.length;
 	}
-
+	
 	public GridSettingsUtilBase(Class<T> clazz,String... orderedGridUniqueSettingsFields) { 
 		this(false, clazz, orderedGridUniqueSettingsFields);
 	}
 
+	/**
+	 * Override this method to declare the fallback order of {@link #resolve(String, Object...)}: the grid 
+	 * fields in the order their values are dropped when a setting is not found. E.g. for the grid fields 
+	 * company and branch, {"branch", "company"} looks for the branch override, then the company default, 
+	 * then the global setting. Fields left out are never dropped. 
+	 * Defaults to all the grid fields from the last to the first
+	 * 
+	 * @return the grid field names in fallback order
+	 */
+	protected String[] fallbackOrder() {
+		return null;
+	}
+	
+	/**
+	 * Override this method to change how many resolutions of {@link #resolve(String, Object...)} are 
+	 * remembered when caching is on. The least used ones are dropped beyond it and walked again on their next resolve
+	 * 
+	 * @return the maximum number of remembered resolutions, zero or less for no limit
+	 */
+	protected long maximumFallbackResolutions() {
+		return 10000;
+	}
+	
+	private int[] getFallbackIndexes(String[] fallbackOrder){
+		
+		if(fallbackOrder == null){
+			int[] indexes = new int[orderedGridUniqueSettingsFields.length];
+			for(int x=0; x<indexes.length; x++){
+				indexes[x] = indexes.length - 1 - x;
+			}
+			return indexes;
+		}
+		
+		List<String> fields = new ArrayList<String>();
+		for(String field : orderedGridUniqueSettingsFields){
+			fields.add(field.trim());
+		}
+		
+		int[] indexes = new int[fallbackOrder.length];
+		
+		for(int x=0; x<fallbackOrder.length; x++){
+			
+			int index = fallbackOrder[x] == null ? -1 : fields.indexOf(fallbackOrder[x].trim());
+			
+			if(index < 0){
+				throw new IllegalArgumentException("the fallback field "+fallbackOrder[x]+" is not one of the orderedGridUniqueSettingsFields "+fields);
+			}
+			for(int y=0; y<x; y++){
+				if(indexes[y] == index){
+					throw new IllegalArgumentException("Multiple fallback fields : "+fallbackOrder[x].trim());
+				}
+			}
+			
+			indexes[x] = index;
+		}
+		
+		return indexes;
+	}
+	
+	/**
+	 * Walks the fallback levels declared by {@link #fallbackOrder()} from the given grid values to the 
+	 * most general one and returns the first setting found. With caching on, the level a key resolves to 
+	 * is remembered, and forgotten when that level or a more specific one is created, updated or invalidated
+	 * 
+	 * @return the setting of the most specific level that has one, null if none has
+	 */
+	public T resolve(String settingName, Object... orderedGridUniqueSettingsValues){
+		
+		if(settingName == null || settingName.trim().equals("")){
+			throw new IllegalArgumentException("setting name is null or empty");
+		}
+		
+		validateOrderedGridUniqueSettingsValues(orderedGridUniqueSettingsValues);
+		
+		return fallbackResolver.resolve(settingName.trim(), orderedGridUniqueSettingsValues);
+	}
+	
+	/**
+	 * @return the value of the setting {@link #resolve(String, Object...)} finds, 
+	 * the default value if none is found or its value is blank
+	 */
+	public String resolveValue(String settingName, String defaultValue, Object... orderedGridUniqueSettingsValues){
+		
+		T setting = resolve(settingName, orderedGridUniqueSettingsValues);
+		String value = setting == null ? null : getValueOf(setting);
+		
+		return value == null || value.trim().equals("") ? defaultValue : value;
+	}
+	
+	@Override
+	protected void settingChanged(String settingName, Object[] orderedGridUniqueSettingsValues) {
+		super.settingChanged(settingName, orderedGridUniqueSettingsValues);
+//		null until this constructor assigns it, an invalidation bus subscribed by the base constructor may call in before
+		if(fallbackResolver != null){
+			fallbackResolver.invalidate(settingName, orderedGridUniqueSettingsValues);
+		}
+	}
+
 	protected abstract T getSettingByName(String settingName,Object... orderedGridUniqueSettingsValues) throws Exception;
 
+    /**
+     * Fills the settings cache with {@link #getAllSettings()} and resolves the constants of the 
+     * allowed settings enums for each of the given grid values, creating the missing ones in one batch
+     */
+	@Override
+    public WarmUpReport warmUp(List<Object[]> orderedGridUniqueSettingsValuesList){
+    	return super.warmUp(orderedGridUniqueSettingsValuesList);
+    }
+
     public T getByName(String settingName,Object... orderedGridUniqueSettingsValues){
     	return super.getByName(settingName, orderedGridUniqueSettingsValues); 
     }
+
+	@Override
+    public void invalidate(String settingName,Object... orderedGridUniqueSettingsValues){
+    	super.invalidate(settingName, orderedGridUniqueSettingsValues); 
+    }
+
+	@Override
+	public Map<String, T> getSettingsByNames(Collection<String> settingNames, Object... orderedGridUniqueSettingsValues) {
+		return super.getSettingsByNames(settingNames, orderedGridUniqueSettingsValues);
+	}
+
+	@Override
+	public <E extends Enum<E>> EnumMap<E, T> getSettingsByNames(Class<E> enumClass, Object... orderedGridUniqueSettingsValues) {
+		return super.getSettingsByNames(enumClass, orderedGridUniqueSettingsValues);
+	}
+
+	@Override
+	public SortedMap<String, T> getSettingsByPrefix(String prefix, Object... orderedGridUniqueSettingsValues) {
+		return super.getSettingsByPrefix(prefix, orderedGridUniqueSettingsValues);
+	}
 	
 	@Override
 	public T getSettingByName(String settingName, String defaultValue,
@@ -86,6 +239,384 @@ public abstract class GridSettingsUtilBase<T> extends SettingsUtilBase<T> {
 		return super.getSettingBooleanValue(settingName, defaultValue,
 				defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
 	}
+
+	@Override
+	public int getInt(String settingName, int defaultValue,
+			String defaultDescription, boolean createIfNotExist,
+			Object... orderedGridUniqueSettingsValues) {
+		return super.getInt(settingName, defaultValue, defaultDescription,
+				createIfNotExist, orderedGridUniqueSettingsValues);
+	}
+
+	@Override
+	public long getLong(String settingName, long defaultValue,
+			String defaultDescription, boolean createIfNotExist,
+			Object... orderedGridUniqueSettingsValues) {
+		return super.getLong(settingName, defaultValue, defaultDescription,
+				createIfNotExist, orderedGridUniqueSettingsValues);
+	}
+
+	@Override
+	public float getFloat(String settingName, float defaultValue,
+			String defaultDescription, boolean createIfNotExist,
+			Object... orderedGridUniqueSettingsValues) {
+		return super.getFloat(settingName, defaultValue, defaultDescription,
+				createIfNotExist, orderedGridUniqueSettingsValues);
+	}
+
+	@Override
+	public boolean getBoolean(String settingName, boolean defaultValue,
+			String defaultDescription, boolean createIfNotExist,
+			Object... orderedGridUniqueSettingsValues) {
+		return super.getBoolean(settingName, defaultValue, defaultDescription,
+				createIfNotExist, orderedGridUniqueSettingsValues);
+	}
+
+	public T getByName(String settingName, Object gridValue0) {
+		return getByName(settingName, 1, gridValue0, null, null);
+	}
+
+	public T getByName(String settingName, Object gridValue0, Object gridValue1) {
+		return getByName(settingName, 2, gridValue0, gridValue1, null);
+	}
+
+	public T getByName(String settingName, Object gridValue0, Object gridValue1, Object gridValue2) {
+		return getByName(settingName, 3, gridValue0, gridValue1, gridValue2);
+	}
+
+	private T getByName(String settingName, 
+			int gridLength, Object gridValue0, Object gridValue1, Object gridValue2) {
+		boolean fixed = gridLength == gridArity;
+		T setting = fixed ? getCachedGridSetting(settingName, gridLength, gridValue0, gridValue1, gridValue2) : null;
+		if(setting != null){
+			return setting;
+		}
+		return getByName(settingName, gridValues(gridLength, gridValue0, gridValue1, gridValue2));
+	}
+
+	public String getSettingValue(String settingName, String defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0) {
+		return getSettingValue(settingName, defaultValue, defaultDescription, createIfNotExist, 1, gridValue0, null, null);
+	}
+
+	public String getSettingValue(String settingName, String defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1) {
+		return getSettingValue(settingName, defaultValue, defaultDescription, createIfNotExist, 2, gridValue0, gridValue1, null);
+	}
+
+	public String getSettingValue(String settingName, String defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1, Object gridValue2) {
+		return getSettingValue(settingName, defaultValue, defaultDescription, createIfNotExist, 3, gridValue0, gridValue1, gridValue2);
+	}
+
+	private String getSettingValue(String settingName, String defaultValue,
+			String defaultDescription, boolean createIfNotExist, 
+			int gridLength, Object gridValue0, Object gridValue1, Object gridValue2) {
+		boolean fixed = gridLength == gridArity;
+		String value = fixed && !(createIfNotExist && isBlank(defaultValue)) 
+				? getCachedGridValue(settingName, gridLength, gridValue0, gridValue1, gridValue2) : null;
+		if(value != null){
+			return value;
+		}
+		return getSettingValue(settingName, defaultValue, defaultDescription, createIfNotExist, gridValues(gridLength, gridValue0, gridValue1, gridValue2));
+	}
+
+	public Integer getSettingIntValue(String settingName, Integer defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0) {
+		return getSettingIntValue(settingName, defaultValue, defaultDescription, createIfNotExist, 1, gridValue0, null, null);
+	}
+
+	public Integer getSettingIntValue(String settingName, Integer defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1) {
+		return getSettingIntValue(settingName, defaultValue, defaultDescription, createIfNotExist, 2, gridValue0, gridValue1, null);
+	}
+
+	public Integer getSettingIntValue(String settingName, Integer defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1, Object gridValue2) {
+		return getSettingIntValue(settingName, defaultValue, defaultDescription, createIfNotExist, 3, gridValue0, gridValue1, gridValue2);
+	}
+
+	private Integer getSettingIntValue(String settingName, Integer defaultValue,
+			String defaultDescription, boolean createIfNotExist, 
+			int gridLength, Object gridValue0, Object gridValue1, Object gridValue2) {
+		boolean fixed = gridLength == gridArity;
+		ParsedValue val = fixed && !(createIfNotExist && defaultValue == null) 
+				? getCachedGridParsedValue(settingName, gridLength, gridValue0, gridValue1, gridValue2) : null;
+		if(val != null && val.isIntValid()){
+			return val.getIntValue();
+		}
+		return getSettingIntValue(settingName, defaultValue, defaultDescription, createIfNotExist, gridValues(gridLength, gridValue0, gridValue1, gridValue2));
+	}
+
+	public Long getSettingLongValue(String settingName, Long defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0) {
+		return getSettingLongValue(settingName, defaultValue, defaultDescription, createIfNotExist, 1, gridValue0, null, null);
+	}
+
+	public Long getSettingLongValue(String settingName, Long defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1) {
+		return getSettingLongValue(settingName, defaultValue, defaultDescription, createIfNotExist, 2, gridValue0, gridValue1, null);
+	}
+
+	public Long getSettingLongValue(String settingName, Long defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1, Object gridValue2) {
+		return getSettingLongValue(settingName, defaultValue, defaultDescription, createIfNotExist, 3, gridValue0, gridValue1, gridValue2);
+	}
+
+	private Long getSettingLongValue(String settingName, Long defaultValue,
+			String defaultDescription, boolean createIfNotExist, 
+			int gridLength, Object gridValue0, Object gridValue1, Object gridValue2) {
+		boolean fixed = gridLength == gridArity;
+		ParsedValue val = fixed && !(createIfNotExist && defaultValue == null) 
+				? getCachedGridParsedValue(settingName, gridLength, gridValue0, gridValue1, gridValue2) : null;
+		if(val != null && val.isLongValid()){
+			return val.getLongValue();
+		}
+		return getSettingLongValue(settingName, defaultValue, defaultDescription, createIfNotExist, gridValues(gridLength, gridValue0, gridValue1, gridValue2));
+	}
+
+	public Float getSettingFloatValue(String settingName, Float defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0) {
+		return getSettingFloatValue(settingName, defaultValue, defaultDescription, createIfNotExist, 1, gridValue0, null, null);
+	}
+
+	public Float getSettingFloatValue(String settingName, Float defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1) {
+		return getSettingFloatValue(settingName, defaultValue, defaultDescription, createIfNotExist, 2, gridValue0, gridValue1, null);
+	}
+
+	public Float getSettingFloatValue(String settingName, Float defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1, Object gridValue2) {
+		return getSettingFloatValue(settingName, defaultValue, defaultDescription, createIfNotExist, 3, gridValue0, gridValue1, gridValue2);
+	}
+
+	private Float getSettingFloatValue(String settingName, Float defaultValue,
+			String defaultDescription, boolean createIfNotExist, 
+			int gridLength, Object gridValue0, Object gridValue1, Object gridValue2) {
+		boolean fixed = gridLength == gridArity;
+		ParsedValue val = fixed && !(createIfNotExist && defaultValue == null) 
+				? getCachedGridParsedValue(settingName, gridLength, gridValue0, gridValue1, gridValue2) : null;
+		if(val != null && val.isFloatValid()){
+			return val.getFloatValue();
+		}
+		return getSettingFloatValue(settingName, defaultValue, defaultDescription, createIfNotExist, gridValues(gridLength, gridValue0, gridValue1, gridValue2));
+	}
+
+	public Boolean getSettingBooleanValue(String settingName, Boolean defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0) {
+		return getSettingBooleanValue(settingName, defaultValue, defaultDescription, createIfNotExist, 1, gridValue0, null, null);
+	}
+
+	public Boolean getSettingBooleanValue(String settingName, Boolean defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1) {
+		return getSettingBooleanValue(settingName, defaultValue, defaultDescription, createIfNotExist, 2, gridValue0, gridValue1, null);
+	}
+
+	public Boolean getSettingBooleanValue(String settingName, Boolean defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1, Object gridValue2) {
+		return getSettingBooleanValue(settingName, defaultValue, defaultDescription, createIfNotExist, 3, gridValue0, gridValue1, gridValue2);
+	}
+
+	private Boolean getSettingBooleanValue(String settingName, Boolean defaultValue,
+			String defaultDescription, boolean createIfNotExist, 
+			int gridLength, Object gridValue0, Object gridValue1, Object gridValue2) {
+		boolean fixed = gridLength == gridArity;
+		ParsedValue val = fixed && !(createIfNotExist && defaultValue == null) 
+				? getCachedGridParsedValue(settingName, gridLength, gridValue0, gridValue1, gridValue2) : null;
+		if(val != null && val.isBooleanValid()){
+			return val.getBooleanValue();
+		}
+		return getSettingBooleanValue(settingName, defaultValue, defaultDescription, createIfNotExist, gridValues(gridLength, gridValue0, gridValue1, gridValue2));
+	}
+
+	public int getInt(String settingName, int defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0) {
+		return getInt(settingName, defaultValue, defaultDescription, createIfNotExist, 1, gridValue0, null, null);
+	}
+
+	public int getInt(String settingName, int defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1) {
+		return getInt(settingName, defaultValue, defaultDescription, createIfNotExist, 2, gridValue0, gridValue1, null);
+	}
+
+	public int getInt(String settingName, int defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1, Object gridValue2) {
+		return getInt(settingName, defaultValue, defaultDescription, createIfNotExist, 3, gridValue0, gridValue1, gridValue2);
+	}
+
+	private int getInt(String settingName, int defaultValue,
+			String defaultDescription, boolean createIfNotExist, 
+			int gridLength, Object gridValue0, Object gridValue1, Object gridValue2) {
+		boolean fixed = gridLength == gridArity;
+		ParsedValue val = fixed 
+				? getCachedGridParsedValue(settingName, gridLength, gridValue0, gridValue1, gridValue2) : null;
+		if(val != null && val.isIntValid()){
+			return val.getIntValue();
+		}
+		return getInt(settingName, defaultValue, defaultDescription, createIfNotExist, gridValues(gridLength, gridValue0, gridValue1, gridValue2));
+	}
+
+	public long getLong(String settingName, long defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0) {
+		return getLong(settingName, defaultValue, defaultDescription, createIfNotExist, 1, gridValue0, null, null);
+	}
+
+	public long getLong(String settingName, long defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1) {
+		return getLong(settingName, defaultValue, defaultDescription, createIfNotExist, 2, gridValue0, gridValue1, null);
+	}
+
+	public long getLong(String settingName, long defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1, Object gridValue2) {
+		return getLong(settingName, defaultValue, defaultDescription, createIfNotExist, 3, gridValue0, gridValue1, gridValue2);
+	}
+
+	private long getLong(String settingName, long defaultValue,
+			String defaultDescription, boolean createIfNotExist, 
+			int gridLength, Object gridValue0, Object gridValue1, Object gridValue2) {
+		boolean fixed = gridLength == gridArity;
+		ParsedValue val = fixed 
+				? getCachedGridParsedValue(settingName, gridLength, gridValue0, gridValue1, gridValue2) : null;
+		if(val != null && val.isLongValid()){
+			return val.getLongValue();
+		}
+		return getLong(settingName, defaultValue, defaultDescription, createIfNotExist, gridValues(gridLength, gridValue0, gridValue1, gridValue2));
+	}
+
+	public float getFloat(String settingName, float defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0) {
+		return getFloat(settingName, defaultValue, defaultDescription, createIfNotExist, 1, gridValue0, null, null);
+	}
+
+	public float getFloat(String settingName, float defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1) {
+		return getFloat(settingName, defaultValue, defaultDescription, createIfNotExist, 2, gridValue0, gridValue1, null);
+	}
+
+	public float getFloat(String settingName, float defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1, Object gridValue2) {
+		return getFloat(settingName, defaultValue, defaultDescription, createIfNotExist, 3, gridValue0, gridValue1, gridValue2);
+	}
+
+	private float getFloat(String settingName, float defaultValue,
+			String defaultDescription, boolean createIfNotExist, 
+			int gridLength, Object gridValue0, Object gridValue1, Object gridValue2) {
+		boolean fixed = gridLength == gridArity;
+		ParsedValue val = fixed 
+				? getCachedGridParsedValue(settingName, gridLength, gridValue0, gridValue1, gridValue2) : null;
+		if(val != null && val.isFloatValid()){
+			return val.getFloatValue();
+		}
+		return getFloat(settingName, defaultValue, defaultDescription, createIfNotExist, gridValues(gridLength, gridValue0, gridValue1, gridValue2));
+	}
+
+	public boolean getBoolean(String settingName, boolean defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0) {
+		return getBoolean(settingName, defaultValue, defaultDescription, createIfNotExist, 1, gridValue0, null, null);
+	}
+
+	public boolean getBoolean(String settingName, boolean defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1) {
+		return getBoolean(settingName, defaultValue, defaultDescription, createIfNotExist, 2, gridValue0, gridValue1, null);
+	}
+
+	public boolean getBoolean(String settingName, boolean defaultValue,
+			String defaultDescription, boolean createIfNotExist, Object gridValue0, Object gridValue1, Object gridValue2) {
+		return getBoolean(settingName, defaultValue, defaultDescription, createIfNotExist, 3, gridValue0, gridValue1, gridValue2);
+	}
+
+	private boolean getBoolean(String settingName, boolean defaultValue,
+			String defaultDescription, boolean createIfNotExist, 
+			int gridLength, Object gridValue0, Object gridValue1, Object gridValue2) {
+		boolean fixed = gridLength == gridArity;
+		ParsedValue val = fixed 
+				? getCachedGridParsedValue(settingName, gridLength, gridValue0, gridValue1, gridValue2) : null;
+		if(val != null && val.isBooleanValid()){
+			return val.getBooleanValue();
+		}
+		return getBoolean(settingName, defaultValue, defaultDescription, createIfNotExist, gridValues(gridLength, gridValue0, gridValue1, gridValue2));
+	}
+
+//	the array of the varargs method, only built when the fixed arity overloads cannot answer from the cache
+	private static Object[] gridValues(int gridLength, Object gridValue0, Object gridValue1, Object gridValue2){
+		switch (gridLength) {
+		case 1:
+			return new Object[]{gridValue0};
+		case 2:
+			return new Object[]{gridValue0, gridValue1};
+		default:
+			return new Object[]{gridValue0, gridValue1, gridValue2};
+		}
+	}
+	
+	private static boolean isBlank(String value){
+		return value == null || value.trim().equals("");
+	}
+
+	@Override
+	public <V> SettingHandle<V> getHandle(String settingName, Class<V> type, V defaultValue,
+			Object... orderedGridUniqueSettingsValues) {
+		return super.getHandle(settingName, type, defaultValue, orderedGridUniqueSettingsValues);
+	}
+
+	@Override
+	public <V> SettingHandle<V> getHandle(Enum<?> enumObject, Class<V> type,
+			Object... orderedGridUniqueSettingsValues) {
+		return super.getHandle(enumObject, type, orderedGridUniqueSettingsValues);
+	}
+
+	@Override
+	public CompletableFuture<T> getByNameAsync(String settingName, Object... orderedGridUniqueSettingsValues) {
+		return super.getByNameAsync(settingName, orderedGridUniqueSettingsValues);
+	}
+
+	@Override
+	public CompletableFuture<T> getSettingByNameAsync(String settingName, String defaultValue,
+			String defaultDescription, boolean createIfNotExist,
+			Object... orderedGridUniqueSettingsValues) {
+		return super.getSettingByNameAsync(settingName, defaultValue, defaultDescription,
+				createIfNotExist, orderedGridUniqueSettingsValues);
+	}
+
+	@Override
+	public CompletableFuture<String> getSettingValueAsync(String settingName, String defaultValue,
+			String defaultDescription, boolean createIfNotExist,
+			Object... orderedGridUniqueSettingsValues) {
+		return super.getSettingValueAsync(settingName, defaultValue, defaultDescription,
+				createIfNotExist, orderedGridUniqueSettingsValues);
+	}
+
+	@Override
+	public CompletableFuture<Integer> getSettingIntValueAsync(String settingName,
+			Integer defaultValue, String defaultDescription,
+			boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
+		return super.getSettingIntValueAsync(settingName, defaultValue, defaultDescription,
+				createIfNotExist, orderedGridUniqueSettingsValues);
+	}
+
+	@Override
+	public CompletableFuture<Long> getSettingLongValueAsync(String settingName, Long defaultValue,
+			String defaultDescription, boolean createIfNotExist,
+			Object... orderedGridUniqueSettingsValues) {
+		return super.getSettingLongValueAsync(settingName, defaultValue, defaultDescription,
+				createIfNotExist, orderedGridUniqueSettingsValues);
+	}
+
+	@Override
+	public CompletableFuture<Float> getSettingFloatValueAsync(String settingName,
+			Float defaultValue, String defaultDescription,
+			boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
+		return super.getSettingFloatValueAsync(settingName, defaultValue,
+				defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
+	}
+
+	@Override
+	public CompletableFuture<Boolean> getSettingBooleanValueAsync(String settingName,
+			Boolean defaultValue, String defaultDescription,
+			boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
+		return super.getSettingBooleanValueAsync(settingName, defaultValue,
+				defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
+	}
 	
 	
 }
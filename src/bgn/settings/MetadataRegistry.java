@@ -0,0 +1,61 @@
+package bgn.settings;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+* The JVM wide registry of the validated class metadata shared by the settings utils: the
+* property accessors of a setting class for a set of field names, and the constant descriptors
+* of a settings enum for a set of enum field names. The metadata is computed by the first util
+* or {@link EnumFields} that asks for it and reused by the later ones.
+* <br>
+* It is kept in a {@link ClassValue}, so it goes away with the class it describes when its
+* class loader is unloaded. Metadata that fails validation is not kept.
+*
+*/
+
+final class MetadataRegistry {
+
+	private static final ClassValue<ConcurrentMap<List<?>, Object>> metadata = new ClassValue<ConcurrentMap<List<?>, Object>>(){
+		@Override
+		protected ConcurrentMap<List<?>, Object> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<List<?>, Object>();
+		}
+	};
+
+	private MetadataRegistry() {
+	}
+
+	/**
+	 * @param key the kind of metadata and the field names it was computed for
+	 * @param loader computes and validates the metadata, its exceptions are thrown to the caller
+	 */
+	@SuppressWarnings("unchecked")
+	static <V> V get(Class<?> clazz, List<?> key, final Function<List<?>, V> loader){
+
+		ConcurrentMap<List<?>, Object> classMetadata = metadata.get(clazz);
+
+		Object value = classMetadata.get(key);
+
+		if(value == null){
+			value = classMetadata.computeIfAbsent(key, new Function<List<?>, Object>() {
+				@Override
+				public Object apply(List<?> key) {
+					return loader.apply(key);
+				}
+			});
+		}
+
+		return (V) value;
+	}
+
+	/**
+	 * Drops the metadata of a class, so the next util or {@link EnumFields} validates it again. 
+	 * For the benchmarks of the validation cost
+	 */
+	static void clear(Class<?> clazz){
+		metadata.remove(clazz);
+	}
+}
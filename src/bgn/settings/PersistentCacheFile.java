@@ -0,0 +1,247 @@
+package bgn.settings;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+import bgn.settings.util.GridValueCodec;
+
+/**
+* The local file the settings cache of a {@link SettingsUtilBase} is saved to, so a restarted
+* util starts warm. The layout is a header (magic, format version, schema, save time, entry
+* count, body length and the CRC32 of the body) followed by the entries: name, grid values
+* encoded with {@link GridValueCodec}, value, description and load time.
+* <br>
+* The file is written to a temporary file and moved over the old one, and is memory mapped
+* to be read. A file with a bad header, a different schema or a body that does not match its
+* checksum is rejected as a whole.
+*
+*/
+
+class PersistentCacheFile {
+
+	private static final int MAGIC = 0x53555043;
+	private static final byte FORMAT_VERSION = 1;
+
+	private PersistentCacheFile() {
+	}
+
+	/**
+	 * @param schema identifies the setting class and fields, a file saved with another schema is not read
+	 */
+	static void write(Path file, String schema, List<PersistedSetting> settings) throws IOException{
+
+		ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(settings.size() * 64 + 64);
+		DataOutputStream body = new DataOutputStream(bodyBytes);
+
+		for(PersistedSetting setting : settings){
+			writeString(body, setting.name);
+			body.writeInt(setting.gridValues.length);
+			for(Object gridValue : setting.gridValues){
+				GridValueCodec.writeValue(body, gridValue);
+			}
+			writeString(body, setting.value);
+			writeString(body, setting.description);
+			body.writeLong(setting.loadedMillis);
+		}
+		body.flush();
+
+		byte[] bodyArray = bodyBytes.toByteArray();
+		CRC32 crc = new CRC32();
+		crc.update(bodyArray, 0, bodyArray.length);
+
+		Path directory = file.toAbsolutePath().getParent();
+		if(directory != null){
+			Files.createDirectories(directory);
+		}
+
+		Path temporaryFile = file.resolveSibling(file.getFileName()+".tmp");
+
+		try(OutputStream stream = Files.newOutputStream(temporaryFile)){
+			DataOutputStream out = new DataOutputStream(stream);
+			out.writeInt(MAGIC);
+			out.writeByte(FORMAT_VERSION);
+			out.writeUTF(schema);
+			out.writeLong(System.currentTimeMillis());
+			out.writeInt(settings.size());
+			out.writeInt(bodyArray.length);
+			out.writeLong(crc.getValue());
+			out.write(bodyArray);
+			out.flush();
+		}
+
+		try{
+			Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}catch(AtomicMoveNotSupportedException e){
+			Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * @return the saved settings
+	 * @throws IOException if the file cannot be read, is corrupt or was saved with another schema
+	 */
+	static List<PersistedSetting> read(Path file, String schema) throws IOException{
+
+		MappedByteBuffer buffer;
+
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		DataInputStream in = new DataInputStream(new ByteBufferInputStream(buffer));
+
+		if(buffer.remaining() < 4 || in.readInt() != MAGIC){
+			throw new IOException("not a settings cache file");
+		}
+		byte formatVersion = in.readByte();
+		if(formatVersion != FORMAT_VERSION){
+			throw new IOException("unsupported settings cache file format version "+formatVersion);
+		}
+		String fileSchema = in.readUTF();
+		if(!schema.equals(fileSchema)){
+			throw new IOException("settings cache file schema -"+fileSchema+"- does not match -"+schema+"-");
+		}
+
+		in.readLong();
+		int count = in.readInt();
+		int bodyLength = in.readInt();
+		long checksum = in.readLong();
+
+		if(count < 0 || bodyLength != buffer.remaining()){
+			throw new IOException("truncated settings cache file, body of "+buffer.remaining()+" bytes instead of "+bodyLength);
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(buffer.duplicate());
+		if(crc.getValue() != checksum){
+			throw new IOException("settings cache file checksum mismatch");
+		}
+
+		List<PersistedSetting> settings = new ArrayList<PersistedSetting>(count);
+
+		for(int x = 0; x < count; x++){
+			String name = readString(in, buffer);
+			int gridLength = in.readInt();
+			if(name == null || gridLength < 0 || gridLength > buffer.remaining()){
+				throw new IOException("malformed settings cache file entry "+x);
+			}
+			Object[] gridValues = new Object[gridLength];
+			for(int y = 0; y < gridLength; y++){
+				gridValues[y] = GridValueCodec.readValue(in);
+			}
+			String value = readString(in, buffer);
+			String description = readString(in, buffer);
+			long loadedMillis = in.readLong();
+			settings.add(new PersistedSetting(name, gridValues, value, description, loadedMillis));
+		}
+
+		if(buffer.hasRemaining()){
+			throw new IOException("malformed settings cache file, "+buffer.remaining()+" bytes after the last entry");
+		}
+
+		return settings;
+	}
+
+//	an int byte length, -1 for null, then the UTF-8 bytes. Unlike writeUTF it is not limited to 64K
+	private static void writeString(DataOutputStream out, String value) throws IOException{
+		if(value == null){
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in, ByteBuffer buffer) throws IOException{
+		int length = in.readInt();
+		if(length == -1){
+			return null;
+		}
+		if(length < 0 || length > buffer.remaining()){
+			throw new IOException("malformed settings cache file, string of "+length+" bytes");
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	static ScheduledExecutorService writer(){
+		return WriterHolder.WRITER;
+	}
+
+	static final class PersistedSetting{
+		final String name;
+		final Object[] gridValues;
+		final String value;
+		final String description;
+		final long loadedMillis;
+
+		PersistedSetting(String name, Object[] gridValues, String value, String description, long loadedMillis) {
+			this.name = name;
+			this.gridValues = gridValues;
+			this.value = value;
+			this.description = description;
+			this.loadedMillis = loadedMillis;
+		}
+	}
+
+	private static class ByteBufferInputStream extends InputStream{
+
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if(!buffer.hasRemaining()){
+				return -1;
+			}
+			length = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, length);
+			return length;
+		}
+	}
+
+	private static class WriterHolder{
+
+		static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "settings-cache-writer-"+count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+}
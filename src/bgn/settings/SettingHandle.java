@@ -0,0 +1,104 @@
+package bgn.settings;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+* A typed setting bound to a setting name or settings enum constant and its grid values, for
+* code that reads the same settings over and over. Get one from the getHandle methods of the
+* settings utils and keep it, e.g. in a field.
+* <br>
+* The util pushes the current value into the handle whenever it loads or refreshes the setting
+* and marks the handle stale when the setting is updated or invalidated, so {@link #get()} is a
+* single volatile read. A stale handle reads through the util on its next get, as does a handle
+* of a setting that is not cached or is due to expire or refresh.
+* <br>
+* The util holds its handles weakly, a handle no longer referenced by its caller is collected.
+*
+*/
+
+public final class SettingHandle<V> {
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<SettingHandle, Binding> BINDING =
+			AtomicReferenceFieldUpdater.newUpdater(SettingHandle.class, Binding.class, "binding");
+
+	private final SettingsUtilBase<?> settingsUtil;
+	final String settingName;
+	final Object[] orderedGridUniqueSettingsValues;
+	final Enum<?> enumObject;
+	final Class<V> type;
+	final V defaultValue;
+	private volatile Binding binding = new Binding(null, 0, true);
+
+	SettingHandle(SettingsUtilBase<?> settingsUtil, String settingName, Object[] orderedGridUniqueSettingsValues,
+			Enum<?> enumObject, Class<V> type, V defaultValue) {
+		this.settingsUtil = settingsUtil;
+		this.settingName = settingName;
+		this.orderedGridUniqueSettingsValues = orderedGridUniqueSettingsValues;
+		this.enumObject = enumObject;
+		this.type = type;
+		this.defaultValue = defaultValue;
+	}
+
+	/**
+	 * @return the current value of the setting, the default value if the setting is missing,
+	 * blank or not valid for the type of the handle
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(){
+
+		Binding current = binding;
+
+		if(current.stale || (current.checkAt != 0 && System.nanoTime() - current.checkAt >= 0)){
+			return settingsUtil.readHandle(this, current);
+		}
+		return (V) current.value;
+	}
+
+	public String getSettingName() {
+		return settingName;
+	}
+
+	/**
+	 * @return a copy of the grid values, an empty array for a simple setting
+	 */
+	public Object[] getOrderedGridUniqueSettingsValues() {
+		return orderedGridUniqueSettingsValues.clone();
+	}
+
+	public Class<V> getType() {
+		return type;
+	}
+
+	Binding binding(){
+		return binding;
+	}
+
+//	the value pushed by the util, it replaces whatever the handle holds
+	void bind(Object value, long checkAt){
+		binding = new Binding(value, checkAt, false);
+	}
+
+//	the value read through the util, dropped if the handle was bound or marked stale meanwhile
+	void bind(Binding expected, Object value, long checkAt){
+		BINDING.compareAndSet(this, expected, new Binding(value, checkAt, false));
+	}
+
+	void markStale(){
+		binding = new Binding(null, 0, true);
+	}
+
+//	a new instance on every change, so a read through the util can tell it was overtaken
+	static final class Binding{
+		private final Object value;
+//		the System.nanoTime() from which the value is to be checked through the util, 0 for never
+		private final long checkAt;
+		private final boolean stale;
+
+		private Binding(Object value, long checkAt, boolean stale) {
+			this.value = value;
+			this.checkAt = checkAt;
+			this.stale = stale;
+		}
+	}
+}
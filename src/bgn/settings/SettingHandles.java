@@ -0,0 +1,118 @@
+package bgn.settings;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+* The {@link SettingHandle}s given out by a settings util, grouped by setting name. They are
+* held through weak references, the references of the collected handles are purged whenever a
+* handle is registered or looked up.
+*
+*/
+
+class SettingHandles {
+
+	private final ConcurrentMap<String, Set<HandleReference>> handles = new ConcurrentHashMap<String, Set<HandleReference>>();
+	private final ReferenceQueue<SettingHandle<?>> collected = new ReferenceQueue<SettingHandle<?>>();
+
+	synchronized void register(SettingHandle<?> handle){
+
+		purge();
+
+		Set<HandleReference> references = handles.get(handle.settingName);
+		if(references == null){
+			references = ConcurrentHashMap.newKeySet();
+			handles.put(handle.settingName, references);
+		}
+		references.add(new HandleReference(handle, collected));
+	}
+
+	boolean isEmpty(){
+		return handles.isEmpty();
+	}
+
+	/**
+	 * @param orderedGridUniqueSettingsValues null for every grid combination of the setting name
+	 * @return the live handles of the setting
+	 */
+	List<SettingHandle<?>> find(String settingName, Object[] orderedGridUniqueSettingsValues){
+
+		purgeCollected();
+
+		Set<HandleReference> references = handles.get(settingName);
+
+		if(references == null){
+			return Collections.emptyList();
+		}
+
+		List<SettingHandle<?>> found = new ArrayList<SettingHandle<?>>();
+
+		for(HandleReference reference : references){
+			SettingHandle<?> handle = reference.get();
+			if(handle != null && (orderedGridUniqueSettingsValues == null
+					|| Arrays.equals(handle.orderedGridUniqueSettingsValues, orderedGridUniqueSettingsValues))){
+				found.add(handle);
+			}
+		}
+		return found;
+	}
+
+	void markAllStale(){
+
+		purgeCollected();
+
+		for(Set<HandleReference> references : handles.values()){
+			for(HandleReference reference : references){
+				SettingHandle<?> handle = reference.get();
+				if(handle != null){
+					handle.markStale();
+				}
+			}
+		}
+	}
+
+	private void purgeCollected(){
+		if(!isEmpty()){
+			synchronized (this) {
+				purge();
+			}
+		}
+	}
+
+//	guarded by this
+	private void purge(){
+
+		Reference<? extends SettingHandle<?>> reference;
+
+		while((reference = collected.poll()) != null){
+
+			String settingName = ((HandleReference) reference).settingName;
+			Set<HandleReference> references = handles.get(settingName);
+
+			if(references != null){
+				references.remove(reference);
+				if(references.isEmpty()){
+					handles.remove(settingName);
+				}
+			}
+		}
+	}
+
+	private static class HandleReference extends WeakReference<SettingHandle<?>>{
+
+		private final String settingName;
+
+		HandleReference(SettingHandle<?> handle, ReferenceQueue<SettingHandle<?>> queue) {
+			super(handle, queue);
+			this.settingName = handle.settingName;
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package bgn.settings;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+import bgn.settings.cache.LookupKey;
+import bgn.settings.cache.ParsedValue;
+
+/**
+* An immutable view of all the settings of a util at one point in time, keyed by the setting
+* name and grid values like the settings cache (see {@link bgn.settings.cache.SettingKey}), with every
+* value decoded once when the snapshot is built. A snapshot never changes, so reading several settings from the same snapshot gives
+* a consistent set even while the util swaps in a newer one. See {@link SettingsUtilBase#getSnapshot()}
+* <br>
+* The settings held are the ones returned by the backend and must not be modified.
+*
+*/
+
+public final class SettingsSnapshot<T> {
+
+	private static final ThreadLocal<LookupKey> lookupKeys = new ThreadLocal<LookupKey>(){
+		@Override
+		protected LookupKey initialValue() {
+			return new LookupKey();
+		}
+	};
+
+	private final Map<Object, Entry<T>> entries;
+	private final long version;
+	private final long createdMillis;
+
+	SettingsSnapshot(Map<Object, Entry<T>> entries, long version) {
+		this.entries = entries;
+		this.version = version;
+		this.createdMillis = System.currentTimeMillis();
+	}
+
+	/**
+	 * @return the setting, null if it was not in the backend when the snapshot was built
+	 */
+	public T get(String settingName, Object... orderedGridUniqueSettingsValues){
+		Entry<T> entry = getEntry(settingName, orderedGridUniqueSettingsValues);
+		return entry == null ? null : entry.setting;
+	}
+
+	public boolean contains(String settingName, Object... orderedGridUniqueSettingsValues){
+		return getEntry(settingName, orderedGridUniqueSettingsValues) != null;
+	}
+
+	/**
+	 * @return the setting value, the default value if the setting is missing or its value is blank
+	 */
+	public String getValue(String settingName, String defaultValue, Object... orderedGridUniqueSettingsValues){
+		Entry<T> entry = getEntry(settingName, orderedGridUniqueSettingsValues);
+		return entry == null || entry.value == null ? defaultValue : entry.value;
+	}
+
+	/**
+	 * @return the setting value as an int, the default value if the setting is missing or not a valid int
+	 */
+	public int getInt(String settingName, int defaultValue, Object... orderedGridUniqueSettingsValues){
+		ParsedValue parsedValue = getParsedValue(settingName, orderedGridUniqueSettingsValues);
+		return parsedValue != null && parsedValue.isIntValid() ? parsedValue.getIntValue() : defaultValue;
+	}
+
+	public long getLong(String settingName, long defaultValue, Object... orderedGridUniqueSettingsValues){
+		ParsedValue parsedValue = getParsedValue(settingName, orderedGridUniqueSettingsValues);
+		return parsedValue != null && parsedValue.isLongValid() ? parsedValue.getLongValue() : defaultValue;
+	}
+
+	public float getFloat(String settingName, float defaultValue, Object... orderedGridUniqueSettingsValues){
+		ParsedValue parsedValue = getParsedValue(settingName, orderedGridUniqueSettingsValues);
+		return parsedValue != null && parsedValue.isFloatValid() ? parsedValue.getFloatValue() : defaultValue;
+	}
+
+	/**
+	 * @return the setting value as a boolean, the default value if the setting is missing or
+	 * its value is neither the true nor the false value of the util
+	 */
+	public boolean getBoolean(String settingName, boolean defaultValue, Object... orderedGridUniqueSettingsValues){
+		ParsedValue parsedValue = getParsedValue(settingName, orderedGridUniqueSettingsValues);
+		return parsedValue != null && parsedValue.isBooleanValid() ? parsedValue.getBooleanValue() : defaultValue;
+	}
+
+	/**
+	 * @return all the settings of the snapshot
+	 */
+	public Collection<T> getSettings(){
+		Collection<T> settings = new ArrayList<T>(entries.size());
+		for(Entry<T> entry : entries.values()){
+			settings.add(entry.setting);
+		}
+		return Collections.unmodifiableCollection(settings);
+	}
+
+	public int size(){
+		return entries.size();
+	}
+
+	/**
+	 * @return when the snapshot was built, in milliseconds since the epoch
+	 */
+	public long getCreatedMillis() {
+		return createdMillis;
+	}
+
+	long getVersion() {
+		return version;
+	}
+
+	private ParsedValue getParsedValue(String settingName, Object... orderedGridUniqueSettingsValues){
+		Entry<T> entry = getEntry(settingName, orderedGridUniqueSettingsValues);
+		return entry == null ? null : entry.parsedValue;
+	}
+
+	private Entry<T> getEntry(String settingName, Object... orderedGridUniqueSettingsValues){
+
+		if(settingName == null){
+			return null;
+		}
+
+		settingName = settingName.trim();
+
+		if(orderedGridUniqueSettingsValues == null || orderedGridUniqueSettingsValues.length == 0){
+			return entries.get(settingName);
+		}
+
+		LookupKey lookupKey = lookupKeys.get();
+		try{
+			return entries.get(lookupKey.set(settingName, orderedGridUniqueSettingsValues));
+		}finally{
+			lookupKey.clear();
+		}
+	}
+
+	static <T> Entry<T> newEntry(T setting, String value, String trueValue, String falseValue){
+		if(value == null || value.trim().isEmpty()){
+			return new Entry<T>(setting, null, null);
+		}
+		return new Entry<T>(setting, value, ParsedValue.parse(value, trueValue, falseValue));
+	}
+
+	@Override
+	public String toString() {
+		return "SettingsSnapshot [version = "+version+", size = "+entries.size()+", createdMillis = "+createdMillis+"]";
+	}
+
+	static final class Entry<T>{
+		private final T setting;
+		private final String value;
+		private final ParsedValue parsedValue;
+
+		private Entry(T setting, String value, ParsedValue parsedValue) {
+			this.setting = setting;
+			this.value = value;
+			this.parsedValue = parsedValue;
+		}
+	}
+}
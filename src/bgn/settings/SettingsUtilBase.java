@@ -1,16 +1,63 @@
 package bgn.settings;
 
-import java.lang.reflect.InvocationTargetException;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
-import org.apache.commons.beanutils.BeanUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import bgn.exception.UtilException;
+import bgn.settings.cache.CacheEntry;
+import bgn.settings.cache.Interner;
+import bgn.settings.cache.LookupKey;
+import bgn.settings.cache.OffHeapStore;
+import bgn.settings.cache.ParsedValue;
+import bgn.settings.cache.SettingKey;
+import bgn.settings.cache.SettingsCache;
+import bgn.settings.invalidation.InvalidationBus;
+import bgn.settings.invalidation.InvalidationListener;
+import bgn.settings.invalidation.InvalidationMessage;
+import bgn.settings.metrics.SettingsMetrics;
+import bgn.settings.util.GeneratedAccessors;
+import bgn.settings.util.GridValueCodec;
+import bgn.settings.util.PropertyAccessor;
 import bgn.settings.util.SUBUtils;
 
 
@@ -31,10 +78,62 @@ import bgn.settings.util.SUBUtils;
 
 public abstract class SettingsUtilBase<T> {
 
-    @SuppressWarnings("rawtypes")
-	private final Map<List,T> settingsCache = new HashMap<List, T>()  ;
+//	keyed by the trimmed setting name for simple settings and by a SettingKey for grid settings
+	private final SettingsCache<T> settingsCache ;
+//	the keys of the settings known not to exist, null unless negativeCacheTtlMillis() is overridden
+	private final SettingsCache<Boolean> absentSettings ;
+	private final long negativeCacheTtlNanos ;
+//	backend loads/creates currently running, only used when concurrentCache is true
+	private final ConcurrentMap<Object, FutureTask<T>> inFlightLoads ;
     private final Logger log = LoggerFactory.getLogger(SettingsUtilBase.class);
+    private final SettingsMetrics metrics = new SettingsMetrics(this);
     protected final boolean cacheSetting ;
+    protected final boolean concurrentCache ;
+    protected final long maximumCacheSize ;
+    protected final boolean weighByValueLength ;
+    protected final long expireAfterWriteMillis ;
+    protected final long refreshAfterWriteMillis ;
+    private final Executor refreshExecutor ;
+    private final Executor asyncExecutor ;
+//	null unless writeBehind() is overridden to return true
+    private final WriteBehindQueue<T> writeBehindQueue ;
+//	null unless invalidationBus() is overridden
+    private final InvalidationBus invalidationBus ;
+    private final String invalidationChannel ;
+    private final String invalidationSourceId = UUID.randomUUID().toString();
+    private final InvalidationListener invalidationListener = new InvalidationListener() {
+		@Override
+		public void onInvalidation(InvalidationMessage message) {
+			if(!invalidationSourceId.equals(message.getSourceId())){
+				evict(message.getSettingName(), message.getGridValues());
+			}
+		}
+	};
+//	the snapshot of all the settings, null until the first getSnapshot() in snapshot mode. 
+//	A reload builds a new one and swaps it in, readers never see a half built snapshot
+    private final AtomicReference<SettingsSnapshot<T>> snapshot = new AtomicReference<SettingsSnapshot<T>>();
+    private final boolean snapshotMode ;
+//	incremented on every change that calls for a new snapshot, a snapshot is versioned with the count it was built for
+    private final AtomicLong snapshotRequests = new AtomicLong();
+    private final AtomicBoolean snapshotReloading = new AtomicBoolean();
+//	the cache keys seen for each setting name, sorted by name for the prefix lookups. Keys leave 
+//	when the cache evicts them or the backend no longer has the setting, and stay while they expire or are invalidated
+    private final ConcurrentSkipListMap<String, Set<Object>> settingKeys = new ConcurrentSkipListMap<String, Set<Object>>();
+//	the handles given out by getHandle, kept up to date by every change of their setting
+    private final SettingHandles handles = new SettingHandles();
+//	the prefix and grid values keys of the ranges fully loaded by loadSettingsByPrefix
+    private final Set<Object> loadedPrefixes = ConcurrentHashMap.newKeySet();
+//	true once getAllSettings() has filled the cache, every prefix is then complete
+    private volatile boolean allSettingsLoaded ;
+//	null unless persistentCacheFile() is overridden
+    private final Path persistentCacheFile ;
+    private final ScheduledFuture<?> persistentCacheWrite ;
+//	null unless offHeapCapacityBytes() is overridden. Every cached setting is written through to it, 
+//	the heap cache keeps the hot ones
+    private final OffHeapStore offHeapStore ;
+//	shared by every util of the JVM, equal values are repeated across utils as well as tenants
+    private static final Interner interner = new Interner();
+    private final boolean internSettingValues ;
     protected final Class<T> clazz;
     protected final String[] orderedGridUniqueSettingsFields ;
     protected final boolean showOnlyErrorLogs ;
@@ -50,16 +149,59 @@ public abstract class SettingsUtilBase<T> {
     
     private final List<EnumFields> allowedEnumFields;
     private final List<Class<?>> allowedEnumClasses;
+//	the replicas of each allowed enum class indexed by the ordinal of the enum constants, read only after the constructor
+    private final Map<Class<?>, SettingsReplica[]> enumReplicas;
+    
+//	resolved by verifyField for the first util of the setting class and fields, shared through the MetadataRegistry
+    private final Map<String, PropertyAccessor> accessors ;
     
     protected abstract T getSettingByName(String settingName, Object... orderedGridUniqueSettingsValues) throws Exception;
     protected abstract boolean createSetting(T setting) throws Exception;
     protected abstract boolean updateSetting(T setting) throws Exception;
     
     public SettingsUtilBase(boolean cacheSetting, Class<T> clazz, String... orderedGridUniqueSettingsFields){
+    	this(cacheSetting, 0, clazz, orderedGridUniqueSettingsFields);
+    }
+    
+    /**
+     * @param maximumCacheSize the maximum number of cached settings, or the maximum total length of the 
+     * cached values if {@link #weighByValueLength()} is overridden to return true. 
+     * Zero or less for an unbounded cache.
+     */
+    public SettingsUtilBase(boolean cacheSetting, long maximumCacheSize, Class<T> clazz, String... orderedGridUniqueSettingsFields){
     	this.cacheSetting = cacheSetting;
+    	this.maximumCacheSize = maximumCacheSize;
     	this.clazz = clazz;
     	this.orderedGridUniqueSettingsFields = orderedGridUniqueSettingsFields;
     	this.showOnlyErrorLogs = showOnlyErrorLogs();
+    	this.concurrentCache = concurrentCache();
+    	this.weighByValueLength = weighByValueLength();
+    	this.expireAfterWriteMillis = expireAfterWriteMillis();
+    	this.refreshAfterWriteMillis = refreshAfterWriteMillis();
+    	this.refreshExecutor = refreshExecutor();
+    	this.asyncExecutor = asyncExecutor();
+    	this.snapshotMode = snapshotMode();
+    	this.internSettingValues = internSettingValues();
+    	
+    	settingsCache = new SettingsCache<T>(concurrentCache, maximumCacheSize, new Consumer<CacheEntry<T>>() {
+			@Override
+			public void accept(CacheEntry<T> entry) {
+				unindexEvictedKey(entry.getKey());
+			}
+		});
+    	
+    	negativeCacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, negativeCacheTtlMillis()));
+    	if(negativeCacheTtlNanos > 0){
+    		absentSettings = new SettingsCache<Boolean>(concurrentCache, negativeCacheMaximumSize());
+    	}else{
+    		absentSettings = null;
+    	}
+    	
+    	if(concurrentCache){
+    		inFlightLoads = new ConcurrentHashMap<Object, FutureTask<T>>();
+    	}else{
+    		inFlightLoads = null;
+    	}
     	
     	NAME = getName();
     	VALUE = getValue();
@@ -72,11 +214,52 @@ public abstract class SettingsUtilBase<T> {
     	
     	ignoreDescription = ignoreDescription();
     	
-    	validateSettingObjectType();
+    	accessors = validateSettingObjectType();
     	
     	allowedEnumFields = getAllowedSettingsEnum();
     	allowedEnumClasses = getEnumClasses(allowedEnumFields);
     	validateAllowedEnumFields();
+    	enumReplicas = getEnumReplicas(allowedEnumFields);
+    	
+    	long offHeapCapacityBytes = offHeapCapacityBytes();
+    	if(offHeapCapacityBytes > 0){
+    		if(!cacheSetting){
+    			throw new IllegalStateException("the off heap store needs the settings to be cached");
+    		}
+    		offHeapStore = new OffHeapStore(offHeapCapacityBytes, TRUE, FALSE);
+    	}else{
+    		offHeapStore = null;
+    	}
+    	
+    	persistentCacheFile = persistentCacheFile();
+    	if(persistentCacheFile != null){
+    		if(!cacheSetting || !concurrentCache){
+    			throw new IllegalStateException("the persistent cache needs the settings to be cached with concurrentCache() returning true");
+    		}
+    		restorePersistentCache();
+    		persistentCacheWrite = schedulePersistentCacheWrite(persistentCacheWriteIntervalMillis());
+    	}else{
+    		persistentCacheWrite = null;
+    	}
+    	
+//    	once the util is valid, the queue schedules its flushes
+    	if(writeBehind()){
+    		writeBehindQueue = new WriteBehindQueue<T>(this, writeBehindQueueCapacity(), 
+    				writeBehindBatchSize(), writeBehindFlushIntervalMillis());
+    	}else{
+    		writeBehindQueue = null;
+    	}
+    	
+    	if(registerMetricsMBean()){
+    		metrics.register(clazz, getClass());
+    	}
+    	
+//    	last, a message can be delivered on another thread as soon as the listener is subscribed
+    	invalidationBus = invalidationBus();
+    	invalidationChannel = invalidationChannel();
+    	if(invalidationBus != null){
+    		invalidationBus.subscribe(invalidationChannel, invalidationListener);
+    	}
     }
 
 	private void validateTrueAndFalseValues() {
@@ -101,27 +284,259 @@ public abstract class SettingsUtilBase<T> {
     protected boolean showOnlyErrorLogs() {
 		return true;
 	}
-	private void validateSettingObjectType() {
+	/**
+     * Override this method to return true if the util is shared between threads. 
+     * The settings cache then allows lock free reads and threads missing the same 
+     * setting name and grid values wait on a single backend load or create 
+     * instead of each calling the backend
+     * 
+     * @return a boolean
+     */
+    protected boolean concurrentCache() {
+		return false;
+	}
+	/**
+     * Override this method to return true if a bounded cache should be limited by 
+     * the total length of the cached values instead of the number of cached settings
+     * 
+     * @return a boolean
+     */
+    protected boolean weighByValueLength() {
+		return false;
+	}
+	/**
+     * Override this method to have cached settings dropped this many milliseconds 
+     * after they were loaded, so the next read goes to the backend. 
+     * Zero or less (the default) means cached settings never expire
+     * 
+     * @return the expire after write duration in milliseconds
+     */
+    protected long expireAfterWriteMillis() {
+		return 0;
+	}
+	/**
+     * Override this method to have cached settings reloaded in the background this many 
+     * milliseconds after they were loaded. Until the reload completes readers keep getting 
+     * the cached setting without waiting on the backend. A reload that fails is tried again 
+     * after the same duration, meanwhile the cached setting is served. Zero or less (the default) disables it.
+     * <br>
+     * The background reload needs {@link #concurrentCache()}; without it a setting due for 
+     * a refresh is reloaded by the reading thread like an expired one
+     * 
+     * @return the refresh after write duration in milliseconds
+     */
+    protected long refreshAfterWriteMillis() {
+		return 0;
+	}
+	/**
+     * Override this method to give a setting (or enum constant, whose name is the setting name) 
+     * its own expiry. Defaults to {@link #expireAfterWriteMillis()}
+     */
+    protected long getExpireAfterWriteMillis(String settingName) {
+		return expireAfterWriteMillis;
+	}
+	/**
+     * Override this method to give a setting (or enum constant, whose name is the setting name) 
+     * its own refresh interval. Defaults to {@link #refreshAfterWriteMillis()}
+     */
+    protected long getRefreshAfterWriteMillis(String settingName) {
+		return refreshAfterWriteMillis;
+	}
+	/**
+     * Override this method to run the background refreshes on your own executor. 
+     * Defaults to a shared pool of daemon threads
+     * 
+     * @return an executor
+     */
+    protected Executor refreshExecutor() {
+		return RefreshExecutorHolder.EXECUTOR;
+	}
+	/**
+     * Override this method to run the backend calls of the ...Async getters on your own executor. 
+     * Defaults to a virtual thread per task when the JVM has virtual threads, 
+     * otherwise to a shared pool of daemon threads
+     * 
+     * @return an executor
+     */
+    protected Executor asyncExecutor() {
+		return AsyncExecutorHolder.EXECUTOR;
+	}
+	/**
+     * Override this method to return true to take the writes done while reading a setting, i.e. 
+     * creating a missing setting and repairing a blank or invalid value, off the read path. 
+     * They are queued, coalesced per setting and written in batches through 
+     * {@link #createSettings(Collection)} and {@link #updateSettings(Collection)}. 
+     * Call {@link #shutdown()} to flush the queue, it is also flushed when the JVM shuts down
+     * 
+     * @return true to write behind
+     */
+    protected boolean writeBehind() {
+		return false;
+	}
+	/**
+     * Override this method to change the number of settings that can wait to be written behind. 
+     * Writes for other settings are dropped while the queue is full
+     * 
+     * @return the write behind queue capacity
+     */
+    protected int writeBehindQueueCapacity() {
+		return 10000;
+	}
+	/**
+     * Override this method to change the number of queued settings that triggers a flush 
+     * before the flush interval is up
+     * 
+     * @return the write behind batch size
+     */
+    protected int writeBehindBatchSize() {
+		return 100;
+	}
+	/**
+     * Override this method to change how often the write behind queue is flushed. 
+     * Zero or less to flush only when the batch size is reached and on shutdown
+     * 
+     * @return the flush interval in milliseconds
+     */
+    protected long writeBehindFlushIntervalMillis() {
+		return 1000;
+	}
+	/**
+     * Override this method to remember for this many milliseconds that a setting does not exist, 
+     * so reads that do not create it stop going to the backend. The marker is cleared when 
+     * the setting is created, updated or invalidated through this util. 
+     * Zero or less (the default) disables the negative cache
+     * 
+     * @return the negative cache time to live in milliseconds
+     */
+    protected long negativeCacheTtlMillis() {
+		return 0;
+	}
+	/**
+     * Override this method to change the maximum number of settings remembered as missing. 
+     * Zero or less for no limit
+     * 
+     * @return the negative cache maximum size
+     */
+    protected long negativeCacheMaximumSize() {
+		return 10000;
+	}
+	/**
+     * Override this method to return true to register the metrics of this util with the platform 
+     * MBean server. Call {@link #shutdown()} to unregister them, the MBean of a util collected without 
+     * a shutdown is unregistered when the next util registers. The metrics are available from 
+     * {@link #getMetrics()} either way
+     * 
+     * @return false (the default) to keep the metrics out of the MBean server
+     */
+    protected boolean registerMetricsMBean() {
+		return false;
+	}
+	/**
+     * Override this method to share invalidations with the other utils on the same channel, 
+     * e.g. the same util on the other nodes of a cluster. The keys of the settings created, 
+     * updated or invalidated through this util are published and the keys published by the 
+     * others are evicted from its cache. 
+     * <br>
+     * It is called once, as the last step of the constructor of this class. Like the other hooks it runs 
+     * before the constructor of the subclass, so it cannot return a bus the subclass constructor stores 
+     * in a field
+     * 
+     * @return the invalidation bus, null (the default) for none
+     */
+    protected InvalidationBus invalidationBus() {
+		return null;
+	}
+	/**
+     * Override this method to change the invalidation bus channel. 
+     * Defaults to the name of the util class
+     * 
+     * @return the channel name
+     */
+    protected String invalidationChannel() {
+		return getClass().getName();
+	}
+	/**
+     * Override this method to return true to keep an immutable snapshot of all the settings, 
+     * read with {@link #getSnapshot()}. It is built from {@link #getAllSettings()}, which must be 
+     * overridden, and rebuilt in the background on the refresh executor after every create, update 
+     * or invalidation seen by this util. It sits alongside the settings cache, the getters of the 
+     * util are not affected
+     * 
+     * @return true to enable the snapshot mode
+     */
+    protected boolean snapshotMode() {
+		return false;
+	}
+	/**
+     * Override this method to save the settings cache to a local file, so a restarted util starts 
+     * with the cache of the previous run instead of loading every setting from the backend. The file 
+     * is read when the util is created and the restored settings are reloaded in the background the 
+     * first time they are read, meanwhile readers get the restored value. Needs {@link #concurrentCache()}
+     * <br>
+     * Called once from the constructor of this class, before the constructor of the extending class 
+     * runs, so it cannot return a path stored in a field of the extending class. The periodic save 
+     * holds the util weakly, call {@link #shutdown()} to save the file a last time when done with the util
+     * 
+     * @return the cache file, null (the default) for none
+     */
+    protected Path persistentCacheFile() {
+		return null;
+	}
+	/**
+     * Override this method to change how often the settings cache is saved to the 
+     * {@link #persistentCacheFile()}. Zero or less to save it only on {@link #shutdown()}
+     * 
+     * @return the save interval in milliseconds
+     */
+    protected long persistentCacheWriteIntervalMillis() {
+		return 60000;
+	}
+	/**
+     * Override this method to change the age, since they were loaded from the backend, beyond which 
+     * saved settings are not restored. Zero or less for no limit
+     * 
+     * @return the maximum age in milliseconds
+     */
+    protected long persistentCacheMaxAgeMillis() {
+		return TimeUnit.DAYS.toMillis(1);
+	}
+	/**
+     * Override this method to keep every cached setting in direct memory as well, outside the Java heap. 
+     * The heap cache, bounded by the maximum cache size, then holds only the hot settings: a setting it 
+     * evicted is read back from the off heap store instead of the backend, and the int, long, float and 
+     * boolean getters read it there without creating the setting object. Settings with grid values other 
+     * than strings, numbers, booleans, characters, dates and enums stay on the heap only. An off heap 
+     * setting is kept until it expires or is due for a refresh, whichever comes first
+     * 
+     * @return the capacity of the off heap store in bytes, zero (the default) for none
+     */
+    protected long offHeapCapacityBytes() {
+		return 0;
+	}
+	/**
+     * Override this method to return true to share one instance of each distinct name, value, 
+     * description and grid value among the cached settings and their cache keys, instead of one copy 
+     * per setting loaded. The heap taken by many tenants with the same values then grows with the 
+     * distinct values rather than with the number of settings. The shared instances are set back into 
+     * the settings loaded through their setters, and grid values are matched with their equals method
+     * 
+     * @return true to intern the setting values
+     */
+    protected boolean internSettingValues() {
+		return false;
+	}
+	private Map<String, PropertyAccessor> validateSettingObjectType() {
     	
 		if(clazz == null){
 			throw new IllegalArgumentException("clazz argument is null");
 		}
 		
-		T obj;
-
-    	try {
-    		obj = clazz.newInstance();
-    	} catch (Exception e) {
-    		throw new UtilException("Cannot create instance of "
-    				+clazz.getCanonicalName()
-    				+", Please ensure the Setting class has a no argument contructor", e);
-    	}
-
-    	verifyField(obj,NAME);
-    	verifyField(obj,VALUE);
+		List<String> fields = new ArrayList<String>();
+		fields.add(NAME);
+		fields.add(VALUE);
     	
     	if(!ignoreDescription){
-    		verifyField(obj,DESCRIPTION);
+    		fields.add(DESCRIPTION);
     	}
     	List<String> verifiedOrderedGridUniqueSettingsFields = new ArrayList<String>();
     	
@@ -138,13 +553,46 @@ public abstract class SettingsUtilBase<T> {
         			throw new IllegalArgumentException("Multiple orderedGridUniqueSettingsFields : "+anOrderedGridUniqueSettingsField.trim());
         		}
         		
-        		verifyField(obj,anOrderedGridUniqueSettingsField);
+        		fields.add(anOrderedGridUniqueSettingsField);
         		
         		verifiedOrderedGridUniqueSettingsFields.add(anOrderedGridUniqueSettingsField.trim());
         	}
         	
         }
+        
+//		the key is tagged, the same class may also be a settings enum of another util
+        fields.add(0, "setting");
+        
+        return MetadataRegistry.get(clazz, fields, new Function<List<?>, Map<String, PropertyAccessor>>() {
+			@Override
+			public Map<String, PropertyAccessor> apply(List<?> key) {
+				return verifyFields(key.subList(1, key.size()));
+			}
+		});
     }
+	
+//	the reflective part of the validation, done once per setting class and fields. 
+//	Without reflection if the class has GeneratedAccessors
+	private Map<String, PropertyAccessor> verifyFields(List<?> fields) {
+		
+		T obj;
+
+    	try {
+    		obj = newInstance();
+    	} catch (Exception e) {
+    		throw new UtilException("Cannot create instance of "
+    				+clazz.getCanonicalName()
+    				+", Please ensure the Setting class has a no argument contructor", e);
+    	}
+    	
+    	Map<String, PropertyAccessor> verifiedAccessors = new HashMap<String, PropertyAccessor>();
+    	
+    	for(Object field : fields){
+    		verifyField(obj, (String) field, verifiedAccessors);
+    	}
+    	
+    	return Collections.unmodifiableMap(verifiedAccessors);
+	}
 
     protected String getDescription() {
 		return "description";
@@ -156,136 +604,606 @@ public abstract class SettingsUtilBase<T> {
 		return "name";
 	}
 	
-    private void verifyField(T obj, String field) {
-		getProperty(obj, field);
-		setProperty(obj, field, null);
+//	through the generated accessors of the class if it has some, else by reflection
+    private T newInstance() throws InstantiationException, IllegalAccessException {
+    	GeneratedAccessors generated = GeneratedAccessors.forClass(clazz);
+    	Object instance = generated == null ? null : generated.newInstance();
+    	return instance == null ? clazz.newInstance() : clazz.cast(instance);
+    }
+    
+    private void verifyField(T obj, String field, Map<String, PropertyAccessor> verifiedAccessors) {
+    	PropertyAccessor accessor = SUBUtils.getPropertyAccessor(clazz, field, true);
+		accessor.get(obj);
+		accessor.set(obj, null);
+		verifiedAccessors.put(field, accessor);
+	}
+	
+	/**
+	 * @return the value of a setting as a string, null if it has none
+	 */
+	String getValueOf(T setting){
+		Object value = getProperty(setting, VALUE);
+		return value == null ? null : value.toString();
 	}
 	
 	private Object getProperty(Object setting, String fieldName){
-		return SUBUtils.getProperty(clazz, setting, fieldName);
+		PropertyAccessor accessor = accessors.get(fieldName);
+		if(accessor == null){
+			return SUBUtils.getProperty(clazz, setting, fieldName);
+		}
+		return accessor.get(setting);
 	}
 	private void setProperty(Object setting, String fieldName, Object value){
-		SUBUtils.setProperty(clazz, setting, fieldName, value);
+		PropertyAccessor accessor = accessors.get(fieldName);
+		if(accessor == null){
+			SUBUtils.setProperty(clazz, setting, fieldName, value);
+			return;
+		}
+		accessor.set(setting, value);
 	}
 
-	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private List getList(Object settingName, Object... objs) 
-			throws IllegalAccessException, InstantiationException, InvocationTargetException, NoSuchMethodException{
-		
-		List list = new ArrayList();
-
-		list.add(BeanUtils.cloneBean(settingName));
+    private static final ThreadLocal<LookupKey> lookupKeys = new ThreadLocal<LookupKey>(){
+    	@Override
+    	protected LookupKey initialValue() {
+    		return new LookupKey();
+    	}
+    };
 
-		if(objs != null){
-			for(Object o : objs){
-				if(o != null){
-					list.add(BeanUtils.cloneBean(o));
-				}
-				else{
-					list.add(o);
-				}
+	private T putInCache(Object key, T setting){
+		key = internKey(key);
+		internValues(setting);
+		indexSettingKey(key);
+		String settingName = SettingKey.nameOf(key);
+		putOffHeap(key, setting);
+		long writeTime = System.nanoTime();
+		T previousSetting = settingsCache.put(key, setting, weigh(setting), 
+				TimeUnit.MILLISECONDS.toNanos(getExpireAfterWriteMillis(settingName)), 
+				TimeUnit.MILLISECONDS.toNanos(getRefreshAfterWriteMillis(settingName)));
+		bindHandles(key, setting, writeTime);
+		return previousSetting;
+	}
+	
+//	the key with its name and grid values replaced by the shared instances
+	private Object internKey(Object key){
+		
+		if(!internSettingValues){
+			return key;
+		}
+		
+		Object[] orderedGridUniqueSettingsValues = SettingKey.gridValuesOf(key);
+		for(int x=0; x<orderedGridUniqueSettingsValues.length; x++){
+			orderedGridUniqueSettingsValues[x] = interner.intern(orderedGridUniqueSettingsValues[x]);
+		}
+		
+		return SettingKey.of(interner.intern(SettingKey.nameOf(key)), orderedGridUniqueSettingsValues);
+	}
+	
+	private void internValues(T setting){
+		
+		if(!internSettingValues || setting == null){
+			return;
+		}
+		
+		internProperty(setting, NAME);
+		internProperty(setting, VALUE);
+		if(!ignoreDescription){
+			internProperty(setting, DESCRIPTION);
+		}
+		if(orderedGridUniqueSettingsFields != null){
+			for(String field : orderedGridUniqueSettingsFields){
+				internProperty(setting, field);
 			}
 		}
-		return list;
 	}
-
-	protected T getSettingByName(String settingName, String defaultValue, 
-			String defaultDescription, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues){
-        
-        if(settingName.trim().equals("")){
-            throw new IllegalArgumentException("setting name is empty");
-        }
-        
-        if(createIfNotExist && ((defaultValue == null) || (defaultValue.trim().equals("")) )){
-            throw new IllegalArgumentException("A defaultValue must be specified if createIfNotExist is true. Error settings name : "+settingName);
-        }
-        
-        validateOrderedGridUniqueSettingsValues(orderedGridUniqueSettingsValues);
-        
-        try{
-        
-	        settingName = settingName.trim();
 	
-	        T setting = null;
-	        
-	        if(cacheSetting){
-		        setting = settingsCache.get(getList(settingName, orderedGridUniqueSettingsValues));
-		        
-		        if(setting != null){
-	            	if(!showOnlyErrorLogs){
-			            log.debug("returning setting with name -"
-			                    +settingName+"- from settingCache");
-	            	}
-		            return setting;
-		        }
-	        }
-	        
-	        try {
-	            setting = getSettingByName(settingName,orderedGridUniqueSettingsValues);
-	        } catch (Exception ex) {
-	            log.error("Exception", ex);
-	        }
+	private void internProperty(T setting, String fieldName){
+		Object value = getProperty(setting, fieldName);
+		Object shared = interner.intern(value);
+		if(shared != value){
+			setProperty(setting, fieldName, shared);
+		}
+	}
 	
-	        if (setting != null) {
-	            
-	        	if(cacheSetting){
-	        	
-		            Object prevSetting = settingsCache.put(getList(settingName, orderedGridUniqueSettingsValues), setting);
-		            
-		            if(prevSetting != null){
-		            	if(!showOnlyErrorLogs){
-			                log.warn("A previous setting with name -"
-			                        +settingName+"- was removed from the settingCache");
-		                }
-		            }else{
-		            	if(!showOnlyErrorLogs){
-		            		log.debug("Adding an already existing setting with name -"
-		            				+settingName+"- to settingCache, value = -"+getProperty(setting,VALUE)+"-");
-		            	}
-		            }
-	        	}
-	        	
-	            return setting;
-	            
-	        } 
-	        else if (createIfNotExist) {
-	        	setting = clazz.newInstance();
-	            
-	            setProperty(setting, NAME, settingName);
-	            
-	            if (defaultValue != null) {
-	                setProperty(setting, VALUE, defaultValue);
-	            } else {
-	                setProperty(setting, VALUE, "");
-	            }
+	private void putOffHeap(Object key, T setting){
+		
+		if(offHeapStore == null){
+			return;
+		}
+		
+		String settingName = SettingKey.nameOf(key);
+		Object[] orderedGridUniqueSettingsValues = SettingKey.gridValuesOf(key);
+		
+		if(!OffHeapStore.isStorable(orderedGridUniqueSettingsValues)){
+			return;
+		}
+		
+		long expireAfterWriteMillis = getExpireAfterWriteMillis(settingName);
+		long refreshAfterWriteMillis = getRefreshAfterWriteMillis(settingName);
+		long validMillis = expireAfterWriteMillis <= 0 ? refreshAfterWriteMillis 
+				: refreshAfterWriteMillis <= 0 ? expireAfterWriteMillis : Math.min(expireAfterWriteMillis, refreshAfterWriteMillis);
+		long expiresAt = validMillis <= 0 ? 0 : (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(validMillis)) | 1;
+		
+		Object value = getProperty(setting, VALUE);
+		Object description = ignoreDescription ? null : getProperty(setting, DESCRIPTION);
+		
+		offHeapStore.put(settingName, orderedGridUniqueSettingsValues, value == null ? null : value.toString(), 
+				description == null ? null : description.toString(), expiresAt);
+	}
 	
-	            if(!ignoreDescription){
-		            if (defaultDescription != null) {
-		                setProperty(setting, DESCRIPTION, defaultDescription);
-		            } else {
-		                setProperty(setting, DESCRIPTION, "");
-		            }
-	            }
-	            
-	            if(orderedGridUniqueSettingsValues != null 
-	            		&& orderedGridUniqueSettingsValues.length > 0){
-	            	for(int x = 0; x < orderedGridUniqueSettingsValues.length; x++){
-	            		setProperty(setting, orderedGridUniqueSettingsFields[x], orderedGridUniqueSettingsValues[x]);
-	            	}
-	            }
+	private void removeOffHeap(Object key){
+		if(offHeapStore != null){
+			offHeapStore.remove(SettingKey.nameOf(key), SettingKey.gridValuesOf(key));
+		}
+	}
 	
-	            createSetting(setting);
-	            
-	        	if(cacheSetting){
-	            
-		            Object prevSetting = settingsCache.put(getList(settingName, orderedGridUniqueSettingsValues), setting);
-		            
-		            if(prevSetting != null){
-		            	if(!showOnlyErrorLogs){
-			                log.warn("A previous setting with name -"
-			                        +settingName+"- was removed from the settingCache");
-		            	}
-		            }else{
+//	pushes the value of a setting just put in the cache into its handles
+	private void bindHandles(Object key, T setting, long writeTime){
+		
+		if(handles.isEmpty()){
+			return;
+		}
+		
+		String settingName = SettingKey.nameOf(key);
+		long checkAt = handleCheckTime(settingName, writeTime);
+		ParsedValue parsedValue = null;
+		
+		for(SettingHandle<?> handle : handles.find(settingName, SettingKey.gridValuesOf(key))){
+			if(parsedValue == null){
+				parsedValue = parse(getValueOf(setting));
+			}
+			handle.bind(handleValue(handle, parsedValue), checkAt);
+		}
+	}
+	
+//	the bindings of the handles of a key before it is reloaded, null if it has no handles
+	private Map<SettingHandle<?>, SettingHandle.Binding> observeHandles(Object key){
+		
+		if(handles.isEmpty()){
+			return null;
+		}
+		
+		Map<SettingHandle<?>, SettingHandle.Binding> observed = new IdentityHashMap<SettingHandle<?>, SettingHandle.Binding>();
+		for(SettingHandle<?> handle : handles.find(SettingKey.nameOf(key), SettingKey.gridValuesOf(key))){
+			observed.put(handle, handle.binding());
+		}
+		return observed;
+	}
+	
+//	pushes a reloaded value into the handles still bound as they were before the reload, 
+//	a handle bound or marked stale meanwhile holds a newer value than the reload
+	private void bindHandles(Object key, T setting, long writeTime, Map<SettingHandle<?>, SettingHandle.Binding> observed){
+		
+		if(observed == null || observed.isEmpty()){
+			return;
+		}
+		
+		long checkAt = handleCheckTime(SettingKey.nameOf(key), writeTime);
+		ParsedValue parsedValue = parse(getValueOf(setting));
+		
+		for(Map.Entry<SettingHandle<?>, SettingHandle.Binding> handle : observed.entrySet()){
+			handle.getKey().bind(handle.getValue(), handleValue(handle.getKey(), parsedValue), checkAt);
+		}
+	}
+	
+	private void markHandlesStale(Object key){
+		if(!handles.isEmpty()){
+			markHandlesStale(SettingKey.nameOf(key), SettingKey.gridValuesOf(key));
+		}
+	}
+	
+//	null grid values for every grid combination of the name
+	private void markHandlesStale(String settingName, Object[] orderedGridUniqueSettingsValues){
+		if(!handles.isEmpty()){
+			for(SettingHandle<?> handle : handles.find(settingName, orderedGridUniqueSettingsValues)){
+				handle.markStale();
+			}
+		}
+	}
+	
+//	when the value a handle got from a cache entry written at writeTime is to be checked through the cache again, 
+//	i.e. when the entry expires or is due for a refresh. 0 if never
+	private long handleCheckTime(String settingName, long writeTime){
+		
+		long expireAfterWriteMillis = getExpireAfterWriteMillis(settingName);
+		long refreshAfterWriteMillis = getRefreshAfterWriteMillis(settingName);
+		long validMillis = expireAfterWriteMillis <= 0 ? refreshAfterWriteMillis 
+				: refreshAfterWriteMillis <= 0 ? expireAfterWriteMillis : Math.min(expireAfterWriteMillis, refreshAfterWriteMillis);
+		
+		return validMillis <= 0 ? 0 : (writeTime + TimeUnit.MILLISECONDS.toNanos(validMillis)) | 1;
+	}
+	
+	private ParsedValue parse(String value){
+		return value == null || SUBUtils.isBlank(value) ? null : ParsedValue.parse(value, TRUE, FALSE);
+	}
+	
+	private Object handleValue(SettingHandle<?> handle, ParsedValue parsedValue){
+		return typedValue(handle.type, parsedValue, handle.defaultValue);
+	}
+	
+//	the value as the type of a handle, the default value if it is blank or invalid for the type
+	private Object typedValue(Class<?> type, ParsedValue parsedValue, Object defaultValue){
+		
+		if(parsedValue == null){
+			return defaultValue;
+		}
+		
+		if(type == String.class){
+			return parsedValue.getSource();
+		}
+		if(type == Integer.class){
+			return parsedValue.isIntValid() ? (Object) parsedValue.getIntValue() : defaultValue;
+		}
+		if(type == Long.class){
+			return parsedValue.isLongValid() ? (Object) parsedValue.getLongValue() : defaultValue;
+		}
+		if(type == Float.class){
+			return parsedValue.isFloatValid() ? (Object) parsedValue.getFloatValue() : defaultValue;
+		}
+		return parsedValue.isBooleanValid() ? (Object) parsedValue.getBooleanValue() : defaultValue;
+	}
+	
+	private void indexSettingKey(Object key){
+		String settingName = SettingKey.nameOf(key);
+//		retried if the set was dropped as empty by unindexEvictedKey meanwhile
+		for(;;){
+			Set<Object> keys = settingKeys.get(settingName);
+			if(keys == null){
+				keys = ConcurrentHashMap.newKeySet();
+				Set<Object> previousKeys = settingKeys.putIfAbsent(settingName, keys);
+				if(previousKeys != null){
+					keys = previousKeys;
+				}
+			}
+			keys.add(key);
+			if(settingKeys.get(settingName) == keys){
+				return;
+			}
+		}
+	}
+	
+//	the index holds no more keys than the cache. A key still in the off heap store is still cached, 
+//	the ranges loaded by prefix that held the key are loaded again on their next lookup
+	private void unindexEvictedKey(Object key){
+		
+		String settingName = SettingKey.nameOf(key);
+		
+		if(offHeapStore != null && offHeapStore.get(settingName, SettingKey.gridValuesOf(key)) != null){
+			return;
+		}
+		
+		Set<Object> keys = settingKeys.get(settingName);
+		
+		if(keys != null){
+			keys.remove(key);
+			if(keys.isEmpty() && settingKeys.remove(settingName, keys)){
+//				a key added after the emptiness check is put back
+				for(Object addedKey : keys){
+					indexSettingKey(addedKey);
+				}
+			}
+		}
+		
+		forgetLoadedPrefixes(settingName);
+	}
+	
+	private int weigh(T setting){
+		int weight = 1;
+		if(weighByValueLength){
+			Object value = getProperty(setting, VALUE);
+			if(value != null){
+				weight = Math.max(1, value.toString().length());
+			}
+		}
+		return weight;
+	}
+
+	private T getCachedSetting(String settingName, Object... orderedGridUniqueSettingsValues){
+		CacheEntry<T> entry = getCachedEntry(settingName, orderedGridUniqueSettingsValues);
+		return entry == null ? null : entry.getSetting();
+	}
+
+	private boolean isKnownAbsent(String settingName, Object... orderedGridUniqueSettingsValues){
+		
+		if(absentSettings == null){
+			return false;
+		}
+		
+		CacheEntry<Boolean> entry;
+		
+		if(orderedGridUniqueSettingsValues == null || orderedGridUniqueSettingsValues.length == 0){
+			entry = absentSettings.getEntry(settingName);
+		}else{
+			LookupKey lookupKey = lookupKeys.get();
+			try{
+				entry = absentSettings.getEntry(lookupKey.set(settingName, orderedGridUniqueSettingsValues));
+			}finally{
+				lookupKey.clear();
+			}
+		}
+		
+		if(entry == null){
+			return false;
+		}
+		
+		if(entry.isExpired(System.nanoTime())){
+			absentSettings.remove(entry);
+			return false;
+		}
+		
+    	if(!showOnlyErrorLogs){
+    		log.debug("setting with name -"+settingName+"- is known not to exist");
+    	}
+    	metrics.recordNegativeHit();
+		return true;
+	}
+	
+	private void markAbsent(String settingName, Object... orderedGridUniqueSettingsValues){
+		if(absentSettings != null){
+			absentSettings.put(SettingKey.of(settingName, orderedGridUniqueSettingsValues), Boolean.TRUE, 1, negativeCacheTtlNanos, 0);
+		}
+	}
+	
+	private void forgetAbsent(Object key){
+		if(absentSettings != null){
+			absentSettings.remove(key);
+		}
+	}
+
+//	the heap entry, or the off heap setting promoted to the heap cache
+	private CacheEntry<T> getCachedEntry(String settingName, Object... orderedGridUniqueSettingsValues){
+		
+		CacheEntry<T> entry = getHeapEntry(settingName, orderedGridUniqueSettingsValues);
+		
+		if(entry != null || offHeapStore == null){
+			return entry;
+		}
+		
+		OffHeapStore.Record record = offHeapStore.get(settingName, orderedGridUniqueSettingsValues);
+		
+		if(record == null){
+			return null;
+		}
+		
+		T setting = newSetting(record.getSettingName(), record.getGridValues(), record.getValue(), record.getDescription());
+		Object key = internKey(SettingKey.of(settingName, orderedGridUniqueSettingsValues));
+		internValues(setting);
+		
+//		not written back off heap, and kept on the heap no longer than it would have been off heap. 
+//		A setting put on the heap meanwhile is newer and is kept
+		entry = settingsCache.putIfAbsent(key, setting, weigh(setting), record.getRemainingNanos(), 
+				TimeUnit.MILLISECONDS.toNanos(getRefreshAfterWriteMillis(settingName)));
+		
+		metrics.recordOffHeapHit();
+		return entry;
+	}
+	
+//	probes the cache without creating a key or copying the grid values. 
+//	Expired entries are dropped and entries due for a refresh are returned while they are reloaded
+	private CacheEntry<T> getHeapEntry(String settingName, Object... orderedGridUniqueSettingsValues){
+		return checkHeapEntry(settingName, findHeapEntry(settingName, orderedGridUniqueSettingsValues));
+	}
+	
+//	the heap entry as is, whether it expired or not
+	private CacheEntry<T> findHeapEntry(String settingName, Object... orderedGridUniqueSettingsValues){
+		
+		if(orderedGridUniqueSettingsValues == null || orderedGridUniqueSettingsValues.length == 0){
+			return settingsCache.getEntry(settingName);
+		}
+		
+		LookupKey lookupKey = lookupKeys.get();
+		try{
+			return settingsCache.getEntry(lookupKey.set(settingName, orderedGridUniqueSettingsValues));
+		}finally{
+			lookupKey.clear();
+		}
+	}
+	
+//	getHeapEntry for one to three grid values given without an array
+	private CacheEntry<T> getHeapEntry(String settingName, int gridLength, Object gridValue0, Object gridValue1, Object gridValue2){
+		
+		CacheEntry<T> entry;
+		LookupKey lookupKey = lookupKeys.get();
+		try{
+			entry = settingsCache.getEntry(lookupKey.set(settingName, gridLength, gridValue0, gridValue1, gridValue2));
+		}finally{
+			lookupKey.clear();
+		}
+		
+		return checkHeapEntry(settingName, entry);
+	}
+	
+	private CacheEntry<T> checkHeapEntry(String settingName, CacheEntry<T> entry){
+		
+		if(entry == null || !entry.isTimed()){
+			if(entry != null){
+				metrics.recordHit();
+			}
+			return entry;
+		}
+		
+		long now = System.nanoTime();
+		
+		if(entry.isExpired(now) || (entry.isRefreshDue(now) && !concurrentCache)){
+			settingsCache.remove(entry);
+			removeOffHeap(entry.getKey());
+			markHandlesStale(entry.getKey());
+        	if(!showOnlyErrorLogs){
+        		log.debug("setting with name -"+settingName+"- expired from settingCache");
+        	}
+			return null;
+		}
+		
+		if(entry.isRefreshDue(now) && entry.startRefresh()){
+			refresh(entry);
+		}
+		
+		metrics.recordHit();
+		return entry;
+	}
+	
+	private void refresh(final CacheEntry<T> entry){
+		
+		final String settingName = SettingKey.nameOf(entry.getKey());
+		final Object[] orderedGridUniqueSettingsValues = SettingKey.gridValuesOf(entry.getKey());
+		
+		try{
+			refreshExecutor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try{
+						Map<SettingHandle<?>, SettingHandle.Binding> observedHandles = observeHandles(entry.getKey());
+						T setting = loadFromBackend(settingName, orderedGridUniqueSettingsValues);
+						
+						if(setting == null){
+//							no longer in the backend, the next read decides whether to create it
+							settingsCache.remove(entry);
+							removeOffHeap(entry.getKey());
+							markHandlesStale(entry.getKey());
+							return;
+						}
+						
+						internValues(setting);
+						
+						long writeTime = System.nanoTime();
+						boolean replaced = settingsCache.replace(entry, setting, weigh(setting), 
+								TimeUnit.MILLISECONDS.toNanos(getExpireAfterWriteMillis(settingName)), 
+								TimeUnit.MILLISECONDS.toNanos(getRefreshAfterWriteMillis(settingName)));
+						
+						if(replaced){
+							putOffHeap(entry.getKey(), setting);
+							bindHandles(entry.getKey(), setting, writeTime, observedHandles);
+						}
+						
+		            	if(!showOnlyErrorLogs){
+		            		log.debug("refreshed setting with name -"+settingName+"- in settingCache, replaced = "+replaced);
+		            	}
+					}catch(Exception e){
+						log.error("error refreshing setting with name -"+settingName+"-", e);
+//						the old value is served until the next try, not reloaded on every read while the backend is down
+						entry.endRefresh(System.nanoTime(), TimeUnit.MILLISECONDS.toNanos(getRefreshAfterWriteMillis(settingName)));
+					}
+				}
+			});
+		}catch(RejectedExecutionException e){
+			log.error("refresh of setting with name -"+settingName+"- was rejected", e);
+			entry.endRefresh(System.nanoTime(), TimeUnit.MILLISECONDS.toNanos(getRefreshAfterWriteMillis(settingName)));
+		}
+	}
+
+	protected T getSettingByName(String settingName, final String defaultValue, 
+			final String defaultDescription, final boolean createIfNotExist, final Object... orderedGridUniqueSettingsValues){
+        
+        if(settingName.trim().equals("")){
+            throw new IllegalArgumentException("setting name is empty");
+        }
+        
+        if(createIfNotExist && ((defaultValue == null) || (defaultValue.trim().equals("")) )){
+            throw new IllegalArgumentException("A defaultValue must be specified if createIfNotExist is true. Error settings name : "+settingName);
+        }
+        
+        validateOrderedGridUniqueSettingsValues(orderedGridUniqueSettingsValues);
+        
+        try{
+        
+	        settingName = settingName.trim();
+	
+	        T setting = null;
+	        
+	        if(cacheSetting){
+		        setting = getCachedSetting(settingName, orderedGridUniqueSettingsValues);
+		        
+		        if(setting != null){
+	            	if(!showOnlyErrorLogs){
+			            log.debug("returning setting with name -"
+			                    +settingName+"- from settingCache");
+	            	}
+		            return setting;
+		        }
+		        
+		        metrics.recordMisses(1);
+	        }
+	        
+	        if(!createIfNotExist && isKnownAbsent(settingName, orderedGridUniqueSettingsValues)){
+	        	return null;
+	        }
+	        
+	        if(cacheSetting){
+		        if(concurrentCache){
+		        	final String name = settingName;
+		        	return loadOnce(settingName, createIfNotExist, new Callable<T>() {
+						@Override
+						public T call() throws Exception {
+							T cached = getCachedSetting(name, orderedGridUniqueSettingsValues);
+							if(cached != null){
+								return cached;
+							}
+							return loadSetting(name, defaultValue, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
+						}
+					}, orderedGridUniqueSettingsValues);
+		        }
+	        }
+	        
+	        return loadSetting(settingName, defaultValue, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
+        }
+        catch(Exception e){
+        	throw new UtilException("error getting setting by name",e);
+        }
+    }
+	
+	private T loadSetting(String settingName, String defaultValue, 
+			String defaultDescription, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) throws Exception{
+		
+	        T setting = null;
+	        
+	        try {
+	            setting = loadFromBackend(settingName,orderedGridUniqueSettingsValues);
+	        } catch (Exception ex) {
+	            log.error("Exception", ex);
+	        }
+	        
+	        if (setting == null && writeBehindQueue != null) {
+	        	setting = writeBehindQueue.getPending(SettingKey.of(settingName, orderedGridUniqueSettingsValues));
+	        }
+	
+	        if (setting != null) {
+	            
+	        	if(cacheSetting){
+	        	
+		            Object prevSetting = putInCache(SettingKey.of(settingName, orderedGridUniqueSettingsValues), setting);
+		            
+		            if(prevSetting != null){
+		            	if(!showOnlyErrorLogs){
+			                log.warn("A previous setting with name -"
+			                        +settingName+"- was removed from the settingCache");
+		                }
+		            }else{
+		            	if(!showOnlyErrorLogs){
+		            		log.debug("Adding an already existing setting with name -"
+		            				+settingName+"- to settingCache, value = -"+getProperty(setting,VALUE)+"-");
+		            	}
+		            }
+	        	}
+	        	
+	            return setting;
+	            
+	        } 
+	        else if (createIfNotExist) {
+	        	setting = newSetting(settingName, defaultValue, defaultDescription, orderedGridUniqueSettingsValues);
+	
+	            writeSetting(setting, true, settingName, orderedGridUniqueSettingsValues);
+	            
+	            forgetAbsent(SettingKey.of(settingName, orderedGridUniqueSettingsValues));
+	            
+	        	if(cacheSetting){
+	            
+		            Object prevSetting = putInCache(SettingKey.of(settingName, orderedGridUniqueSettingsValues), setting);
+		            
+		            if(prevSetting != null){
+		            	if(!showOnlyErrorLogs){
+			                log.warn("A previous setting with name -"
+			                        +settingName+"- was removed from the settingCache");
+		            	}
+		            }else{
 		            	if(!showOnlyErrorLogs){
 			                log.debug("Adding a new setting with name -"
 			                        +settingName+"- to settingCache, value = -"+getProperty(setting,VALUE)+"-");
@@ -302,30 +1220,107 @@ public abstract class SettingsUtilBase<T> {
 		                +"- does not exist in DB and it is not to be created if it does not exist");
 	        }
 	        
+	        markAbsent(settingName, orderedGridUniqueSettingsValues);
+	        
 	        return null;
-        }
-        catch(Exception e){
-        	throw new UtilException("error getting setting by name",e);
-        }
     }
-    
-	protected String getSettingValue(String settingName, String defaultValue, 
-    		String defaultDescription, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
+	
+	private T newSetting(String settingName, String defaultValue, 
+			String defaultDescription, Object... orderedGridUniqueSettingsValues) throws Exception{
+		
+		T setting = newInstance();
+        
+        setProperty(setting, NAME, settingName);
+        
+        if (defaultValue != null) {
+            setProperty(setting, VALUE, defaultValue);
+        } else {
+            setProperty(setting, VALUE, "");
+        }
 
-    	try{
-	        T setting = getSettingByName(settingName, defaultValue, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
+        if(!ignoreDescription){
+            if (defaultDescription != null) {
+                setProperty(setting, DESCRIPTION, defaultDescription);
+            } else {
+                setProperty(setting, DESCRIPTION, "");
+            }
+        }
+        
+        if(orderedGridUniqueSettingsValues != null 
+        		&& orderedGridUniqueSettingsValues.length > 0){
+        	for(int x = 0; x < orderedGridUniqueSettingsValues.length; x++){
+        		setProperty(setting, orderedGridUniqueSettingsFields[x], orderedGridUniqueSettingsValues[x]);
+        	}
+        }
+        
+        return setting;
+	}
 	
-	        if (setting != null) {
-	        	
-	        	String value = (String) getProperty(setting, VALUE);
-	        	
-	            if (value != null && !value.trim().equals("")) {
-	                return value;
-	            } else {
-	                if (defaultValue != null) {
-	                	setProperty(setting, VALUE, defaultValue);
-	                } else {
-	                	setProperty(setting, VALUE, "");
+	/**
+	 * Runs the loader unless another thread is already loading the same key, 
+	 * in which case its result is shared. A shared result that is null is not 
+	 * reused by a caller that wants the setting created.
+	 */
+	private T loadOnce(String settingName, boolean createIfNotExist, Callable<T> loader, 
+			Object... orderedGridUniqueSettingsValues) throws Exception{
+		
+		Object key = SettingKey.of(settingName, orderedGridUniqueSettingsValues);
+		
+		while(true){
+			
+			FutureTask<T> task = new FutureTask<T>(loader);
+			FutureTask<T> inFlight = inFlightLoads.putIfAbsent(key, task);
+			
+			if(inFlight == null){
+				try{
+					task.run();
+				}finally{
+					inFlightLoads.remove(key, task);
+				}
+				inFlight = task;
+			}else{
+            	if(!showOnlyErrorLogs){
+            		log.debug("waiting for the in-flight load of setting with name -"+settingName+"-");
+            	}
+			}
+			
+			T setting;
+			
+			try {
+				setting = inFlight.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new UtilException("interrupted while waiting for the load of setting with name -"+settingName+"-", e);
+			} catch (ExecutionException e) {
+				if(e.getCause() instanceof Exception){
+					throw (Exception) e.getCause();
+				}
+				throw new UtilException("error loading setting with name -"+settingName+"-", e.getCause());
+			}
+			
+			if(setting != null || !createIfNotExist || inFlight == task){
+				return setting;
+			}
+		}
+	}
+    
+	protected String getSettingValue(String settingName, String defaultValue, 
+    		String defaultDescription, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
+
+    	try{
+	        T setting = getSettingByName(settingName, defaultValue, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
+	
+	        if (setting != null) {
+	        	
+	        	String value = (String) getProperty(setting, VALUE);
+	        	
+	            if (value != null && !value.trim().equals("")) {
+	                return value;
+	            } else {
+	                if (defaultValue != null) {
+	                	setProperty(setting, VALUE, defaultValue);
+	                } else {
+	                	setProperty(setting, VALUE, "");
 	                }
 	
 	                if(!ignoreDescription){
@@ -336,7 +1331,7 @@ public abstract class SettingsUtilBase<T> {
 		                }
 	                }
 	                
-	                updateSetting(setting);
+	                writeSetting(setting, false, settingName, orderedGridUniqueSettingsValues);
 	                return value;
 	            }
 	        } 
@@ -358,14 +1353,15 @@ public abstract class SettingsUtilBase<T> {
             defValInUse = String.valueOf(defaultValue);
         }
         
-        String val = getSettingValue(settingName, defValInUse, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
+        ParsedValue val = getParsedValue(settingName, defValInUse, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
         if (val != null){
-            try {
-                return Integer.parseInt(val);
+            if (val.isIntValid()) {
+                return val.getIntValue();
             }
-            catch(NumberFormatException nfe){
+            else{
+            	metrics.recordParseFailure();
                 boolean update = updateNumberSetting(settingName, 
-                        defValInUse, defaultDescription, createIfNotExist);
+                        defValInUse, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
             	if(!showOnlyErrorLogs){
             		log.debug("update = "+update);
             	}
@@ -386,15 +1382,16 @@ public abstract class SettingsUtilBase<T> {
             defValInUse = String.valueOf(defaultValue);
         }
         
-        String val = getSettingValue(settingName, defValInUse, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
+        ParsedValue val = getParsedValue(settingName, defValInUse, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
         if (val != null){
-            try {
-                return Long.parseLong(val);
+            if (val.isLongValid()) {
+                return val.getLongValue();
             }
-            catch(NumberFormatException nfe){
+            else{
+            	metrics.recordParseFailure();
                 
                 boolean update = updateNumberSetting(settingName, 
-                        defValInUse, defaultDescription, createIfNotExist);
+                        defValInUse, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
             	if(!showOnlyErrorLogs){
             		log.debug("update = "+update);
             	}
@@ -415,15 +1412,16 @@ public abstract class SettingsUtilBase<T> {
             defValInUse = String.valueOf(defaultValue);
         }
         
-        String val = getSettingValue(settingName, defValInUse, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
+        ParsedValue val = getParsedValue(settingName, defValInUse, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
         if (val != null){
-            try {
-                return Float.parseFloat(val);
+            if (val.isFloatValid()) {
+                return val.getFloatValue();
             }
-            catch(NumberFormatException nfe){
+            else{
+            	metrics.recordParseFailure();
                 
                 boolean update = updateNumberSetting(settingName, 
-                        defValInUse, defaultDescription, createIfNotExist);
+                        defValInUse, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
                 
             	if(!showOnlyErrorLogs){
             		log.debug("update = "+update);
@@ -450,7 +1448,7 @@ public abstract class SettingsUtilBase<T> {
             }
 
             T setting = getSettingByName(settingName,
-                    defValInUse, defaultDescription, createIfNotExist);
+                    defValInUse, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
 
             if (setting != null) {
 
@@ -460,7 +1458,7 @@ public abstract class SettingsUtilBase<T> {
             		log.debug("update set value = " + getProperty(setting, VALUE));
             	}
             	
-                updateSetting(setting);
+                writeSetting(setting, false, settingName, orderedGridUniqueSettingsValues);
             } else {
             	
             	if(!showOnlyErrorLogs){
@@ -492,34 +1490,35 @@ public abstract class SettingsUtilBase<T> {
 	        	}
 	        }
 	        
-	        String val = getSettingValue(settingName, defValInUse, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
+	        ParsedValue val = getParsedValue(settingName, defValInUse, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
 	        
 	        if (val != null){
 	            
             	if(!showOnlyErrorLogs){
-            		log.debug("val = -"+val+"-");
+            		log.debug("val = -"+val.getSource()+"-");
             	}
-            	
-	            val = val.trim().toUpperCase();
 	            
-	            if(val.equals(TRUE) || val.equals(FALSE)){
+	            if(val.isBooleanValid()){
 	            	if(!showOnlyErrorLogs){
 	            		log.debug("valid boolean value");
 	                }
-	            	if(val.equals(TRUE)){
+	            	if(val.getBooleanValue()){
 	            		return Boolean.TRUE;
 	            	}else{
 	            		return Boolean.FALSE;
 	                }
 	            }
-	            else if (createIfNotExist) {
+	            
+	            metrics.recordParseFailure();
+	            
+	            if (createIfNotExist) {
 	//                    lets update it to either true or false
 
 	            	if(!showOnlyErrorLogs){
 	            		log.debug("updating setting to something that makes sense as a boolean value");
 	            	}
 	            	
-	            	T setting = getSettingByName(settingName, defValInUse, defaultDescription, createIfNotExist);
+	            	T setting = getSettingByName(settingName, defValInUse, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
 
             		String updatedValue;
 	            	
@@ -537,7 +1536,7 @@ public abstract class SettingsUtilBase<T> {
 		            		log.debug("update set value = "+getProperty(setting, VALUE));
 		            	}
 		            	
-	                    updateSetting(setting);
+	                    writeSetting(setting, false, settingName, orderedGridUniqueSettingsValues);
 	                } else {
 	                    log.error("settings name "
 	                            + settingName
@@ -570,6 +1569,245 @@ public abstract class SettingsUtilBase<T> {
     	}
     }
     
+	protected int getInt(String settingName, int defaultValue, 
+    		String defaultDescription, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
+		
+		ParsedValue val = getCachedParsedValue(settingName, orderedGridUniqueSettingsValues);
+		if(val != null){
+			if(val.isIntValid()){
+				return val.getIntValue();
+			}
+			if(!createIfNotExist){
+				metrics.recordParseFailure();
+				return defaultValue;
+			}
+		}
+		else{
+			OffHeapStore.TypedValue offHeapVal = getOffHeapValue(settingName, orderedGridUniqueSettingsValues);
+			if(offHeapVal != null){
+				if(offHeapVal.isIntValid()){
+					return offHeapVal.getIntValue();
+				}
+				if(!createIfNotExist){
+					metrics.recordParseFailure();
+					return defaultValue;
+				}
+			}
+		}
+		
+		Integer value = getSettingIntValue(settingName, defaultValue, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
+		return value == null ? defaultValue : value;
+	}
+	
+	protected long getLong(String settingName, long defaultValue, 
+    		String defaultDescription, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
+		
+		ParsedValue val = getCachedParsedValue(settingName, orderedGridUniqueSettingsValues);
+		if(val != null){
+			if(val.isLongValid()){
+				return val.getLongValue();
+			}
+			if(!createIfNotExist){
+				metrics.recordParseFailure();
+				return defaultValue;
+			}
+		}
+		else{
+			OffHeapStore.TypedValue offHeapVal = getOffHeapValue(settingName, orderedGridUniqueSettingsValues);
+			if(offHeapVal != null){
+				if(offHeapVal.isLongValid()){
+					return offHeapVal.getLongValue();
+				}
+				if(!createIfNotExist){
+					metrics.recordParseFailure();
+					return defaultValue;
+				}
+			}
+		}
+		
+		Long value = getSettingLongValue(settingName, defaultValue, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
+		return value == null ? defaultValue : value;
+	}
+	
+	protected float getFloat(String settingName, float defaultValue, 
+    		String defaultDescription, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
+		
+		ParsedValue val = getCachedParsedValue(settingName, orderedGridUniqueSettingsValues);
+		if(val != null){
+			if(val.isFloatValid()){
+				return val.getFloatValue();
+			}
+			if(!createIfNotExist){
+				metrics.recordParseFailure();
+				return defaultValue;
+			}
+		}
+		else{
+			OffHeapStore.TypedValue offHeapVal = getOffHeapValue(settingName, orderedGridUniqueSettingsValues);
+			if(offHeapVal != null){
+				if(offHeapVal.isFloatValid()){
+					return offHeapVal.getFloatValue();
+				}
+				if(!createIfNotExist){
+					metrics.recordParseFailure();
+					return defaultValue;
+				}
+			}
+		}
+		
+		Float value = getSettingFloatValue(settingName, defaultValue, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
+		return value == null ? defaultValue : value;
+	}
+	
+	protected boolean getBoolean(String settingName, boolean defaultValue, 
+    		String defaultDescription, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
+		
+		ParsedValue val = getCachedParsedValue(settingName, orderedGridUniqueSettingsValues);
+		if(val != null){
+			if(val.isBooleanValid()){
+				return val.getBooleanValue();
+			}
+			if(!createIfNotExist){
+				metrics.recordParseFailure();
+				return defaultValue;
+			}
+		}
+		else{
+			OffHeapStore.TypedValue offHeapVal = getOffHeapValue(settingName, orderedGridUniqueSettingsValues);
+			if(offHeapVal != null){
+				if(offHeapVal.isBooleanValid()){
+					return offHeapVal.getBooleanValue();
+				}
+				if(!createIfNotExist){
+					metrics.recordParseFailure();
+					return defaultValue;
+				}
+			}
+		}
+		
+		Boolean value = getSettingBooleanValue(settingName, defaultValue, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
+		return value == null ? defaultValue : value;
+	}
+	
+//	the decoded value of a setting of the off heap store, read there without creating the setting. 
+//	Null if it is not stored or its value is blank, the returned object is reused by the calling thread
+	private OffHeapStore.TypedValue getOffHeapValue(String settingName, Object... orderedGridUniqueSettingsValues){
+		
+		if(offHeapStore == null){
+			return null;
+		}
+		
+		OffHeapStore.TypedValue value = offHeapStore.getTypedValue(settingName.trim(), orderedGridUniqueSettingsValues);
+		
+		if(value != null){
+			metrics.recordOffHeapHit();
+		}
+		return value;
+	}
+	
+//	the decoded value of a heap cached setting, null if it is not cached or its value is blank. Never calls the backend
+	private ParsedValue getCachedParsedValue(String settingName, Object... orderedGridUniqueSettingsValues){
+		
+		if(!cacheSetting){
+			return null;
+		}
+		
+		return parsedValueOf(getHeapEntry(settingName.trim(), orderedGridUniqueSettingsValues));
+	}
+	
+	private ParsedValue parsedValueOf(CacheEntry<T> entry){
+		
+		if(entry == null){
+			return null;
+		}
+		
+		Object value = getProperty(entry.getSetting(), VALUE);
+		
+		if(!(value instanceof String) || SUBUtils.isBlank((String) value)){
+			return null;
+		}
+		
+		ParsedValue parsedValue = entry.getParsedValue();
+		
+		if(parsedValue == null || !parsedValue.isParsedFrom((String) value)){
+			parsedValue = ParsedValue.parse((String) value, TRUE, FALSE);
+			entry.setParsedValue(parsedValue);
+		}
+		
+		return parsedValue;
+	}
+	
+//	the fixed arity reads of the grid utils, for one to three grid values given without an array. They only 
+//	look at the heap cache and return null on a miss, the caller then goes through the varargs method, 
+//	which validates the arguments, reads off heap, loads and reports the miss
+	T getCachedGridSetting(String settingName, int gridLength, Object gridValue0, Object gridValue1, Object gridValue2){
+		
+		if(!cacheSetting || settingName == null){
+			return null;
+		}
+		
+		CacheEntry<T> entry = getHeapEntry(settingName.trim(), gridLength, gridValue0, gridValue1, gridValue2);
+		
+		if(entry == null){
+			return null;
+		}
+		
+    	if(!showOnlyErrorLogs){
+            log.debug("returning setting with name -"+settingName+"- from settingCache");
+    	}
+		return entry.getSetting();
+	}
+	
+//	the value of a cached setting, null if it is not cached or its value is blank
+	String getCachedGridValue(String settingName, int gridLength, Object gridValue0, Object gridValue1, Object gridValue2){
+		
+		T setting = getCachedGridSetting(settingName, gridLength, gridValue0, gridValue1, gridValue2);
+		Object value = setting == null ? null : getProperty(setting, VALUE);
+		
+		if(!(value instanceof String) || SUBUtils.isBlank((String) value)){
+			return null;
+		}
+		return (String) value;
+	}
+	
+	ParsedValue getCachedGridParsedValue(String settingName, int gridLength, Object gridValue0, Object gridValue1, Object gridValue2){
+		
+		if(!cacheSetting || settingName == null){
+			return null;
+		}
+		
+		return parsedValueOf(getHeapEntry(settingName.trim(), gridLength, gridValue0, gridValue1, gridValue2));
+	}
+	
+//	the decoded setting value, loaded through getSettingValue if it is not cached. Null if there is no value
+	private ParsedValue getParsedValue(String settingName, String defaultValue, 
+    		String defaultDescription, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues){
+		
+//		a missing default is reported by getSettingByName
+		if(!createIfNotExist || !SUBUtils.isBlank(defaultValue)){
+			ParsedValue parsedValue = getCachedParsedValue(settingName, orderedGridUniqueSettingsValues);
+			if(parsedValue != null){
+				return parsedValue;
+			}
+		}
+		
+		String value = getSettingValue(settingName, defaultValue, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues);
+		
+		if(value == null){
+			return null;
+		}
+		
+//		parsed once into the memo of the entry just cached, unless the value is blank or not cached
+		if(cacheSetting){
+			ParsedValue parsedValue = parsedValueOf(findHeapEntry(settingName.trim(), orderedGridUniqueSettingsValues));
+			if(parsedValue != null && parsedValue.isParsedFrom(value)){
+				return parsedValue;
+			}
+		}
+		
+		return ParsedValue.parse(value, TRUE, FALSE);
+	}
+    
     protected String getTrueValue(){
     	return "TRUE";
     }
@@ -582,15 +1820,127 @@ public abstract class SettingsUtilBase<T> {
     	return false;
     }
     
+    /**
+     * Creates or updates a setting found missing or invalid while reading it, 
+     * directly or through the write behind queue
+     */
+    private void writeSetting(T setting, boolean create, String settingName, Object... orderedGridUniqueSettingsValues) throws Exception{
+    	
+//    	the setting may have been changed in place and only be written later
+    	markHandlesStale(settingName.trim(), orderedGridUniqueSettingsValues);
+    	
+    	if(writeBehindQueue != null){
+    		writeBehindQueue.offer(SettingKey.of(settingName.trim(), orderedGridUniqueSettingsValues), setting, create);
+    	}
+    	else if(create){
+    		doCreateSetting(setting);
+    	}
+    	else{
+    		doUpdateSetting(setting);
+    	}
+    	
+    	if(!create){
+    		metrics.recordRepair();
+    	}
+    }
+    
+    private T loadFromBackend(String settingName, Object... orderedGridUniqueSettingsValues) throws Exception{
+    	long start = System.nanoTime();
+    	boolean failed = true;
+    	try{
+    		T setting = getSettingByName(settingName, orderedGridUniqueSettingsValues);
+    		failed = false;
+    		return setting;
+    	}finally{
+    		metrics.recordLoad(System.nanoTime() - start, failed);
+    	}
+    }
+    
+    private Map<String, T> loadFromBackend(Collection<String> settingNames, Object... orderedGridUniqueSettingsValues) throws Exception{
+    	long start = System.nanoTime();
+    	boolean failed = true;
+    	try{
+    		Map<String, T> settings = getSettingsByName(settingNames, orderedGridUniqueSettingsValues);
+    		failed = false;
+    		return settings;
+    	}finally{
+    		metrics.recordLoad(System.nanoTime() - start, failed);
+    	}
+    }
+    
+    private void notifySettingChanged(T setting){
+    	if(setting != null){
+    		Object key = keyOf(setting);
+    		markHandlesStale(key);
+    		settingChanged(SettingKey.nameOf(key), SettingKey.gridValuesOf(key));
+    	}
+    }
+    
+    /**
+     * Called after a setting is created, updated or invalidated through this util or its invalidation bus, 
+     * so a subclass can drop anything it derived from it. Null grid values stand for every grid combination 
+     * of the setting name and a null setting name for every setting. Does nothing by default
+     */
+    protected void settingChanged(String settingName, Object[] orderedGridUniqueSettingsValues){
+    }
+    
+    private boolean doCreateSetting(T setting) throws Exception{
+    	long start = System.nanoTime();
+    	boolean created = createSetting(setting);
+    	metrics.recordCreates(1, System.nanoTime() - start);
+    	notifySettingChanged(setting);
+    	reloadSnapshot();
+    	return created;
+    }
+    
+    private boolean doUpdateSetting(T setting) throws Exception{
+    	long start = System.nanoTime();
+    	boolean updated = updateSetting(setting);
+    	metrics.recordUpdates(1, System.nanoTime() - start);
+    	notifySettingChanged(setting);
+    	reloadSnapshot();
+    	return updated;
+    }
+    
+    boolean doCreateSettings(Collection<T> settings) throws Exception{
+    	long start = System.nanoTime();
+    	boolean created = createSettings(settings);
+    	metrics.recordCreates(settings.size(), System.nanoTime() - start);
+    	for(T written : settings){
+    		notifySettingChanged(written);
+    	}
+    	reloadSnapshot();
+    	return created;
+    }
+    
+    boolean doUpdateSettings(Collection<T> settings) throws Exception{
+    	long start = System.nanoTime();
+    	boolean updated = updateSettings(settings);
+    	metrics.recordUpdates(settings.size(), System.nanoTime() - start);
+    	for(T written : settings){
+    		notifySettingChanged(written);
+    	}
+    	reloadSnapshot();
+    	return updated;
+    }
+    
     public boolean create(T setting){
     	try {
 			
-    		boolean create = createSetting(setting);
+    		if(writeBehindQueue != null && setting != null){
+    			writeBehindQueue.remove(keyOf(setting));
+    		}
+    		
+    		boolean create = doCreateSetting(setting);
+    		
+    		forgetAbsent(keyOf(setting));
     		
     		if(cacheSetting){
     			cacheSetting(setting);
     		}
     		
+    		publishInvalidation(setting);
+    		
     		return create;
 		} catch (Exception e) {
     		throw new UtilException("error creating setting", e);
@@ -600,28 +1950,173 @@ public abstract class SettingsUtilBase<T> {
     public boolean update(T setting){
     	try {
 			
-    		boolean update = updateSetting(setting);
+    		if(writeBehindQueue != null && setting != null){
+    			writeBehindQueue.remove(keyOf(setting));
+    		}
+    		
+    		boolean update = doUpdateSetting(setting);
+    		
+    		forgetAbsent(keyOf(setting));
     		
     		if(cacheSetting){
     			cacheSetting(setting);
     		}
     		
+    		publishInvalidation(setting);
+    		
     		return update;
 		} catch (Exception e) {
     		throw new UtilException("error updating setting", e);
 		}
     }
     
-    protected T getByName(String settingName, Object... orderedGridUniqueSettingsValues){
+    /**
+     * Override this method to load the whole settings table in one backend call for {@link #warmUp(List)} 
+     * and the snapshot mode (see {@link #snapshotMode()}). 
+     * Returns null by default, meaning it is not supported
+     * 
+     * @return all the settings, or null if not supported
+     */
+    protected Collection<T> getAllSettings() throws Exception{
+    	return null;
+    }
+    
+    /**
+     * Override this method to create several settings in one backend call, 
+     * e.g. with a batch insert. Calls {@link #createSetting(Object)} for each setting by default
+     * 
+     * @return true if all the settings were created
+     */
+    protected boolean createSettings(Collection<T> settings) throws Exception{
+    	boolean created = true;
+    	for(T setting : settings){
+    		created &= createSetting(setting);
+    	}
+    	return created;
+    }
+    
+    /**
+     * Override this method to update several settings in one backend call, 
+     * e.g. with a batch update. Calls {@link #updateSetting(Object)} for each setting by default
+     * 
+     * @return true if all the settings were updated
+     */
+    protected boolean updateSettings(Collection<T> settings) throws Exception{
+    	boolean updated = true;
+    	for(T setting : settings){
+    		updated &= updateSetting(setting);
+    	}
+    	return updated;
+    }
+    
+    /**
+     * Fills the settings cache in one pass before the first requests: all the settings returned by 
+     * {@link #getAllSettings()} are cached and every constant of the allowed settings enums is resolved 
+     * for each of the given grid values. The missing enum settings that are to be created if they do 
+     * not exist are created in one {@link #createSettings(Collection)} call. If that call returns false 
+     * they are reported as failed and left out of the cache.
+     * 
+     * @param orderedGridUniqueSettingsValuesList the grid values to resolve the enum settings for, 
+     * an empty array for simple settings. Null or empty to skip the enum settings.
+     */
+    protected WarmUpReport warmUp(List<Object[]> orderedGridUniqueSettingsValuesList){
+    	
+    	if(!cacheSetting){
+    		throw new IllegalStateException("warm up needs the settings to be cached. Set cacheSetting to true in the constructor");
+    	}
+    	
+    	long start = System.nanoTime();
+    	
+    	try{
+    		
+    		int loadedCount = 0;
+    		Collection<T> allSettings = getAllSettings();
+    		
+    		if(allSettings != null){
+    			for(T setting : allSettings){
+    				cacheSetting(setting);
+    				loadedCount++;
+    			}
+    			allSettingsLoaded = true;
+    		}
+    		
+    		if(orderedGridUniqueSettingsValuesList == null){
+    			orderedGridUniqueSettingsValuesList = Collections.emptyList();
+    		}
+    		
+    		List<T> missingSettings = new ArrayList<T>();
+    		
+    		for(Object[] orderedGridUniqueSettingsValues : orderedGridUniqueSettingsValuesList){
+    			
+    			validateOrderedGridUniqueSettingsValues(orderedGridUniqueSettingsValues);
+    			
+    			for(SettingsReplica[] replicas : enumReplicas.values()){
+    				for(SettingsReplica replica : replicas){
+    					
+    					if(getCachedSetting(replica.name, orderedGridUniqueSettingsValues) != null){
+    						continue;
+    					}
+    					
+//    					without the whole table each enum setting has to be looked up on its own
+    					if(allSettings == null){
+    						T setting = loadFromBackend(replica.name, orderedGridUniqueSettingsValues);
+    						if(setting != null){
+    							putInCache(SettingKey.of(replica.name, orderedGridUniqueSettingsValues), setting);
+    							loadedCount++;
+    							continue;
+    						}
+    					}
+    					
+    					if(replica.createIfNotExist){
+    						missingSettings.add(newSetting(replica.name, replica.value, replica.description, orderedGridUniqueSettingsValues));
+    					}
+    				}
+    			}
+    		}
+    		
+    		int createdCount = 0;
+    		int failedCount = 0;
+    		
+    		if(!missingSettings.isEmpty()){
+    			if(doCreateSettings(missingSettings)){
+    				for(T setting : missingSettings){
+    					forgetAbsent(keyOf(setting));
+    					cacheSetting(setting);
+    				}
+    				createdCount = missingSettings.size();
+    			}else{
+//    				the batch does not tell which ones failed, none is cached and a read creates the ones still missing
+    				failedCount = missingSettings.size();
+    				log.warn("the backend did not create all the "+failedCount+" missing settings while warming up setting class "
+    						+clazz.getName()+", they are not cached");
+    			}
+    		}
+    		
+    		WarmUpReport report = new WarmUpReport(loadedCount, createdCount, failedCount, System.nanoTime() - start);
+    		
+        	if(!showOnlyErrorLogs){
+        		log.debug("warmed up settingCache for setting class "+clazz.getName()+" : "+report);
+        	}
+        	
+    		return report;
+    		
+    	}catch(Exception e){
+    		throw new UtilException("error warming up the settings cache", e);
+    	}
+    }
+    
+    protected T getByName(String settingName, final Object... orderedGridUniqueSettingsValues){
 
     	try{
     		
     		validateOrderedGridUniqueSettingsValues(orderedGridUniqueSettingsValues);
     		
+    		settingName = settingName.trim();
+    		
     		T setting;
     		
 	        if(cacheSetting){
-		        setting = settingsCache.get(getList(settingName, orderedGridUniqueSettingsValues));
+		        setting = getCachedSetting(settingName, orderedGridUniqueSettingsValues);
 		        
 		        if(setting != null){
 	            	if(!showOnlyErrorLogs){
@@ -630,9 +2125,38 @@ public abstract class SettingsUtilBase<T> {
 	            	}
 		            return setting;
 		        }
+		        
+		        metrics.recordMisses(1);
+	        }
+	        
+	        if(isKnownAbsent(settingName, orderedGridUniqueSettingsValues)){
+	        	return null;
+	        }
+	        
+	        if(cacheSetting && concurrentCache){
+	        	final String name = settingName;
+	        	return loadOnce(settingName, false, new Callable<T>() {
+					@Override
+					public T call() throws Exception {
+						T cached = getCachedSetting(name, orderedGridUniqueSettingsValues);
+						if(cached != null){
+							return cached;
+						}
+						T setting = loadFromBackend(name, orderedGridUniqueSettingsValues);
+						if(setting == null){
+							markAbsent(name, orderedGridUniqueSettingsValues);
+						}
+						cacheSetting(setting);
+						return setting;
+					}
+				}, orderedGridUniqueSettingsValues);
 	        }
     		
-	        setting = getSettingByName(settingName, orderedGridUniqueSettingsValues);
+	        setting = loadFromBackend(settingName, orderedGridUniqueSettingsValues);
+	        
+	        if(setting == null){
+	        	markAbsent(settingName, orderedGridUniqueSettingsValues);
+	        }
     		
     		if(cacheSetting){
     			cacheSetting(setting);
@@ -645,16 +2169,350 @@ public abstract class SettingsUtilBase<T> {
     	}
 
     }
-
-    private void cacheSetting(T setting) 
-    		throws IllegalAccessException, InstantiationException, InvocationTargetException, NoSuchMethodException{
-
-    	if(setting == null){
-        	if(!showOnlyErrorLogs){
-                log.warn("null argument for cacheSetting method for setting class : "+clazz.getName());
-        	}
-    		return;
+    
+    /**
+     * Override this method to load several settings in one backend call, e.g. with a single 
+     * <code>IN (...)</code> query. Calls {@link #getSettingByName(String, Object...)} for each 
+     * name by default
+     * 
+     * @return the found settings keyed by the requested names. Names that are not found can be left out
+     */
+    protected Map<String, T> getSettingsByName(Collection<String> settingNames, 
+    		Object... orderedGridUniqueSettingsValues) throws Exception{
+    	
+    	Map<String, T> settings = new HashMap<String, T>();
+    	for(String settingName : settingNames){
+    		T setting = getSettingByName(settingName, orderedGridUniqueSettingsValues);
+    		if(setting != null){
+    			settings.put(settingName, setting);
+    		}
+    	}
+    	return settings;
+    }
+    
+    /**
+     * Gets several settings at once. Cached settings are served from the settings cache and only 
+     * the missing ones are loaded, in one {@link #getSettingsByName(Collection, Object...)} call
+     * 
+     * @return the found settings keyed by the trimmed names, in the order they were requested
+     */
+    protected Map<String, T> getSettingsByNames(Collection<String> settingNames, Object... orderedGridUniqueSettingsValues){
+    	
+    	if(settingNames == null){
+    		throw new IllegalArgumentException("settingNames is null");
+    	}
+    	
+    	validateOrderedGridUniqueSettingsValues(orderedGridUniqueSettingsValues);
+    	
+    	try{
+    		
+    		Map<String, T> settings = new LinkedHashMap<String, T>();
+    		List<String> misses = new ArrayList<String>();
+    		
+    		for(String settingName : settingNames){
+    			
+    			if(settingName == null || settingName.trim().equals("")){
+    				throw new IllegalArgumentException("setting name is null or empty");
+    			}
+    			
+    			settingName = settingName.trim();
+    			
+    			if(settings.containsKey(settingName)){
+    				continue;
+    			}
+    			
+    			T setting = cacheSetting ? getCachedSetting(settingName, orderedGridUniqueSettingsValues) : null;
+    			
+    			if(setting == null){
+    				if(isKnownAbsent(settingName, orderedGridUniqueSettingsValues)){
+    					continue;
+    				}
+    				misses.add(settingName);
+    			}
+//    			keeps the requested order, the misses are filled in below
+    			settings.put(settingName, setting);
+    		}
+    		
+    		if(!misses.isEmpty()){
+    			
+    			if(cacheSetting){
+    				metrics.recordMisses(misses.size());
+    			}
+    			
+    			if(!showOnlyErrorLogs){
+    				log.debug("loading "+misses.size()+" of "+settings.size()+" settings from the backend");
+    			}
+    			
+    			Map<String, T> loaded = loadFromBackend(misses, orderedGridUniqueSettingsValues);
+    			
+    			for(String settingName : misses){
+    				T setting = loaded == null ? null : loaded.get(settingName);
+    				if(setting == null){
+    					settings.remove(settingName);
+    					markAbsent(settingName, orderedGridUniqueSettingsValues);
+    					continue;
+    				}
+    				if(cacheSetting){
+    					putInCache(SettingKey.of(settingName, orderedGridUniqueSettingsValues), setting);
+    				}
+    				settings.put(settingName, setting);
+    			}
+    		}
+    		
+    		return settings;
+    		
+    	} catch (Exception e) {
+    		throw new UtilException("error getting settings by names", e);
+    	}
+    }
+    
+    /**
+     * Override this method to load all the settings whose name starts with a prefix in one backend call, 
+     * e.g. with a <code>LIKE 'PREFIX%'</code> or a name range query. Returns null by default, meaning 
+     * it is not supported and {@link #getSettingsByPrefix(String, Object...)} only sees the settings 
+     * in the cache of this util
+     * 
+     * @return the settings for the grid values whose names start with the prefix, or null if not supported
+     */
+    protected Collection<T> loadSettingsByPrefix(String prefix, Object... orderedGridUniqueSettingsValues) throws Exception{
+    	return null;
+    }
+    
+    /**
+     * Gets all the settings whose name starts with a prefix, e.g. <code>PAYMENT_GATEWAY_</code>. 
+     * The names come from a sorted index of the settings in the cache, a setting evicted from the 
+     * cache leaves it. The first request for a 
+     * prefix and grid values loads the range with {@link #loadSettingsByPrefix(String, Object...)} 
+     * if it is overridden, unless {@link #warmUp(List)} loaded all the settings or a shorter prefix 
+     * was loaded already. A range is loaded again after one of its settings is invalidated or evicted
+     * 
+     * @param prefix the name prefix, empty for all the settings
+     * @return the found settings keyed by name, in name order
+     */
+    protected SortedMap<String, T> getSettingsByPrefix(String prefix, Object... orderedGridUniqueSettingsValues){
+    	
+    	if(prefix == null){
+    		throw new IllegalArgumentException("prefix is null");
+    	}
+    	
+    	validateOrderedGridUniqueSettingsValues(orderedGridUniqueSettingsValues);
+    	
+    	prefix = prefix.trim();
+    	
+    	try{
+    		
+    		SortedMap<String, T> settings = new TreeMap<String, T>();
+    		
+    		if(!cacheSetting){
+    			
+    			Collection<T> loaded = loadPrefixFromBackend(prefix, orderedGridUniqueSettingsValues);
+    			
+    			if(loaded == null){
+    				throw new IllegalStateException("getting settings by prefix without caching needs loadSettingsByPrefix(String, Object...) to be overridden");
+    			}
+    			for(T setting : loaded){
+    				settings.put(((String) getProperty(setting, NAME)).trim(), setting);
+    			}
+    			return settings;
+    		}
+    		
+    		if(!isPrefixLoaded(prefix, orderedGridUniqueSettingsValues)){
+    			
+    			Collection<T> loaded = loadPrefixFromBackend(prefix, orderedGridUniqueSettingsValues);
+    			
+    			if(loaded != null){
+//    				a range larger than the cache may see its settings evicted as they are put, they are returned anyway
+    				for(T setting : loaded){
+    					String settingName = ((String) getProperty(setting, NAME)).trim();
+    					Object key = SettingKey.of(settingName, orderedGridUniqueSettingsValues);
+    					putInCache(key, setting);
+    					forgetAbsent(key);
+    					settings.put(settingName, setting);
+    				}
+    				loadedPrefixes.add(SettingKey.of(prefix, orderedGridUniqueSettingsValues));
+    				
+    				if(!showOnlyErrorLogs){
+    					log.debug("loaded "+loaded.size()+" settings with prefix -"+prefix+"- for setting class "+clazz.getName());
+    				}
+    			}
+    		}
+    		
+    		for(Map.Entry<String, Set<Object>> entry : settingKeys.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()){
+    			
+    			Object key = SettingKey.of(entry.getKey(), orderedGridUniqueSettingsValues);
+    			
+    			if(settings.containsKey(entry.getKey()) || !entry.getValue().contains(key)){
+    				continue;
+    			}
+    			
+    			T setting = getByName(entry.getKey(), orderedGridUniqueSettingsValues);
+    			
+    			if(setting == null){
+    				entry.getValue().remove(key);
+    			}else{
+    				settings.put(entry.getKey(), setting);
+    			}
+    		}
+    		
+    		return settings;
+    		
+    	} catch (RuntimeException e) {
+    		throw e;
+    	} catch (Exception e) {
+    		throw new UtilException("error getting settings by prefix -"+prefix+"-", e);
     	}
+    }
+    
+    private Collection<T> loadPrefixFromBackend(String prefix, Object... orderedGridUniqueSettingsValues) throws Exception{
+    	long start = System.nanoTime();
+    	boolean failed = true;
+    	try{
+    		Collection<T> settings = loadSettingsByPrefix(prefix, orderedGridUniqueSettingsValues);
+    		failed = false;
+    		return settings;
+    	}finally{
+    		metrics.recordLoad(System.nanoTime() - start, failed);
+    	}
+    }
+    
+    private boolean isPrefixLoaded(String prefix, Object... orderedGridUniqueSettingsValues){
+    	
+    	if(allSettingsLoaded){
+    		return true;
+    	}
+    	
+    	if(loadedPrefixes.isEmpty()){
+    		return false;
+    	}
+    	
+    	for(int length = 0; length <= prefix.length(); length++){
+    		if(loadedPrefixes.contains(SettingKey.of(prefix.substring(0, length), orderedGridUniqueSettingsValues))){
+    			return true;
+    		}
+    	}
+    	
+    	return false;
+    }
+    
+//	an invalidated setting may be new to the backend, so the ranges holding its name are loaded again
+    private void forgetLoadedPrefixes(String settingName){
+    	
+    	allSettingsLoaded = false;
+    	
+    	if(loadedPrefixes.isEmpty()){
+    		return;
+    	}
+    	
+    	for(Object key : loadedPrefixes){
+    		if(settingName.startsWith(SettingKey.nameOf(key))){
+    			loadedPrefixes.remove(key);
+    		}
+    	}
+    }
+    
+    /**
+     * Gets the settings of all the constants of an allowed settings enum at once. Cached settings are 
+     * served from the settings cache and the missing ones are loaded in one 
+     * {@link #getSettingsByName(Collection, Object...)} call. The settings that are still missing 
+     * and are to be created if they do not exist are created with their defaults in one 
+     * {@link #createSettings(Collection)} call. If the backend does not create them all their 
+     * defaults are returned without being cached, so the next read creates the ones still missing
+     * 
+     * @return the found settings keyed by the enum constants
+     */
+    protected <E extends Enum<E>> EnumMap<E, T> getSettingsByNames(Class<E> enumClass, Object... orderedGridUniqueSettingsValues){
+    	
+    	SettingsReplica[] replicas = enumClass == null ? null : enumReplicas.get(enumClass);
+    	
+    	if(replicas == null){
+    		throw new UtilException("The enum class must be set as the enumClass field of one of the returned EnumFields in the list");
+    	}
+    	
+    	List<String> settingNames = new ArrayList<String>(replicas.length);
+    	for(SettingsReplica replica : replicas){
+    		settingNames.add(replica.name);
+    	}
+    	
+    	Map<String, T> settings = getSettingsByNames(settingNames, orderedGridUniqueSettingsValues);
+    	
+    	try{
+    		
+	    	E[] constants = enumClass.getEnumConstants();
+	    	EnumMap<E, T> enumSettings = new EnumMap<E, T>(enumClass);
+	    	List<T> missingSettings = new ArrayList<T>();
+	    	
+	    	for(int x = 0; x < replicas.length; x++){
+	    		T setting = settings.get(replicas[x].name);
+	    		if(setting == null && replicas[x].createIfNotExist){
+	    			setting = newSetting(replicas[x].name, replicas[x].value, replicas[x].description, orderedGridUniqueSettingsValues);
+	    			missingSettings.add(setting);
+	    		}
+	    		if(setting != null){
+	    			enumSettings.put(constants[x], setting);
+	    		}
+	    	}
+	    	
+	    	if(!missingSettings.isEmpty()){
+	    		boolean created = true;
+	    		if(writeBehindQueue != null){
+//	    			queued like the single creates, a batch the backend fails is evicted by the queue
+	    			for(T setting : missingSettings){
+	    				writeSetting(setting, true, (String) getProperty(setting, NAME), orderedGridUniqueSettingsValues);
+	    			}
+	    		}else{
+	    			created = doCreateSettings(missingSettings);
+	    		}
+    			for(T setting : missingSettings){
+    				forgetAbsent(keyOf(setting));
+    				if(created && cacheSetting){
+    					cacheSetting(setting);
+    				}
+    			}
+    			if(!created){
+//    				the defaults are returned but not cached, the next read loads or creates them again
+    				log.warn("the backend did not create all the "+missingSettings.size()+" missing settings of enum class "
+    						+enumClass.getName()+", they are not cached");
+    			}
+	    	}
+	    	
+	    	return enumSettings;
+	    	
+    	} catch (Exception e) {
+    		throw new UtilException("error creating missing settings for enum class "+enumClass.getName(), e);
+    	}
+    }
+
+    private void cacheSetting(T setting){
+
+    	if(setting == null){
+        	if(!showOnlyErrorLogs){
+                log.warn("null argument for cacheSetting method for setting class : "+clazz.getName());
+        	}
+    		return;
+    	}
+    	
+    	Object key = keyOf(setting);
+    	String settingName = SettingKey.nameOf(key);
+    	
+        Object prevSetting = putInCache(key, setting);
+        
+        if(prevSetting != null){
+        	if(!showOnlyErrorLogs){
+                log.warn("A previous setting with name -"
+                        +settingName+"- was removed from the settingCache");
+        	}
+        }else{
+        	if(!showOnlyErrorLogs){
+                log.debug("Adding a new setting with name -"
+                        +settingName+"- to settingCache, value = -"+getProperty(setting,VALUE)+"-");
+        	}
+        }
+    }
+    
+    /**
+     * @return the cache key of a setting, from its trimmed name and grid fields
+     */
+    private Object keyOf(T setting){
     	
     	String settingName = (String) getProperty(setting, NAME);
 
@@ -678,19 +2536,7 @@ public abstract class SettingsUtilBase<T> {
     		orderedGridUniqueSettingsValues[x] = fieldVal;
     	}
     	
-        Object prevSetting = settingsCache.put(getList(settingName, orderedGridUniqueSettingsValues), setting);
-        
-        if(prevSetting != null){
-        	if(!showOnlyErrorLogs){
-                log.warn("A previous setting with name -"
-                        +settingName+"- was removed from the settingCache");
-        	}
-        }else{
-        	if(!showOnlyErrorLogs){
-                log.debug("Adding a new setting with name -"
-                        +settingName+"- to settingCache, value = -"+getProperty(setting,VALUE)+"-");
-        	}
-        }
+    	return SettingKey.of(settingName, orderedGridUniqueSettingsValues);
     }
     
     public void validateOrderedGridUniqueSettingsValues(Object... orderedGridUniqueSettingsValues){
@@ -727,251 +2573,1104 @@ public abstract class SettingsUtilBase<T> {
     }
     
 	private SettingsReplica getSettingsReplica(Enum<?> enumObject, Object value, Boolean createIfNotExist) {
-		Class<?> enumClazz = enumObject.getClass();
-		EnumFields enumField = getEnumField(enumClazz);
-		if(value == null){
-			value =  (String) SUBUtils.getProperty(enumClazz, enumObject, enumField.getDefaultValueFieldName());
+		
+		SettingsReplica[] replicas = enumReplicas.get(enumObject.getDeclaringClass());
+		
+		if(replicas == null){
+			validateEnumObject(enumObject);
+		}
+		
+		SettingsReplica defaultReplica = replicas[enumObject.ordinal()];
+		
+		if(value == null && createIfNotExist == null){
+			return defaultReplica;
+		}
+		
+		String valueString = defaultReplica.value;
+		
+		if(value != null){
+			valueString = value.toString();
 		}
 		if(createIfNotExist == null){
-			createIfNotExist = (Boolean) SUBUtils.getProperty(enumClazz, enumObject, enumField.getCreateIfNotExistFieldName());
+			createIfNotExist = defaultReplica.createIfNotExist;
 		}
-		String description = null;
-		if(!ignoreDescription){
-			description = (String) SUBUtils.getProperty(enumClazz, enumObject, enumField.getDefaultDescriptionFieldName());
+		
+		return new SettingsReplica(defaultReplica.name, valueString, defaultReplica.description, createIfNotExist);
+	}
+	
+	private Map<Class<?>, SettingsReplica[]> getEnumReplicas(List<EnumFields> allowedEnumFields) {
+		
+		Map<Class<?>, SettingsReplica[]> enumReplicas = new IdentityHashMap<Class<?>, SettingsReplica[]>();
+		
+		if(allowedEnumFields == null){
+			return enumReplicas;
+		}
+		
+		for(EnumFields enumField : allowedEnumFields){
+			
+			Object[] enumConstants = enumField.getEnumClass().getEnumConstants();
+			SettingsReplica[] replicas = new SettingsReplica[enumConstants.length];
+			
+			for(Object anEnum : enumConstants){
+				
+				EnumConstantDescriptor descriptor = enumField.getDescriptor((Enum<?>) anEnum);
+				
+				String description = null;
+				if(!ignoreDescription){
+					description = descriptor.getDefaultDescription();
+				}
+				
+				replicas[descriptor.getEnumConstant().ordinal()] = new SettingsReplica(descriptor.getName(), 
+						descriptor.getDefaultValue(), description, descriptor.isCreateIfNotExist());
+			}
+			
+			enumReplicas.put(enumField.getEnumClass(), replicas);
+		}
+		
+		return enumReplicas;
+	}
+    
+    private void validateAllowedEnumFields() {
+    	
+    	if(allowedEnumClasses == null || allowedEnumClasses.isEmpty()){
+    		return;
+    	}
+    	
+    	if(ignoreDescription()){
+    		return;
+    	}
+    	
+//    	validate the earlier skipped description field now
+    	for(Class<?> clazz : allowedEnumClasses){
+    		
+    		Object[] enumConstants = clazz.getEnumConstants();
+    		
+    		EnumFields enumField = getEnumField(clazz);
+    		
+    		if(enumConstants.length == 0){
+    			if(!showOnlyErrorLogs){
+        			log.warn("This enum class "+clazz.getName()+" does not have any enum elements");
+    			}
+    		}else if(!enumField.isDefaultDescriptionReadable()){
+//				throws the missing getter error
+    			SUBUtils.getProperty(clazz, enumConstants[0], enumField.getDefaultDescriptionFieldName());
+    		}    		
+    	}
+    	
+	}
+	
+    private List<Class<?>> getEnumClasses(List<EnumFields> allowedEnumFields) {
+		if(allowedEnumFields == null || allowedEnumFields.isEmpty()){
+			if(!showOnlyErrorLogs){
+				log.debug("allowedEnumFields is null or empty : "+allowedEnumFields+", for settings class "+clazz.getName());
+			}
+			return null;
+		}
+		
+		List<Class<?>> enumClasses = new ArrayList<Class<?>>();
+		
+		for(EnumFields anEnumField : allowedEnumFields){
+			
+			if(!enumClasses.contains(anEnumField.getEnumClass())){
+				enumClasses.add(anEnumField.getEnumClass());
+			}
+			else{
+				throw new IllegalArgumentException("Duplicate enum class found among the declared allowed enum fields : "
+						+anEnumField.getEnumClass().getName());
+			}
+		}
+		
+		return enumClasses;
+	}
+	
+	private EnumFields getEnumField(Class<?> enumClass){
+		
+		if(allowedEnumFields == null || allowedEnumFields.isEmpty()){
+			throw new IllegalArgumentException("No enumFields declared in the overridden getAllowedSettingsEnum() method");
+		}
+		
+		for(EnumFields enumField : allowedEnumFields){
+			if(enumClass.equals(enumField.getEnumClass())){
+				return enumField;
+			}
+		}
+		
+		throw new IllegalArgumentException("enum class not found among the list of the declared allowable Enum Fields. Please add the enum class " +
+				"to one of the enum fields returned in the overriden method getAllowedSettingsEnum()");
+	}
+    
+	private void validateEnumObject(Enum<?> enumObject){
+    	if(allowedEnumClasses == null || allowedEnumClasses.isEmpty()){
+			throw new UtilException("No allowed EnumFields declared. Override the getAllowedSettingsEnum() method and " +
+					"set this class as the enumClass field of one of the returned EnumFields in the list");
+    	}
+		if(!allowedEnumClasses.contains(enumObject.getDeclaringClass())){
+			throw new UtilException("The object's class must be set as the enumClass field of one of the returned EnumFields in the list");
+		}
+	}
+	
+	protected T getSettingByName(Enum<?> enumObject, Object... orderedGridUniqueSettingsValues) {
+		SettingsReplica settingsReplica = getSettingsReplica(enumObject, null, null);
+		return doGetSettingByName(settingsReplica, orderedGridUniqueSettingsValues); 
+	}
+
+	protected T getSettingByName(Enum<?> enumObject, String defaultValue, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
+		SettingsReplica settingsReplica = getSettingsReplica(enumObject, defaultValue, createIfNotExist);
+		return doGetSettingByName(settingsReplica, orderedGridUniqueSettingsValues); 
+	}
+	
+	private T doGetSettingByName(SettingsReplica settingsReplica, Object... orderedGridUniqueSettingsValues) {
+		return getSettingByName(settingsReplica.name, settingsReplica.value, settingsReplica.description, settingsReplica.createIfNotExist, orderedGridUniqueSettingsValues);
+	}
+
+	protected String getSettingValue(Enum<?> enumObject, Object... orderedGridUniqueSettingsValues) {
+		SettingsReplica settingsReplica = getSettingsReplica(enumObject, null, null);
+		return doGetSettingValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	}
+
+	protected String getSettingValue(Enum<?> enumObject, String defaultValue, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
+		SettingsReplica settingsReplica = getSettingsReplica(enumObject, defaultValue, createIfNotExist);
+		return doGetSettingValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	}
+	
+	private String doGetSettingValue(SettingsReplica settingsReplica, Object... orderedGridUniqueSettingsValues) {
+		return getSettingValue(settingsReplica.name, settingsReplica.value, settingsReplica.description, settingsReplica.createIfNotExist, orderedGridUniqueSettingsValues);
+	}
+
+	protected Integer getSettingIntValue(Enum<?> enumObject, Object... orderedGridUniqueSettingsValues) {
+		SettingsReplica settingsReplica = getSettingsReplica(enumObject, null, null);
+		return doGetSettingIntValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	}
+
+	protected Integer getSettingIntValue(Enum<?> enumObject, Integer defaultValue, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
+		SettingsReplica settingsReplica = getSettingsReplica(enumObject, defaultValue, createIfNotExist);
+		return doGetSettingIntValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	}
+	
+	private Integer doGetSettingIntValue(SettingsReplica settingsReplica, Object... orderedGridUniqueSettingsValues) {
+		Integer defaultValue = null;
+		if(settingsReplica.value != null){
+			ParsedValue parsedDefault = settingsReplica.getParsedValue(TRUE, FALSE);
+			if(!parsedDefault.isIntValid()){
+				throw new IllegalArgumentException("Invalid enum Integer default value : "+settingsReplica.value);
+			}
+			defaultValue = parsedDefault.getIntValue();
+		}
+		return getSettingIntValue(settingsReplica.name, defaultValue, settingsReplica.description, settingsReplica.createIfNotExist, orderedGridUniqueSettingsValues);
+	}
+
+	protected Long getSettingLongValue(Enum<?> enumObject, Object... orderedGridUniqueSettingsValues) {
+		SettingsReplica settingsReplica = getSettingsReplica(enumObject, null, null);
+		return doGetSettingLongValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	}
+
+	protected Long getSettingLongValue(Enum<?> enumObject, Long defaultValue, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
+		SettingsReplica settingsReplica = getSettingsReplica(enumObject, defaultValue, createIfNotExist);
+		return doGetSettingLongValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	}
+	
+	private Long doGetSettingLongValue(SettingsReplica settingsReplica, Object... orderedGridUniqueSettingsValues) {
+		Long defaultValue = null;
+		if(settingsReplica.value != null){
+			ParsedValue parsedDefault = settingsReplica.getParsedValue(TRUE, FALSE);
+			if(!parsedDefault.isLongValid()){
+				throw new IllegalArgumentException("Invalid enum Long default value : "+settingsReplica.value);
+			}
+			defaultValue = parsedDefault.getLongValue();
+		}
+		return getSettingLongValue(settingsReplica.name, defaultValue, settingsReplica.description, settingsReplica.createIfNotExist, orderedGridUniqueSettingsValues);
+	}
+
+	protected Float getSettingFloatValue(Enum<?> enumObject, Object... orderedGridUniqueSettingsValues) {
+		SettingsReplica settingsReplica = getSettingsReplica(enumObject, null, null);
+		return dogetSettingFloatValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	}
+
+	protected Float getSettingFloatValue(Enum<?> enumObject, Float defaultValue, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
+		SettingsReplica settingsReplica = getSettingsReplica(enumObject, defaultValue, createIfNotExist);
+		return dogetSettingFloatValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	}
+	
+	private Float dogetSettingFloatValue(SettingsReplica settingsReplica, Object... orderedGridUniqueSettingsValues) {
+		Float defaultValue = null;
+		if(settingsReplica.value != null){
+			ParsedValue parsedDefault = settingsReplica.getParsedValue(TRUE, FALSE);
+			if(!parsedDefault.isFloatValid()){
+				throw new IllegalArgumentException("Invalid enum Float default value : "+settingsReplica.value);
+			}
+			defaultValue = parsedDefault.getFloatValue();
+		}
+		return getSettingFloatValue(settingsReplica.name, defaultValue, settingsReplica.description, settingsReplica.createIfNotExist, orderedGridUniqueSettingsValues);
+	}
+
+	protected Boolean getSettingBooleanValue(Enum<?> enumObject, Object... orderedGridUniqueSettingsValues) {
+		SettingsReplica settingsReplica = getSettingsReplica(enumObject, null, null);
+		return dogetSettingBooleanValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	}
+
+	protected Boolean getSettingBooleanValue(Enum<?> enumObject, Boolean defaultValue, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
+		SettingsReplica settingsReplica = getSettingsReplica(enumObject, defaultValue, createIfNotExist);
+		return dogetSettingBooleanValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	}
+	
+	/**
+	 * @return a future of the setting, completed on the calling thread if it is cached
+	 */
+	protected CompletableFuture<T> getSettingByNameAsync(final String settingName, final String defaultValue, 
+			final String defaultDescription, final boolean createIfNotExist, final Object... orderedGridUniqueSettingsValues){
+		
+		T setting = getCachedSettingForAsync(settingName, orderedGridUniqueSettingsValues);
+		if(setting != null){
+			return CompletableFuture.completedFuture(setting);
+		}
+		return supplyAsync(() -> getSettingByName(settingName, defaultValue, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues));
+	}
+	
+	protected CompletableFuture<T> getByNameAsync(final String settingName, final Object... orderedGridUniqueSettingsValues){
+		
+		T setting = getCachedSettingForAsync(settingName, orderedGridUniqueSettingsValues);
+		if(setting != null){
+			return CompletableFuture.completedFuture(setting);
+		}
+		return supplyAsync(() -> getByName(settingName, orderedGridUniqueSettingsValues));
+	}
+	
+	/**
+	 * @return a future of the setting value, completed on the calling thread if the setting is cached 
+	 * and its value is not blank, i.e. when no backend call or repair is needed
+	 */
+	protected CompletableFuture<String> getSettingValueAsync(final String settingName, final String defaultValue, 
+    		final String defaultDescription, final boolean createIfNotExist, final Object... orderedGridUniqueSettingsValues){
+		
+		T setting = getCachedSettingForAsync(settingName, orderedGridUniqueSettingsValues);
+		if(setting != null){
+			Object value = getProperty(setting, VALUE);
+			if(value instanceof String && !SUBUtils.isBlank((String) value)){
+				return CompletableFuture.completedFuture((String) value);
+			}
+		}
+		return supplyAsync(() -> getSettingValue(settingName, defaultValue, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues));
+	}
+	
+	protected CompletableFuture<Integer> getSettingIntValueAsync(final String settingName, final Integer defaultValue, 
+    		final String defaultDescription, final boolean createIfNotExist, final Object... orderedGridUniqueSettingsValues){
+		
+		ParsedValue val = getCachedParsedValueForAsync(settingName, orderedGridUniqueSettingsValues);
+		if(val != null && val.isIntValid()){
+			return CompletableFuture.completedFuture(val.getIntValue());
+		}
+		return supplyAsync(() -> getSettingIntValue(settingName, defaultValue, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues));
+	}
+	
+	protected CompletableFuture<Long> getSettingLongValueAsync(final String settingName, final Long defaultValue, 
+    		final String defaultDescription, final boolean createIfNotExist, final Object... orderedGridUniqueSettingsValues){
+		
+		ParsedValue val = getCachedParsedValueForAsync(settingName, orderedGridUniqueSettingsValues);
+		if(val != null && val.isLongValid()){
+			return CompletableFuture.completedFuture(val.getLongValue());
+		}
+		return supplyAsync(() -> getSettingLongValue(settingName, defaultValue, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues));
+	}
+	
+	protected CompletableFuture<Float> getSettingFloatValueAsync(final String settingName, final Float defaultValue, 
+    		final String defaultDescription, final boolean createIfNotExist, final Object... orderedGridUniqueSettingsValues){
+		
+		ParsedValue val = getCachedParsedValueForAsync(settingName, orderedGridUniqueSettingsValues);
+		if(val != null && val.isFloatValid()){
+			return CompletableFuture.completedFuture(val.getFloatValue());
+		}
+		return supplyAsync(() -> getSettingFloatValue(settingName, defaultValue, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues));
+	}
+	
+	protected CompletableFuture<Boolean> getSettingBooleanValueAsync(final String settingName, final Boolean defaultValue, 
+    		final String defaultDescription, final boolean createIfNotExist, final Object... orderedGridUniqueSettingsValues){
+		
+		ParsedValue val = getCachedParsedValueForAsync(settingName, orderedGridUniqueSettingsValues);
+		if(val != null && val.isBooleanValid()){
+			return CompletableFuture.completedFuture(val.getBooleanValue());
+		}
+		return supplyAsync(() -> getSettingBooleanValue(settingName, defaultValue, defaultDescription, createIfNotExist, orderedGridUniqueSettingsValues));
+	}
+	
+	protected CompletableFuture<String> getSettingValueAsync(final Enum<?> enumObject, final Object... orderedGridUniqueSettingsValues){
+		
+		SettingsReplica settingsReplica = getSettingsReplica(enumObject, null, null);
+		T setting = getCachedSettingForAsync(settingsReplica.name, orderedGridUniqueSettingsValues);
+		if(setting != null){
+			Object value = getProperty(setting, VALUE);
+			if(value instanceof String && !SUBUtils.isBlank((String) value)){
+				return CompletableFuture.completedFuture((String) value);
+			}
+		}
+		return supplyAsync(() -> getSettingValue(enumObject, orderedGridUniqueSettingsValues));
+	}
+	
+	protected CompletableFuture<Integer> getSettingIntValueAsync(final Enum<?> enumObject, final Object... orderedGridUniqueSettingsValues){
+		
+		ParsedValue val = getCachedParsedValueForAsync(getSettingsReplica(enumObject, null, null).name, orderedGridUniqueSettingsValues);
+		if(val != null && val.isIntValid()){
+			return CompletableFuture.completedFuture(val.getIntValue());
+		}
+		return supplyAsync(() -> getSettingIntValue(enumObject, orderedGridUniqueSettingsValues));
+	}
+	
+	protected CompletableFuture<Long> getSettingLongValueAsync(final Enum<?> enumObject, final Object... orderedGridUniqueSettingsValues){
+		
+		ParsedValue val = getCachedParsedValueForAsync(getSettingsReplica(enumObject, null, null).name, orderedGridUniqueSettingsValues);
+		if(val != null && val.isLongValid()){
+			return CompletableFuture.completedFuture(val.getLongValue());
+		}
+		return supplyAsync(() -> getSettingLongValue(enumObject, orderedGridUniqueSettingsValues));
+	}
+	
+	protected CompletableFuture<Float> getSettingFloatValueAsync(final Enum<?> enumObject, final Object... orderedGridUniqueSettingsValues){
+		
+		ParsedValue val = getCachedParsedValueForAsync(getSettingsReplica(enumObject, null, null).name, orderedGridUniqueSettingsValues);
+		if(val != null && val.isFloatValid()){
+			return CompletableFuture.completedFuture(val.getFloatValue());
+		}
+		return supplyAsync(() -> getSettingFloatValue(enumObject, orderedGridUniqueSettingsValues));
+	}
+	
+	protected CompletableFuture<Boolean> getSettingBooleanValueAsync(final Enum<?> enumObject, final Object... orderedGridUniqueSettingsValues){
+		
+		ParsedValue val = getCachedParsedValueForAsync(getSettingsReplica(enumObject, null, null).name, orderedGridUniqueSettingsValues);
+		if(val != null && val.isBooleanValid()){
+			return CompletableFuture.completedFuture(val.getBooleanValue());
+		}
+		return supplyAsync(() -> getSettingBooleanValue(enumObject, orderedGridUniqueSettingsValues));
+	}
+	
+//	the cache probe of the async getters. Anything unusual (an invalid name, grid values or an uncached setting) 
+//	is left to the blocking getter run on the async executor, which reports it through the future
+	private T getCachedSettingForAsync(String settingName, Object... orderedGridUniqueSettingsValues){
+		if(!cacheSetting || settingName == null){
+			return null;
+		}
+		return getCachedSetting(settingName.trim(), orderedGridUniqueSettingsValues);
+	}
+	
+	private ParsedValue getCachedParsedValueForAsync(String settingName, Object... orderedGridUniqueSettingsValues){
+		if(settingName == null){
+			return null;
+		}
+		return getCachedParsedValue(settingName, orderedGridUniqueSettingsValues);
+	}
+	
+	private <V> CompletableFuture<V> supplyAsync(Supplier<V> getter){
+		try{
+			return CompletableFuture.supplyAsync(getter, asyncExecutor);
+		}catch(RejectedExecutionException e){
+			CompletableFuture<V> rejected = new CompletableFuture<V>();
+			rejected.completeExceptionally(e);
+			return rejected;
+		}
+	}
+	
+	public void clearCache(){
+		settingsCache.clear();
+		if(offHeapStore != null){
+			offHeapStore.clear();
+		}
+		if(absentSettings != null){
+			absentSettings.clear();
+		}
+		settingKeys.clear();
+		loadedPrefixes.clear();
+		allSettingsLoaded = false;
+		handles.markAllStale();
+		settingChanged(null, null);
+		reloadSnapshot();
+	}
+	
+	/**
+	 * Drops a setting from the cache, here and on the invalidation bus, so the next read loads it again
+	 */
+	protected void invalidate(String settingName, Object... orderedGridUniqueSettingsValues){
+		
+		if(settingName == null || settingName.trim().equals("")){
+			throw new IllegalArgumentException("setting name is null or empty");
+		}
+		
+		validateOrderedGridUniqueSettingsValues(orderedGridUniqueSettingsValues);
+		
+		settingName = settingName.trim();
+		
+		evict(settingName, orderedGridUniqueSettingsValues);
+		
+		if(invalidationBus != null){
+			invalidationBus.publish(new InvalidationMessage(invalidationChannel, invalidationSourceId, 
+					settingName, orderedGridUniqueSettingsValues == null ? new Object[0] : orderedGridUniqueSettingsValues));
+		}
+	}
+	
+	/**
+	 * Drops the cached settings matching the filter. Unlike {@link #invalidate(String, Object...)} 
+	 * it only affects this util's cache, a predicate cannot be published
+	 * 
+	 * @return the number of settings dropped
+	 */
+	public int invalidateIf(final Predicate<? super T> filter){
+		
+		if(filter == null){
+			throw new IllegalArgumentException("filter is null");
+		}
+		
+		int removed = settingsCache.removeIf(new Predicate<CacheEntry<T>>() {
+			@Override
+			public boolean test(CacheEntry<T> entry) {
+				return filter.test(entry.getSetting());
+			}
+		});
+		
+		if(offHeapStore != null){
+//			the settings evicted from the heap are only off heap, each is rebuilt to be tested
+			offHeapStore.removeIf(new Predicate<OffHeapStore.Record>() {
+				@Override
+				public boolean test(OffHeapStore.Record record) {
+					return filter.test(newSetting(record.getSettingName(), record.getGridValues(), 
+							record.getValue(), record.getDescription()));
+				}
+			});
+		}
+		
+//		the filter is not known to match by key, every handle reads through the util again
+		if(removed > 0 || offHeapStore != null){
+			handles.markAllStale();
+		}
+		
+		reloadSnapshot();
+		
+		return removed;
+	}
+	
+	/**
+	 * Evicts a setting the write behind queue failed to write, so the next read writes it again
+	 */
+	void evictUnwritten(Object key){
+		evict(SettingKey.nameOf(key), SettingKey.gridValuesOf(key));
+	}
+	
+	/**
+	 * Evicts one key, or every grid combination of the name if the grid values are null
+	 */
+	private void evict(final String settingName, Object[] orderedGridUniqueSettingsValues){
+		
+		if(orderedGridUniqueSettingsValues != null){
+			Object key = SettingKey.of(settingName, orderedGridUniqueSettingsValues);
+			settingsCache.remove(key);
+			removeOffHeap(key);
+			forgetAbsent(key);
+		}else{
+			settingsCache.removeIf(new Predicate<CacheEntry<T>>() {
+				@Override
+				public boolean test(CacheEntry<T> entry) {
+					return settingName.equals(SettingKey.nameOf(entry.getKey()));
+				}
+			});
+			if(offHeapStore != null){
+				offHeapStore.removeIf(new Predicate<OffHeapStore.Record>() {
+					@Override
+					public boolean test(OffHeapStore.Record record) {
+						return settingName.equals(record.getSettingName());
+					}
+				});
+			}
+			if(absentSettings != null){
+				absentSettings.removeIf(new Predicate<CacheEntry<Boolean>>() {
+					@Override
+					public boolean test(CacheEntry<Boolean> entry) {
+						return settingName.equals(SettingKey.nameOf(entry.getKey()));
+					}
+				});
+			}
+		}
+    	
+    	forgetLoadedPrefixes(settingName);
+    	markHandlesStale(settingName, orderedGridUniqueSettingsValues);
+    	settingChanged(settingName, orderedGridUniqueSettingsValues);
+    	reloadSnapshot();
+    	
+    	if(!showOnlyErrorLogs){
+    		log.debug("invalidated setting with name -"+settingName+"- for setting class "+clazz.getName());
+    	}
+	}
+	
+	/**
+	 * Binds a setting to a {@link SettingHandle} that returns its current value with a single volatile read. 
+	 * The handle reads the setting like {@link #getByName(String, Object...)}, it is never created
+	 * 
+	 * @param type String, Integer, Long, Float or Boolean
+	 * @param defaultValue returned while the setting is missing, blank or not valid for the type, may be null
+	 */
+	protected <V> SettingHandle<V> getHandle(String settingName, Class<V> type, V defaultValue, Object... orderedGridUniqueSettingsValues){
+		
+		if(settingName == null || settingName.trim().equals("")){
+			throw new IllegalArgumentException("setting name is null or empty");
+		}
+		
+		validateHandleType(type);
+		validateOrderedGridUniqueSettingsValues(orderedGridUniqueSettingsValues);
+		
+		return newHandle(settingName.trim(), null, type, defaultValue, orderedGridUniqueSettingsValues);
+	}
+	
+	/**
+	 * Binds the setting of a settings enum constant to a {@link SettingHandle}. The handle reads the setting 
+	 * like the enum getters, creating it with the enum default value if the constant says so, and returns 
+	 * the enum default value while the setting is blank or not valid for the type
+	 * 
+	 * @param type String, Integer, Long, Float or Boolean
+	 */
+	protected <V> SettingHandle<V> getHandle(Enum<?> enumObject, Class<V> type, Object... orderedGridUniqueSettingsValues){
+		
+		if(enumObject == null){
+			throw new IllegalArgumentException("enumObject is null");
+		}
+		
+		validateHandleType(type);
+		validateOrderedGridUniqueSettingsValues(orderedGridUniqueSettingsValues);
+		
+		SettingsReplica settingsReplica = getSettingsReplica(enumObject, null, null);
+		V defaultValue = null;
+		
+		if(settingsReplica.value != null){
+			defaultValue = type.cast(typedValue(type, settingsReplica.getParsedValue(TRUE, FALSE), null));
+			if(defaultValue == null){
+				throw new IllegalArgumentException("Invalid enum "+type.getSimpleName()+" default value : "+settingsReplica.value);
+			}
+		}
+		
+		return newHandle(settingsReplica.name, enumObject, type, defaultValue, orderedGridUniqueSettingsValues);
+	}
+	
+	private void validateHandleType(Class<?> type){
+		if(type != String.class && type != Integer.class && type != Long.class && type != Float.class && type != Boolean.class){
+			throw new IllegalArgumentException("a setting handle must be of type String, Integer, Long, Float or Boolean, not "+type);
+		}
+	}
+	
+	private <V> SettingHandle<V> newHandle(String settingName, Enum<?> enumObject, Class<V> type, V defaultValue, 
+			Object... orderedGridUniqueSettingsValues){
+		
+		Object[] gridValues = orderedGridUniqueSettingsValues == null ? new Object[0] : orderedGridUniqueSettingsValues.clone();
+		SettingHandle<V> handle = new SettingHandle<V>(this, settingName, gridValues, enumObject, type, defaultValue);
+		
+		handles.register(handle);
+		return handle;
+	}
+	
+//	the read of a handle that is stale or due for a check, through the cache. The handle is bound to the value 
+//	unless it changed meanwhile or the value is not cached, e.g. with caching off or for a missing setting
+	<V> V readHandle(SettingHandle<V> handle, SettingHandle.Binding observed){
+		
+		Object[] orderedGridUniqueSettingsValues = handle.orderedGridUniqueSettingsValues;
+		T setting;
+		
+		if(handle.enumObject == null){
+			setting = getByName(handle.settingName, orderedGridUniqueSettingsValues);
+		}else{
+			SettingsReplica settingsReplica = getSettingsReplica(handle.enumObject, null, null);
+			setting = getSettingByName(settingsReplica.name, settingsReplica.value, settingsReplica.description, 
+					settingsReplica.createIfNotExist, orderedGridUniqueSettingsValues);
+		}
+		
+		V value = handle.type.cast(handleValue(handle, setting == null ? null : parse(getValueOf(setting))));
+		
+		if(cacheSetting && setting != null){
+			CacheEntry<T> entry = findHeapEntry(handle.settingName, orderedGridUniqueSettingsValues);
+//			the write time of the entry tells when the value is to be checked again
+			if(entry != null && entry.getSetting() == setting){
+				handle.bind(observed, value, handleCheckTime(handle.settingName, entry.getWriteTime()));
+			}
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * Saves the settings cache to the {@link #persistentCacheFile()} now, on the calling thread. 
+	 * Settings with grid values that are not strings, numbers or booleans are left out
+	 * 
+	 * @return the number of settings saved
+	 */
+	public int writePersistentCache(){
+		
+		if(persistentCacheFile == null){
+			throw new IllegalStateException("no persistent cache file. Override persistentCacheFile() to return one");
+		}
+		
+		long nowMillis = System.currentTimeMillis();
+		long nowNanos = System.nanoTime();
+		List<PersistentCacheFile.PersistedSetting> settings = new ArrayList<PersistentCacheFile.PersistedSetting>();
+		
+		for(CacheEntry<T> entry : settingsCache.entries()){
+			
+			Object[] orderedGridUniqueSettingsValues = SettingKey.gridValuesOf(entry.getKey());
+			
+			if(!GridValueCodec.isEncodable(orderedGridUniqueSettingsValues)){
+				continue;
+			}
+			
+			T setting = entry.getSetting();
+			Object description = ignoreDescription ? null : getProperty(setting, DESCRIPTION);
+			long loadedMillis = entry.getWriteTime() == 0 ? nowMillis 
+					: nowMillis - TimeUnit.NANOSECONDS.toMillis(nowNanos - entry.getWriteTime());
+			
+			settings.add(new PersistentCacheFile.PersistedSetting(SettingKey.nameOf(entry.getKey()), orderedGridUniqueSettingsValues, 
+					getValueOf(setting), description == null ? null : description.toString(), loadedMillis));
 		}
-		String name = enumObject.name();
 		
-		String valueString = null;
+		try {
+			PersistentCacheFile.write(persistentCacheFile, getPersistentCacheSchema(), settings);
+		} catch (IOException e) {
+			throw new UtilException("error writing the settings cache file "+persistentCacheFile, e);
+		}
 		
-		if(value != null){
-			valueString = value.toString();
+		if(!showOnlyErrorLogs){
+			log.debug("saved "+settings.size()+" settings to "+persistentCacheFile+" for setting class "+clazz.getName());
 		}
 		
-		return new SettingsReplica(name, valueString, description, createIfNotExist);
-	}
-    
-    private void validateAllowedEnumFields() {
-    	
-    	if(allowedEnumClasses == null || allowedEnumClasses.isEmpty()){
-    		return;
-    	}
-    	
-    	if(ignoreDescription()){
-    		return;
-    	}
-    	
-//    	validate the earlier skipped description field now
-    	for(Class<?> clazz : allowedEnumClasses){
-    		
-    		Object[] enumConstants = clazz.getEnumConstants();
-    		
-    		EnumFields enumField = getEnumField(clazz);
-    		
-    		if(enumConstants.length == 0){
-    			if(!showOnlyErrorLogs){
-        			log.warn("This enum class "+clazz.getName()+" does not have any enum elements");
-    			}
-    		}else{
-    			Object object = enumConstants[0];
-    			SUBUtils.getProperty(clazz, object, enumField.getDefaultDescriptionFieldName());
-    		}    		
-    	}
-    	
+		return settings.size();
 	}
 	
-    private List<Class<?>> getEnumClasses(List<EnumFields> allowedEnumFields) {
-		if(allowedEnumFields == null || allowedEnumFields.isEmpty()){
-			if(!showOnlyErrorLogs){
-				log.debug("allowedEnumFields is null or empty : "+allowedEnumFields+", for settings class "+clazz.getName());
-			}
+	private ScheduledFuture<?> schedulePersistentCacheWrite(long intervalMillis){
+		
+		if(intervalMillis <= 0){
 			return null;
 		}
 		
-		List<Class<?>> enumClasses = new ArrayList<Class<?>>();
+		ScheduledPersistentCacheWrite write = new ScheduledPersistentCacheWrite(this);
+		write.scheduledWrite = PersistentCacheFile.writer().scheduleWithFixedDelay(write, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+		return write.scheduledWrite;
+	}
+	
+	private void restorePersistentCache(){
 		
-		for(EnumFields anEnumField : allowedEnumFields){
-			
-			if(!enumClasses.contains(anEnumField.getEnumClass())){
-				enumClasses.add(anEnumField.getEnumClass());
-			}
-			else{
-				throw new IllegalArgumentException("Duplicate enum class found among the declared allowed enum fields : "
-						+anEnumField.getEnumClass().getName());
+		if(!Files.exists(persistentCacheFile)){
+			return;
+		}
+		
+		List<PersistentCacheFile.PersistedSetting> settings;
+		
+		try {
+			settings = PersistentCacheFile.read(persistentCacheFile, getPersistentCacheSchema());
+		} catch (IOException e) {
+			log.warn("skipped the settings cache file "+persistentCacheFile+" : "+e);
+			return;
+		}
+		
+		long maxAgeMillis = persistentCacheMaxAgeMillis();
+		long nowMillis = System.currentTimeMillis();
+		long expireAfterWriteNanos = TimeUnit.MILLISECONDS.toNanos(expireAfterWriteMillis);
+		int restoredCount = 0;
+		
+		try{
+			for(PersistentCacheFile.PersistedSetting persisted : settings){
+				
+				if(maxAgeMillis > 0 && nowMillis - persisted.loadedMillis > maxAgeMillis){
+					continue;
+				}
+				
+				int gridLength = orderedGridUniqueSettingsFields == null ? 0 : orderedGridUniqueSettingsFields.length;
+				
+				if(persisted.gridValues.length != gridLength){
+					continue;
+				}
+				
+				T setting = newSetting(persisted.name, persisted.gridValues, persisted.value, persisted.description);
+				
+				Object key = internKey(SettingKey.of(persisted.name, persisted.gridValues));
+				internValues(setting);
+//				a refresh interval of 1 nanosecond has the first read reload it in the background
+				settingsCache.put(key, setting, weigh(setting), expireAfterWriteNanos, 1);
+				indexSettingKey(key);
+				restoredCount++;
 			}
+		}catch(Exception e){
+//			e.g. a grid field whose type changed, the file is dropped as a whole
+			settingsCache.clear();
+			settingKeys.clear();
+			log.warn("skipped the settings cache file "+persistentCacheFile+" : "+e);
+			return;
 		}
 		
-		return enumClasses;
+		if(!showOnlyErrorLogs){
+			log.debug("restored "+restoredCount+" of "+settings.size()+" settings from "+persistentCacheFile+" for setting class "+clazz.getName());
+		}
 	}
 	
-	private EnumFields getEnumField(Class<?> enumClass){
+//	a setting rebuilt from its stored fields
+	private T newSetting(String settingName, Object[] orderedGridUniqueSettingsValues, String value, String description){
 		
-		if(allowedEnumFields == null || allowedEnumFields.isEmpty()){
-			throw new IllegalArgumentException("No enumFields declared in the overridden getAllowedSettingsEnum() method");
+		T setting;
+		try {
+			setting = newInstance();
+		} catch (Exception e) {
+			throw new UtilException("error creating an instance of setting class "+clazz.getName(), e);
 		}
 		
-		for(EnumFields enumField : allowedEnumFields){
-			if(enumClass.equals(enumField.getEnumClass())){
-				return enumField;
+		setProperty(setting, NAME, settingName);
+		setProperty(setting, VALUE, value);
+		if(!ignoreDescription){
+			setProperty(setting, DESCRIPTION, description);
+		}
+		for(int x=0; x<orderedGridUniqueSettingsValues.length; x++){
+			setProperty(setting, orderedGridUniqueSettingsFields[x], orderedGridUniqueSettingsValues[x]);
+		}
+		return setting;
+	}
+	
+//	a file saved for another setting class or other fields is not read
+	private String getPersistentCacheSchema(){
+		StringBuilder schema = new StringBuilder(clazz.getName()).append(';').append(NAME).append(';').append(VALUE)
+				.append(';').append(ignoreDescription ? "" : DESCRIPTION);
+		if(orderedGridUniqueSettingsFields != null){
+			for(String field : orderedGridUniqueSettingsFields){
+				schema.append(';').append(field.trim());
 			}
 		}
+		return schema.toString();
+	}
+	
+	/**
+	 * @return the current snapshot of all the settings. The first call builds it on the calling thread, 
+	 * later calls are a single volatile read. Keep the returned snapshot to read several settings consistently
+	 * @throws IllegalStateException if {@link #snapshotMode()} is not overridden to return true
+	 */
+	public SettingsSnapshot<T> getSnapshot(){
 		
-		throw new IllegalArgumentException("enum class not found among the list of the declared allowable Enum Fields. Please add the enum class " +
-				"to one of the enum fields returned in the overriden method getAllowedSettingsEnum()");
+		SettingsSnapshot<T> current = snapshot.get();
+		
+		if(current != null){
+			return current;
+		}
+		
+		if(!snapshotMode){
+			throw new IllegalStateException("snapshot mode is not enabled. Override snapshotMode() to return true");
+		}
+		
+		boolean built = false;
+		
+		synchronized (snapshot) {
+			current = snapshot.get();
+			if(current == null){
+				current = publishSnapshot(buildSnapshot(snapshotRequests.get()));
+				built = true;
+			}
+		}
+		
+//		changes seen while the first snapshot was being built are picked up by a reload
+		if(built && current.getVersion() != snapshotRequests.get()){
+			scheduleSnapshotReload();
+		}
+		
+		return current;
 	}
-    
-	private void validateEnumObject(Enum<?> enumObject){
-    	if(allowedEnumClasses == null || allowedEnumClasses.isEmpty()){
-			throw new UtilException("No allowed EnumFields declared. Override the getAllowedSettingsEnum() method and " +
-					"set this class as the enumClass field of one of the returned EnumFields in the list");
-    	}
-		if(!allowedEnumClasses.contains(enumObject.getClass())){
-			throw new UtilException("The object's class must be set as the enumClass field of one of the returned EnumFields in the list");
+	
+	/**
+	 * Rebuilds the snapshot from the backend on the refresh executor and swaps it in when it is complete, 
+	 * readers keep the current one meanwhile. Requests made while a rebuild is running are coalesced 
+	 * into one more rebuild. Before the first {@link #getSnapshot()} the request is only counted, 
+	 * the first build rebuilds once more if it was requested while building
+	 */
+	public void reloadSnapshot(){
+		
+		if(!snapshotMode){
+			return;
+		}
+		
+		snapshotRequests.incrementAndGet();
+		
+//		read after the increment, a first build published meanwhile either saw the request or is reloaded here
+		if(snapshot.get() != null){
+			scheduleSnapshotReload();
 		}
 	}
 	
-	protected T getSettingByName(Enum<?> enumObject, Object... orderedGridUniqueSettingsValues) {
-		validateEnumObject(enumObject); 
-		SettingsReplica settingsReplica = getSettingsReplica(enumObject, null, null);
-		return doGetSettingByName(settingsReplica, orderedGridUniqueSettingsValues); 
+	private void scheduleSnapshotReload(){
+		
+		if(!snapshotReloading.compareAndSet(false, true)){
+			return;
+		}
+		
+		try{
+			refreshExecutor.execute(new Runnable() {
+				@Override
+				public void run() {
+					reloadSnapshots();
+				}
+			});
+		}catch(RejectedExecutionException e){
+			snapshotReloading.set(false);
+			log.error("could not schedule the settings snapshot reload for setting class "+clazz.getName(), e);
+		}
 	}
-
-	protected T getSettingByName(Enum<?> enumObject, String defaultValue, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
-		validateEnumObject(enumObject); 
-		SettingsReplica settingsReplica = getSettingsReplica(enumObject, defaultValue, createIfNotExist);
-		return doGetSettingByName(settingsReplica, orderedGridUniqueSettingsValues); 
+	
+	private void reloadSnapshots(){
+		
+		long request = 0;
+		
+		try{
+			do{
+				request = snapshotRequests.get();
+				publishSnapshot(buildSnapshot(request));
+			}while(request != snapshotRequests.get());
+		}catch(Exception e){
+			log.error("error reloading the settings snapshot for setting class "+clazz.getName()+", keeping the current one", e);
+		}finally{
+			snapshotReloading.set(false);
+		}
+		
+//		a request made after the last check may have found the reload still running. After a failed 
+//		build only a later request retries, the failed one is not retried on its own
+		if(request != snapshotRequests.get()){
+			scheduleSnapshotReload();
+		}
 	}
 	
-	private T doGetSettingByName(SettingsReplica settingsReplica, Object... orderedGridUniqueSettingsValues) {
-		return getSettingByName(settingsReplica.name, settingsReplica.value, settingsReplica.description, settingsReplica.createIfNotExist, orderedGridUniqueSettingsValues);
+	private SettingsSnapshot<T> buildSnapshot(long version){
+		
+		long start = System.nanoTime();
+		boolean failed = true;
+		Collection<T> allSettings;
+		
+		try{
+			allSettings = getAllSettings();
+			failed = false;
+		}catch(Exception e){
+			throw new UtilException("error loading all the settings for the snapshot of setting class "+clazz.getName(), e);
+		}finally{
+			metrics.recordLoad(System.nanoTime() - start, failed);
+		}
+		
+		if(allSettings == null){
+			throw new IllegalStateException("the snapshot mode needs getAllSettings() to be overridden");
+		}
+		
+		Map<Object, SettingsSnapshot.Entry<T>> entries = new HashMap<Object, SettingsSnapshot.Entry<T>>(allSettings.size() * 4 / 3 + 1);
+		
+		for(T setting : allSettings){
+			if(setting != null){
+				internValues(setting);
+				Object value = getProperty(setting, VALUE);
+				entries.put(keyOf(setting), SettingsSnapshot.newEntry(setting, value == null ? null : value.toString(), TRUE, FALSE));
+			}
+		}
+		
+		if(!showOnlyErrorLogs){
+			log.debug("built settings snapshot version "+version+" with "+entries.size()+" settings for setting class "+clazz.getName());
+		}
+		
+		return new SettingsSnapshot<T>(entries, version);
 	}
-
-	protected String getSettingValue(Enum<?> enumObject, Object... orderedGridUniqueSettingsValues) {
-		validateEnumObject(enumObject); 
-		SettingsReplica settingsReplica = getSettingsReplica(enumObject, null, null);
-		return doGetSettingValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	
+//	never replaces a snapshot built for a later request, e.g. when the first build and a reload race
+	private SettingsSnapshot<T> publishSnapshot(SettingsSnapshot<T> next){
+		for(;;){
+			SettingsSnapshot<T> current = snapshot.get();
+			if(current != null && current.getVersion() > next.getVersion()){
+				return current;
+			}
+			if(snapshot.compareAndSet(current, next)){
+				return next;
+			}
+		}
 	}
-
-	protected String getSettingValue(Enum<?> enumObject, String defaultValue, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
-		validateEnumObject(enumObject); 
-		SettingsReplica settingsReplica = getSettingsReplica(enumObject, defaultValue, createIfNotExist);
-		return doGetSettingValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	
+	private void publishInvalidation(T setting){
+		
+		if(invalidationBus == null || setting == null){
+			return;
+		}
+		
+		Object key = keyOf(setting);
+		
+		invalidationBus.publish(new InvalidationMessage(invalidationChannel, invalidationSourceId, 
+				SettingKey.nameOf(key), SettingKey.gridValuesOf(key)));
 	}
 	
-	private String doGetSettingValue(SettingsReplica settingsReplica, Object... orderedGridUniqueSettingsValues) {
-		return getSettingValue(settingsReplica.name, settingsReplica.value, settingsReplica.description, settingsReplica.createIfNotExist, orderedGridUniqueSettingsValues);
+	/**
+	 * @return the number of settings evicted from a bounded cache since the util was created
+	 */
+	public long getEvictionCount(){
+		return settingsCache.getEvictionCount();
 	}
-
-	protected Integer getSettingIntValue(Enum<?> enumObject, Object... orderedGridUniqueSettingsValues) {
-		validateEnumObject(enumObject); 
-		SettingsReplica settingsReplica = getSettingsReplica(enumObject, null, null);
-		return doGetSettingIntValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	
+	public int getCacheSize(){
+		return settingsCache.size();
 	}
-
-	protected Integer getSettingIntValue(Enum<?> enumObject, Integer defaultValue, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
-		validateEnumObject(enumObject); 
-		SettingsReplica settingsReplica = getSettingsReplica(enumObject, defaultValue, createIfNotExist);
-		return doGetSettingIntValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	
+	/**
+	 * @return the number of settings in the off heap store, see {@link #offHeapCapacityBytes()}
+	 */
+	public int getOffHeapSize(){
+		return offHeapStore == null ? 0 : offHeapStore.size();
 	}
 	
-	private Integer doGetSettingIntValue(SettingsReplica settingsReplica, Object... orderedGridUniqueSettingsValues) {
-		Integer defaultValue = null;
-		try {
-			if(settingsReplica.value != null){
-				defaultValue = Integer.valueOf(settingsReplica.value);
-			}
-		} catch (Exception e) {
-			throw new IllegalArgumentException("Invalid enum Integer default value : "+settingsReplica.value, e);
-		}
-		return getSettingIntValue(settingsReplica.name, defaultValue, settingsReplica.description, settingsReplica.createIfNotExist, orderedGridUniqueSettingsValues);
+	/**
+	 * @return the bytes taken in the off heap store, including the space of replaced settings not yet reclaimed
+	 */
+	public long getOffHeapUsedBytes(){
+		return offHeapStore == null ? 0 : offHeapStore.getUsedBytes();
 	}
-
-	protected Long getSettingLongValue(Enum<?> enumObject, Object... orderedGridUniqueSettingsValues) {
-		validateEnumObject(enumObject); 
-		SettingsReplica settingsReplica = getSettingsReplica(enumObject, null, null);
-		return doGetSettingLongValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	
+	/**
+	 * @return the hit, miss, load and write counters and latencies of this util
+	 */
+	public SettingsMetrics getMetrics(){
+		return metrics;
 	}
-
-	protected Long getSettingLongValue(Enum<?> enumObject, Long defaultValue, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
-		validateEnumObject(enumObject); 
-		SettingsReplica settingsReplica = getSettingsReplica(enumObject, defaultValue, createIfNotExist);
-		return doGetSettingLongValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	
+	/**
+	 * @return the number of settings remembered as missing
+	 */
+	public int getNegativeCacheSize(){
+		return absentSettings == null ? 0 : absentSettings.size();
 	}
 	
-	private Long doGetSettingLongValue(SettingsReplica settingsReplica, Object... orderedGridUniqueSettingsValues) {
-		Long defaultValue = null;
-		try {
-			if(settingsReplica.value != null){
-				defaultValue = Long.valueOf(settingsReplica.value);
-			}
-		} catch (Exception e) {
-			throw new IllegalArgumentException("Invalid enum Long default value : "+settingsReplica.value, e);
+	/**
+	 * Writes the settings waiting in the write behind queue now, on the calling thread
+	 */
+	public void flush(){
+		if(writeBehindQueue != null){
+			writeBehindQueue.flush();
 		}
-		return getSettingLongValue(settingsReplica.name, defaultValue, settingsReplica.description, settingsReplica.createIfNotExist, orderedGridUniqueSettingsValues);
-	}
-
-	protected Float getSettingFloatValue(Enum<?> enumObject, Object... orderedGridUniqueSettingsValues) {
-		validateEnumObject(enumObject); 
-		SettingsReplica settingsReplica = getSettingsReplica(enumObject, null, null);
-		return dogetSettingFloatValue(settingsReplica, orderedGridUniqueSettingsValues); 
-	}
-
-	protected Float getSettingFloatValue(Enum<?> enumObject, Float defaultValue, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
-		validateEnumObject(enumObject); 
-		SettingsReplica settingsReplica = getSettingsReplica(enumObject, defaultValue, createIfNotExist);
-		return dogetSettingFloatValue(settingsReplica, orderedGridUniqueSettingsValues); 
 	}
 	
-	private Float dogetSettingFloatValue(SettingsReplica settingsReplica, Object... orderedGridUniqueSettingsValues) {
-		Float defaultValue = null;
-		try {
-			if(settingsReplica.value != null){
-				defaultValue = Float.valueOf(settingsReplica.value);
+	/**
+	 * Flushes the write behind queue and stops writing behind, later repair and create writes are dropped. 
+	 * Saves the persistent cache file, unsubscribes from the invalidation bus and unregisters the metrics MBean
+	 */
+	public void shutdown(){
+		metrics.unregister();
+		if(writeBehindQueue != null){
+			writeBehindQueue.shutdown();
+		}
+		if(persistentCacheFile != null){
+			if(persistentCacheWrite != null){
+				persistentCacheWrite.cancel(false);
+			}
+			try{
+				writePersistentCache();
+			}catch(UtilException e){
+				log.error("error saving the settings cache of setting class "+clazz.getName(), e);
 			}
-		} catch (Exception e) {
-			throw new IllegalArgumentException("Invalid enum Float default value : "+settingsReplica.value, e);
 		}
-		return getSettingFloatValue(settingsReplica.name, defaultValue, settingsReplica.description, settingsReplica.createIfNotExist, orderedGridUniqueSettingsValues);
+		if(invalidationBus != null){
+			invalidationBus.unsubscribe(invalidationChannel, invalidationListener);
+		}
 	}
-
-	protected Boolean getSettingBooleanValue(Enum<?> enumObject, Object... orderedGridUniqueSettingsValues) {
-		validateEnumObject(enumObject); 
-		SettingsReplica settingsReplica = getSettingsReplica(enumObject, null, null);
-		return dogetSettingBooleanValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	
+	/**
+	 * @return the number of settings waiting to be written behind
+	 */
+	public int getWriteBehindQueueDepth(){
+		return writeBehindQueue == null ? 0 : writeBehindQueue.getQueueDepth();
 	}
-
-	protected Boolean getSettingBooleanValue(Enum<?> enumObject, Boolean defaultValue, boolean createIfNotExist, Object... orderedGridUniqueSettingsValues) {
-		validateEnumObject(enumObject); 
-		SettingsReplica settingsReplica = getSettingsReplica(enumObject, defaultValue, createIfNotExist);
-		return dogetSettingBooleanValue(settingsReplica, orderedGridUniqueSettingsValues); 
+	
+	/**
+	 * @return the number of writes dropped because the write behind queue was full or shut down
+	 */
+	public long getDroppedWriteCount(){
+		return writeBehindQueue == null ? 0 : writeBehindQueue.getDroppedWriteCount();
 	}
 	
-	public void clearCache(){
-		settingsCache.clear();
+	/**
+	 * @return the number of settings written behind that the backend rejected
+	 */
+	public long getFailedWriteCount(){
+		return writeBehindQueue == null ? 0 : writeBehindQueue.getFailedWriteCount();
 	}
 	
 	private Boolean dogetSettingBooleanValue(SettingsReplica settingsReplica, Object... orderedGridUniqueSettingsValues) {
 		Boolean defaultValue = null;
-		try {
-			if(settingsReplica.value != null){
-//				The actual overridden true value in use is better than assuming the extending class used the default
-				if(settingsReplica.value.trim().equalsIgnoreCase(TRUE)){ 
-					defaultValue = Boolean.TRUE;
-				}
-				else{
-					defaultValue = Boolean.FALSE;
-				}
+		if(settingsReplica.value != null){
+//			The actual overridden true value in use is better than assuming the extending class used the default
+			if(settingsReplica.getParsedValue(TRUE, FALSE).getBooleanValue()){ 
+				defaultValue = Boolean.TRUE;
+			}
+			else{
+				defaultValue = Boolean.FALSE;
 			}
-		} catch (Exception e) {
-			log.error(e.getMessage(), e);
 		}
 		return getSettingBooleanValue(settingsReplica.name, defaultValue, settingsReplica.description, settingsReplica.createIfNotExist, orderedGridUniqueSettingsValues);
 	}
 	
+    private static class AsyncExecutorHolder{
+    	
+    	static final ExecutorService EXECUTOR = newExecutor();
+    	
+//    	Executors.newVirtualThreadPerTaskExecutor() is looked up reflectively so the library still runs on Java 8
+    	private static ExecutorService newExecutor(){
+    		try{
+    			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    		}catch(Exception e){
+    			return Executors.newCachedThreadPool(new ThreadFactory() {
+    				
+    				private final AtomicInteger count = new AtomicInteger();
+    				
+    				@Override
+    				public Thread newThread(Runnable runnable) {
+    					Thread thread = new Thread(runnable, "settings-async-"+count.incrementAndGet());
+    					thread.setDaemon(true);
+    					return thread;
+    				}
+    			});
+    		}
+    	}
+    }
+    
+    private static class RefreshExecutorHolder{
+    	
+    	static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+    		
+    		private final AtomicInteger count = new AtomicInteger();
+    		
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "settings-refresh-"+count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+    }
+    
+//    the writer thread is shared by all the utils, the task holds its util weakly so a util dropped 
+//    without a shutdown() is still collected, and cancels itself once it is
+    private static class ScheduledPersistentCacheWrite implements Runnable{
+    	
+    	private final WeakReference<SettingsUtilBase<?>> settingsUtil;
+    	private volatile ScheduledFuture<?> scheduledWrite;
+    	
+    	ScheduledPersistentCacheWrite(SettingsUtilBase<?> settingsUtil) {
+			this.settingsUtil = new WeakReference<SettingsUtilBase<?>>(settingsUtil);
+		}
+    	
+		@Override
+		public void run() {
+			SettingsUtilBase<?> liveUtil = settingsUtil.get();
+			if(liveUtil == null){
+				if(scheduledWrite != null){
+					scheduledWrite.cancel(false);
+				}
+				return;
+			}
+			try{
+				liveUtil.writePersistentCache();
+			}catch(Exception e){
+				liveUtil.log.error("error saving the settings cache of setting class "+liveUtil.clazz.getName(), e);
+			}
+		}
+    }
+    
     private static class SettingsReplica{
-    	private String name;
-    	private String value;
-    	private String description;
-    	private boolean createIfNotExist;
+    	private final String name;
+    	private final String value;
+    	private final String description;
+    	private final boolean createIfNotExist;
+//    	the typed default value, decoded on first use. A racing decode produces an equal value
+    	private ParsedValue parsedValue;
     	
 		public SettingsReplica(String name, String value, String description,boolean createIfNotExist) {
 			this.name = name;
@@ -979,6 +3678,15 @@ public abstract class SettingsUtilBase<T> {
 			this.description = description;
 			this.createIfNotExist = createIfNotExist;
 		}
+		
+		ParsedValue getParsedValue(String trueValue, String falseValue){
+			ParsedValue parsed = parsedValue;
+			if(parsed == null){
+				parsed = ParsedValue.parse(value, trueValue, falseValue);
+				parsedValue = parsed;
+			}
+			return parsed;
+		}
     }
     
 }
@@ -1,5 +1,12 @@
 package bgn.settings;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,6 +26,9 @@ public abstract class SimpleSettingsUtilBase<T> extends SettingsUtilBase<T> {
 
     @SuppressWarnings("unused")
 	private final Logger log = LoggerFactory.getLogger(SimpleSettingsUtilBase.class);
+
+//	passed explicitly where the varargs overloads of SettingsUtilBase would otherwise be ambiguous
+	private static final Object[] NO_GRID_VALUES = new Object[0];
 	
 	public SimpleSettingsUtilBase(Class<T> clazz) {
 		super(false, clazz);
@@ -27,6 +37,10 @@ public abstract class SimpleSettingsUtilBase<T> extends SettingsUtilBase<T> {
 	public SimpleSettingsUtilBase(boolean cacheSetting, Class<T> clazz) {
 		super(cacheSetting, clazz);
 	}
+	
+	public SimpleSettingsUtilBase(boolean cacheSetting, long maximumCacheSize, Class<T> clazz) {
+		super(cacheSetting, maximumCacheSize, clazz);
+	}
 
     protected abstract T getSettingByName(String settingName) throws Exception;
 	
@@ -35,12 +49,64 @@ public abstract class SimpleSettingsUtilBase<T> extends SettingsUtilBase<T> {
 		return getSettingByName(settingName);
 	}
 
+    /**
+     * Override this method to load several settings in one backend call. 
+     * Calls {@link #getSettingByName(String)} for each name by default
+     */
+    protected Map<String, T> getSettingsByName(Collection<String> settingNames) throws Exception {
+    	return super.getSettingsByName(settingNames);
+    }
+    
+	@Override
+	protected Map<String, T> getSettingsByName(Collection<String> settingNames, 
+			Object... orderedGridUniqueSettingsValues) throws Exception {
+		return getSettingsByName(settingNames);
+	}
+
+    /**
+     * Override this method to load all the settings whose name starts with a prefix in one backend call. 
+     * Returns null by default, meaning it is not supported
+     */
+    protected Collection<T> loadSettingsByPrefix(String prefix) throws Exception {
+    	return null;
+    }
+    
+	@Override
+	protected Collection<T> loadSettingsByPrefix(String prefix, 
+			Object... orderedGridUniqueSettingsValues) throws Exception {
+		return loadSettingsByPrefix(prefix);
+	}
+
+    /**
+     * Fills the settings cache with {@link #getAllSettings()} and the constants of the allowed settings enums, 
+     * creating the missing enum settings in one batch
+     */
+    public WarmUpReport warmUp(){
+    	return super.warmUp(Collections.singletonList(new Object[0]));
+    }
+
     public T getByName(String settingName){
     	return super.getByName(settingName); 
     }
+
+    public void invalidate(String settingName){
+    	super.invalidate(settingName);
+    }
 	
 	public T getSettingByName(String settingName, String defaultValue, String defaultDescription, boolean createIfNotExist) {
-		return super.getSettingByName(settingName, defaultValue, defaultDescription, createIfNotExist);
+		return super.getSettingByName(settingName, defaultValue, defaultDescription, createIfNotExist, NO_GRID_VALUES);
+	}
+
+	public Map<String, T> getSettingsByNames(Collection<String> settingNames) {
+		return super.getSettingsByNames(settingNames);
+	}
+
+	public <E extends Enum<E>> EnumMap<E, T> getSettingsByNames(Class<E> enumClass) {
+		return super.getSettingsByNames(enumClass);
+	}
+
+	public SortedMap<String, T> getSettingsByPrefix(String prefix) {
+		return super.getSettingsByPrefix(prefix, NO_GRID_VALUES);
 	}
 
 	public String getSettingValue(String settingName, String defaultValue, String defaultDescription, boolean createIfNotExist) {
@@ -63,12 +129,28 @@ public abstract class SimpleSettingsUtilBase<T> extends SettingsUtilBase<T> {
 		return super.getSettingBooleanValue(settingName, defaultValue, defaultDescription, createIfNotExist);
 	}
 
+	public int getInt(String settingName, int defaultValue, String defaultDescription, boolean createIfNotExist) {
+		return super.getInt(settingName, defaultValue, defaultDescription, createIfNotExist);
+	}
+
+	public long getLong(String settingName, long defaultValue, String defaultDescription, boolean createIfNotExist) {
+		return super.getLong(settingName, defaultValue, defaultDescription, createIfNotExist);
+	}
+
+	public float getFloat(String settingName, float defaultValue, String defaultDescription, boolean createIfNotExist) {
+		return super.getFloat(settingName, defaultValue, defaultDescription, createIfNotExist);
+	}
+
+	public boolean getBoolean(String settingName, boolean defaultValue, String defaultDescription, boolean createIfNotExist) {
+		return super.getBoolean(settingName, defaultValue, defaultDescription, createIfNotExist);
+	}
+
 	public T getSettingByName(Enum<?> enumObject) {
 		return super.getSettingByName(enumObject);
 	}
 
 	public T getSettingByName(Enum<?> enumObject, String defaultValue, boolean createIfNotExist) {
-		return super.getSettingByName(enumObject, defaultValue,createIfNotExist);
+		return super.getSettingByName(enumObject, defaultValue,createIfNotExist, NO_GRID_VALUES);
 	}
 
 	public String getSettingValue(Enum<?> enumObject) {
@@ -76,7 +158,7 @@ public abstract class SimpleSettingsUtilBase<T> extends SettingsUtilBase<T> {
 	}
 
 	public String getSettingValue(Enum<?> enumObject, String defaultValue, boolean createIfNotExist) {
-		return super.getSettingValue(enumObject, defaultValue,createIfNotExist);
+		return super.getSettingValue(enumObject, defaultValue,createIfNotExist, NO_GRID_VALUES);
 	}
 	
 	public Integer getSettingIntValue(Enum<?> enumObject) {
@@ -84,7 +166,7 @@ public abstract class SimpleSettingsUtilBase<T> extends SettingsUtilBase<T> {
 	}
 
 	public Integer getSettingIntValue(Enum<?> enumObject, Integer defaultValue, boolean createIfNotExist) {
-		return super.getSettingIntValue(enumObject, defaultValue,createIfNotExist);
+		return super.getSettingIntValue(enumObject, defaultValue,createIfNotExist, NO_GRID_VALUES);
 	}
 
 	public Long getSettingLongValue(Enum<?> enumObject) {
@@ -92,7 +174,7 @@ public abstract class SimpleSettingsUtilBase<T> extends SettingsUtilBase<T> {
 	}
 
 	public Long getSettingLongValue(Enum<?> enumObject, Long defaultValue, boolean createIfNotExist) {
-		return super.getSettingLongValue(enumObject, defaultValue,createIfNotExist);
+		return super.getSettingLongValue(enumObject, defaultValue,createIfNotExist, NO_GRID_VALUES);
 	}
 
 	public Float getSettingFloatValue(Enum<?> enumObject) {
@@ -100,7 +182,7 @@ public abstract class SimpleSettingsUtilBase<T> extends SettingsUtilBase<T> {
 	}
 
 	public Float getSettingFloatValue(Enum<?> enumObject, Float defaultValue, boolean createIfNotExist) {
-		return super.getSettingFloatValue(enumObject, defaultValue,createIfNotExist);
+		return super.getSettingFloatValue(enumObject, defaultValue,createIfNotExist, NO_GRID_VALUES);
 	}
 	
 	public Boolean getSettingBooleanValue(Enum<?> enumObject) {
@@ -108,7 +190,63 @@ public abstract class SimpleSettingsUtilBase<T> extends SettingsUtilBase<T> {
 	}
 
 	public Boolean getSettingBooleanValue(Enum<?> enumObject, Boolean defaultValue, boolean createIfNotExist) {
-		return super.getSettingBooleanValue(enumObject, defaultValue,createIfNotExist);
+		return super.getSettingBooleanValue(enumObject, defaultValue,createIfNotExist, NO_GRID_VALUES);
+	}
+
+	public CompletableFuture<T> getByNameAsync(String settingName) {
+		return super.getByNameAsync(settingName, NO_GRID_VALUES);
+	}
+
+	public CompletableFuture<T> getSettingByNameAsync(String settingName, String defaultValue, String defaultDescription, boolean createIfNotExist) {
+		return super.getSettingByNameAsync(settingName, defaultValue, defaultDescription, createIfNotExist, NO_GRID_VALUES);
+	}
+
+	public CompletableFuture<String> getSettingValueAsync(String settingName, String defaultValue, String defaultDescription, boolean createIfNotExist) {
+		return super.getSettingValueAsync(settingName, defaultValue, defaultDescription, createIfNotExist, NO_GRID_VALUES);
+	}
+
+	public CompletableFuture<Integer> getSettingIntValueAsync(String settingName, Integer defaultValue, String defaultDescription, boolean createIfNotExist) {
+		return super.getSettingIntValueAsync(settingName, defaultValue, defaultDescription, createIfNotExist, NO_GRID_VALUES);
+	}
+
+	public CompletableFuture<Long> getSettingLongValueAsync(String settingName, Long defaultValue, String defaultDescription, boolean createIfNotExist) {
+		return super.getSettingLongValueAsync(settingName, defaultValue, defaultDescription, createIfNotExist, NO_GRID_VALUES);
+	}
+
+	public CompletableFuture<Float> getSettingFloatValueAsync(String settingName, Float defaultValue, String defaultDescription, boolean createIfNotExist) {
+		return super.getSettingFloatValueAsync(settingName, defaultValue, defaultDescription, createIfNotExist, NO_GRID_VALUES);
+	}
+
+	public CompletableFuture<Boolean> getSettingBooleanValueAsync(String settingName, Boolean defaultValue, String defaultDescription, boolean createIfNotExist) {
+		return super.getSettingBooleanValueAsync(settingName, defaultValue, defaultDescription, createIfNotExist, NO_GRID_VALUES);
+	}
+
+	public CompletableFuture<String> getSettingValueAsync(Enum<?> enumObject) {
+		return super.getSettingValueAsync(enumObject, NO_GRID_VALUES);
+	}
+
+	public CompletableFuture<Integer> getSettingIntValueAsync(Enum<?> enumObject) {
+		return super.getSettingIntValueAsync(enumObject, NO_GRID_VALUES);
+	}
+
+	public CompletableFuture<Long> getSettingLongValueAsync(Enum<?> enumObject) {
+		return super.getSettingLongValueAsync(enumObject, NO_GRID_VALUES);
+	}
+
+	public CompletableFuture<Float> getSettingFloatValueAsync(Enum<?> enumObject) {
+		return super.getSettingFloatValueAsync(enumObject, NO_GRID_VALUES);
+	}
+
+	public CompletableFuture<Boolean> getSettingBooleanValueAsync(Enum<?> enumObject) {
+		return super.getSettingBooleanValueAsync(enumObject, NO_GRID_VALUES);
+	}
+
+	public <V> SettingHandle<V> getHandle(String settingName, Class<V> type, V defaultValue) {
+		return super.getHandle(settingName, type, defaultValue, NO_GRID_VALUES);
+	}
+
+	public <V> SettingHandle<V> getHandle(Enum<?> enumObject, Class<V> type) {
+		return super.getHandle(enumObject, type, NO_GRID_VALUES);
 	}
 	
     
@@ -0,0 +1,58 @@
+package bgn.settings;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+* The outcome of a {@link SettingsUtilBase} cache warm up
+*
+*/
+
+public class WarmUpReport {
+
+	private final int loadedCount;
+	private final int createdCount;
+	private final int failedCount;
+	private final long durationNanos;
+
+	WarmUpReport(int loadedCount, int createdCount, int failedCount, long durationNanos) {
+		this.loadedCount = loadedCount;
+		this.createdCount = createdCount;
+		this.failedCount = failedCount;
+		this.durationNanos = durationNanos;
+	}
+
+	/**
+	 * @return the number of existing settings put into the cache
+	 */
+	public int getLoadedCount() {
+		return loadedCount;
+	}
+
+	/**
+	 * @return the number of missing enum settings created with their defaults
+	 */
+	public int getCreatedCount() {
+		return createdCount;
+	}
+
+	/**
+	 * @return the number of missing enum settings not cached because the backend did not create them all
+	 */
+	public int getFailedCount() {
+		return failedCount;
+	}
+
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	public long getDurationMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+	}
+
+	@Override
+	public String toString() {
+		return "WarmUpReport [loadedCount = "+loadedCount+", createdCount = "+createdCount
+				+", failedCount = "+failedCount+", durationMillis = "+getDurationMillis()+"]";
+	}
+}
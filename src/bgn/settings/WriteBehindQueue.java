@@ -0,0 +1,332 @@
+package bgn.settings;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+* The bounded queue of the create and repair writes of a {@link SettingsUtilBase}
+* in write behind mode. Writes to the same setting are coalesced into one, which
+* stays a create if any of them was a create, and are flushed in batches through
+* {@link SettingsUtilBase#createSettings(java.util.Collection)} and
+* {@link SettingsUtilBase#updateSettings(java.util.Collection)}. The settings of a batch the backend
+* fails or rejects are evicted from the cache, so their next read writes them again
+* <br>
+* The scheduled flush and the shutdown hook shared by all the queues hold a queue weakly, so a
+* util dropped without {@link SettingsUtilBase#shutdown()} is still collected, along with the
+* writes it had not flushed yet.
+*
+*/
+
+class WriteBehindQueue<T> {
+
+	private final Logger log = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+	private final SettingsUtilBase<T> settingsUtil;
+	private final int capacity;
+	private final int batchSize;
+	private final ScheduledFuture<?> scheduledFlush;
+
+//	guarded by this, keyed like the settings cache
+	private Map<Object, PendingWrite<T>> pending = new LinkedHashMap<Object, PendingWrite<T>>();
+//	the batch being written, still visible to reads until the flush is done. Guarded by this
+	private Map<Object, PendingWrite<T>> flushing = new LinkedHashMap<Object, PendingWrite<T>>();
+	private boolean shutdown;
+
+//	serializes the flushes so batches reach the backend in order
+	private final Object flushLock = new Object();
+
+	private final AtomicLong droppedWriteCount = new AtomicLong();
+	private final AtomicLong flushedWriteCount = new AtomicLong();
+	private final AtomicLong failedWriteCount = new AtomicLong();
+
+	WriteBehindQueue(SettingsUtilBase<T> settingsUtil, int capacity, int batchSize, long flushIntervalMillis) {
+
+		if(capacity <= 0){
+			throw new IllegalArgumentException("the write behind queue capacity must be greater than zero. Value found : "+capacity);
+		}
+
+		this.settingsUtil = settingsUtil;
+		this.capacity = capacity;
+		this.batchSize = batchSize > 0 ? Math.min(batchSize, capacity) : capacity;
+
+		if(flushIntervalMillis > 0){
+			ScheduledFlush flush = new ScheduledFlush(this);
+			scheduledFlush = FlusherHolder.FLUSHER.scheduleWithFixedDelay(flush, flushIntervalMillis,
+					flushIntervalMillis, TimeUnit.MILLISECONDS);
+			flush.scheduledFlush = scheduledFlush;
+		}else{
+			scheduledFlush = null;
+		}
+
+		ShutdownHolder.LIVE_QUEUES.add(this);
+	}
+
+	/**
+	 * @return false if the queue is full or shut down and the write was dropped
+	 */
+	boolean offer(Object key, T setting, boolean create){
+
+		boolean flushNow;
+
+		synchronized (this) {
+
+			PendingWrite<T> write = pending.get(key);
+
+			if(write != null){
+				write.setting = setting;
+				write.create |= create;
+			}
+			else if(shutdown || pending.size() >= capacity){
+				droppedWriteCount.incrementAndGet();
+				log.warn("write behind queue is "+(shutdown ? "shut down" : "full")+", dropped a write for setting key "+key);
+				return false;
+			}
+			else{
+				pending.put(key, new PendingWrite<T>(setting, create));
+			}
+
+			flushNow = pending.size() == batchSize;
+		}
+
+		if(flushNow){
+			FlusherHolder.FLUSHER.execute(new Runnable() {
+				@Override
+				public void run() {
+					flush();
+				}
+			});
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return the setting waiting to be written for the key, so a read does not go
+	 * to the backend for a setting it has not been created in yet
+	 */
+	synchronized T getPending(Object key){
+		PendingWrite<T> write = pending.get(key);
+		if(write == null){
+			write = flushing.get(key);
+		}
+		return write == null ? null : write.setting;
+	}
+
+	/**
+	 * Drops the pending write of a setting that is about to be written directly. If an older write of the
+	 * setting is being flushed, waits for the flush so the direct write reaches the backend after it
+	 */
+	void remove(Object key){
+
+		boolean flushingKey;
+
+		synchronized (this) {
+			pending.remove(key);
+			flushingKey = flushing.remove(key) != null;
+		}
+
+		if(flushingKey){
+//			held by the flush for as long as the key was in its batch
+			synchronized (flushLock) {
+			}
+		}
+	}
+
+	/**
+	 * Writes all the pending writes to the backend, on the calling thread
+	 */
+	void flush(){
+
+		synchronized (flushLock) {
+
+			Map<Object, T> creates = new LinkedHashMap<Object, T>();
+			Map<Object, T> updates = new LinkedHashMap<Object, T>();
+
+			synchronized (this) {
+				if(pending.isEmpty()){
+					return;
+				}
+				flushing = pending;
+				pending = new LinkedHashMap<Object, PendingWrite<T>>();
+
+				for(Map.Entry<Object, PendingWrite<T>> write : flushing.entrySet()){
+					if(write.getValue().create){
+						creates.put(write.getKey(), write.getValue().setting);
+					}else{
+						updates.put(write.getKey(), write.getValue().setting);
+					}
+				}
+			}
+
+			List<Object> failedKeys = new ArrayList<Object>();
+
+			if(!write(creates, true)){
+				failedKeys.addAll(creates.keySet());
+			}
+			if(!write(updates, false)){
+				failedKeys.addAll(updates.keySet());
+			}
+
+			synchronized (this) {
+				flushing = new LinkedHashMap<Object, PendingWrite<T>>();
+			}
+
+//			evicted once no longer pending, else a read would cache the unwritten setting again
+			for(Object key : failedKeys){
+				settingsUtil.evictUnwritten(key);
+			}
+		}
+	}
+
+	/**
+	 * @return false if the backend did not write the whole batch, which then counts as failed
+	 */
+	private boolean write(Map<Object, T> settings, boolean create){
+
+		if(settings.isEmpty()){
+			return true;
+		}
+
+		List<T> batch = new ArrayList<T>(settings.values());
+		boolean written = false;
+
+		try {
+			if(create){
+				written = settingsUtil.doCreateSettings(batch);
+			}else{
+				written = settingsUtil.doUpdateSettings(batch);
+			}
+			if(!written){
+				log.warn("the backend did not write all the "+batch.size()+" settings "+(create ? "created" : "updated")
+						+" behind, they are evicted to be written again on their next read");
+			}
+		} catch (Exception e) {
+			log.error("error writing "+batch.size()+" settings "+(create ? "created" : "updated")+" behind", e);
+		}
+
+		if(written){
+			flushedWriteCount.addAndGet(batch.size());
+		}else{
+			failedWriteCount.addAndGet(batch.size());
+		}
+		return written;
+	}
+
+	/**
+	 * Flushes the pending writes and stops accepting new ones
+	 */
+	void shutdown(){
+
+		synchronized (this) {
+			shutdown = true;
+		}
+
+		if(scheduledFlush != null){
+			scheduledFlush.cancel(false);
+		}
+
+		ShutdownHolder.LIVE_QUEUES.remove(this);
+
+		flush();
+	}
+
+	synchronized int getQueueDepth(){
+		return pending.size();
+	}
+
+	long getDroppedWriteCount(){
+		return droppedWriteCount.get();
+	}
+
+	long getFlushedWriteCount(){
+		return flushedWriteCount.get();
+	}
+
+	long getFailedWriteCount(){
+		return failedWriteCount.get();
+	}
+
+	private static class PendingWrite<T>{
+		private T setting;
+		private boolean create;
+
+		PendingWrite(T setting, boolean create) {
+			this.setting = setting;
+			this.create = create;
+		}
+	}
+
+//	holds the queue weakly and cancels itself once the queue is collected
+	private static class ScheduledFlush implements Runnable{
+
+		private final WeakReference<WriteBehindQueue<?>> queue;
+		private volatile ScheduledFuture<?> scheduledFlush;
+
+		ScheduledFlush(WriteBehindQueue<?> queue) {
+			this.queue = new WeakReference<WriteBehindQueue<?>>(queue);
+		}
+
+		@Override
+		public void run() {
+			WriteBehindQueue<?> liveQueue = queue.get();
+			if(liveQueue != null){
+				liveQueue.flush();
+			}else if(scheduledFlush != null){
+				scheduledFlush.cancel(false);
+			}
+		}
+	}
+
+//	one hook for all the queues, flushing the ones not shut down or collected when the JVM exits
+	private static class ShutdownHolder{
+
+		static final Set<WriteBehindQueue<?>> LIVE_QUEUES = Collections.synchronizedSet(
+				Collections.newSetFromMap(new WeakHashMap<WriteBehindQueue<?>, Boolean>()));
+
+		static {
+			Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+				@Override
+				public void run() {
+					List<WriteBehindQueue<?>> queues;
+					synchronized (LIVE_QUEUES) {
+						queues = new ArrayList<WriteBehindQueue<?>>(LIVE_QUEUES);
+					}
+					for(WriteBehindQueue<?> queue : queues){
+						queue.flush();
+					}
+				}
+			}, "settings-write-behind-shutdown"));
+		}
+	}
+
+	private static class FlusherHolder{
+
+		static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "settings-write-behind-"+count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+}
@@ -0,0 +1,74 @@
+package bgn.settings.cache;
+
+/**
+* Intrusive doubly linked LRU queue of cache entries. The head is the least recently used. 
+* Not thread safe; only touched while holding the eviction lock of {@link SettingsCache}
+*
+*/
+
+final class AccessOrderQueue<T> {
+
+	private final byte type;
+	private CacheEntry<T> head;
+	private CacheEntry<T> tail;
+	long weight;
+
+	AccessOrderQueue(byte type) {
+		this.type = type;
+	}
+
+	CacheEntry<T> peekFirst(){
+		return head;
+	}
+
+	void addLast(CacheEntry<T> entry){
+		entry.queue = type;
+		entry.prev = tail;
+		entry.next = null;
+		if(tail == null){
+			head = entry;
+		}else{
+			tail.next = entry;
+		}
+		tail = entry;
+		weight += entry.weight;
+	}
+
+	void remove(CacheEntry<T> entry){
+		if(entry.prev == null){
+			head = entry.next;
+		}else{
+			entry.prev.next = entry.next;
+		}
+		if(entry.next == null){
+			tail = entry.prev;
+		}else{
+			entry.next.prev = entry.prev;
+		}
+		entry.prev = null;
+		entry.next = null;
+		entry.queue = CacheEntry.UNLINKED;
+		weight -= entry.weight;
+	}
+
+	void moveToLast(CacheEntry<T> entry){
+		if(entry != tail){
+			remove(entry);
+			addLast(entry);
+		}
+	}
+
+	void clear(){
+		CacheEntry<T> entry = head;
+		while(entry != null){
+			CacheEntry<T> next = entry.next;
+			entry.prev = null;
+			entry.next = null;
+			entry.queue = CacheEntry.UNLINKED;
+			entry = next;
+		}
+		head = null;
+		tail = null;
+		weight = 0;
+	}
+}
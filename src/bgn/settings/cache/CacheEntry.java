@@ -0,0 +1,111 @@
+package bgn.settings.cache;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+* A cached setting together with its key, weight, write time and decoded value
+*
+*/
+
+public final class CacheEntry<T> {
+
+	static final byte UNLINKED = 0;
+	static final byte WINDOW = 1;
+	static final byte PROBATION = 2;
+	static final byte PROTECTED = 3;
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicIntegerFieldUpdater<CacheEntry> REFRESHING = 
+			AtomicIntegerFieldUpdater.newUpdater(CacheEntry.class, "refreshing");
+
+	private final Object key;
+	private final T setting;
+	final int weight;
+	private final long writeTime;
+	private final long expireAfterWriteNanos;
+	private final long refreshAfterWriteNanos;
+	private volatile int refreshing;
+//	pushes the next refresh back after a failed one
+	private volatile long refreshBackoffNanos;
+	private volatile ParsedValue parsedValue;
+
+//	guarded by the eviction lock of the owning SettingsCache
+	CacheEntry<T> prev;
+	CacheEntry<T> next;
+	byte queue = UNLINKED;
+
+	CacheEntry(Object key, T setting, int weight, long writeTime, 
+			long expireAfterWriteNanos, long refreshAfterWriteNanos) {
+		this.key = key;
+		this.setting = setting;
+		this.weight = weight;
+		this.writeTime = writeTime;
+		this.expireAfterWriteNanos = expireAfterWriteNanos;
+		this.refreshAfterWriteNanos = refreshAfterWriteNanos;
+	}
+
+	public Object getKey() {
+		return key;
+	}
+
+	public T getSetting() {
+		return setting;
+	}
+
+	public int getWeight() {
+		return weight;
+	}
+
+	public long getWriteTime() {
+		return writeTime;
+	}
+
+	/**
+	 * @return true if the entry expires or is to be refreshed at some point, 
+	 * i.e. if the current time is needed to check it
+	 */
+	public boolean isTimed(){
+		return expireAfterWriteNanos > 0 || refreshAfterWriteNanos > 0;
+	}
+
+	public boolean isExpired(long now){
+		return expireAfterWriteNanos > 0 && now - writeTime >= expireAfterWriteNanos;
+	}
+
+	public boolean isRefreshDue(long now){
+		return refreshAfterWriteNanos > 0 && now - writeTime >= refreshAfterWriteNanos + refreshBackoffNanos;
+	}
+
+	/**
+	 * @return true if the caller won the right to refresh this entry and must call 
+	 * {@link #endRefresh()} if the refresh does not replace the entry
+	 */
+	public boolean startRefresh(){
+		return REFRESHING.compareAndSet(this, 0, 1);
+	}
+
+	public void endRefresh(){
+		refreshing = 0;
+	}
+
+	/**
+	 * Ends a refresh that failed, the entry is due for a refresh again once the 
+	 * delay has passed rather than on the next read
+	 */
+	public void endRefresh(long now, long retryDelayNanos){
+		refreshBackoffNanos = now + retryDelayNanos - writeTime - refreshAfterWriteNanos;
+		refreshing = 0;
+	}
+
+	/**
+	 * @return the memoized typed value, which may be stale if the setting value was changed in place. 
+	 * Check it with {@link ParsedValue#isParsedFrom(String)}
+	 */
+	public ParsedValue getParsedValue() {
+		return parsedValue;
+	}
+
+	public void setParsedValue(ParsedValue parsedValue) {
+		this.parsedValue = parsedValue;
+	}
+}
@@ -0,0 +1,82 @@
+package bgn.settings.cache;
+
+/**
+* Count-min sketch with 4 bit counters used to estimate how often a cache key 
+* has been accessed. Counters are halved once the number of increments reaches 
+* ten times the table size so that old popularity fades out (TinyLFU aging).
+*
+*/
+
+final class FrequencySketch {
+
+	private static final long[] SEEDS = {
+		0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+	private static final long RESET_MASK = 0x7777777777777777L;
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	private final long[] table;
+	private final int tableMask;
+	private final int sampleSize;
+	private int size;
+
+	FrequencySketch(long maximumSize) {
+		int capacity = (int) Math.min(Math.max(maximumSize, 8), MAXIMUM_CAPACITY);
+		capacity = Integer.highestOneBit(capacity - 1) << 1;
+		table = new long[capacity];
+		tableMask = capacity - 1;
+		sampleSize = 10 * capacity;
+	}
+
+	int frequency(Object key){
+		int hash = spread(key.hashCode());
+		int start = (hash & 3) << 2;
+		int frequency = Integer.MAX_VALUE;
+		for(int i = 0; i < 4; i++){
+			int index = indexOf(hash, i);
+			int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+			frequency = Math.min(frequency, count);
+		}
+		return frequency;
+	}
+
+	void increment(Object key){
+		int hash = spread(key.hashCode());
+		int start = (hash & 3) << 2;
+		boolean added = false;
+		for(int i = 0; i < 4; i++){
+			added |= incrementAt(indexOf(hash, i), start + i);
+		}
+		if(added && (++size == sampleSize)){
+			reset();
+		}
+	}
+
+	private boolean incrementAt(int index, int counter){
+		int offset = counter << 2;
+		long mask = 0xfL << offset;
+		if((table[index] & mask) != mask){
+			table[index] += 1L << offset;
+			return true;
+		}
+		return false;
+	}
+
+	private void reset(){
+		for(int i = 0; i < table.length; i++){
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		size = size >>> 1;
+	}
+
+	private int indexOf(int hash, int i){
+		long value = (hash + SEEDS[i]) * SEEDS[i];
+		value += value >>> 32;
+		return ((int) value) & tableMask;
+	}
+
+	private static int spread(int hash){
+		hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+		hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+		return (hash >>> 16) ^ hash;
+	}
+}
@@ -0,0 +1,81 @@
+package bgn.settings.cache;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+* Canonicalizes equal objects into one shared instance, e.g. the grid values and the value and
+* description strings of the cached settings, which repeat across thousands of tenants. The
+* pool is weak: an instance no longer referenced outside of it is dropped by the garbage
+* collector, so it holds only the values in use.
+* <br>
+* Objects are matched with equals and hashCode, an object that does not override them is only
+* ever equal to itself and is returned as is. The pool is split into segments by hash, each
+* guarded by its own lock.
+*
+*/
+
+public final class Interner {
+
+	private static final int SEGMENTS = 16;
+
+	private final Segment[] segments = new Segment[SEGMENTS];
+
+	public Interner() {
+		for(int x = 0; x < SEGMENTS; x++){
+			segments[x] = new Segment();
+		}
+	}
+
+	/**
+	 * @return the shared instance equal to the value, the value itself if it is the first one or null
+	 */
+	public <V> V intern(V value){
+
+		if(value == null){
+			return null;
+		}
+
+		int hash = value.hashCode();
+		return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)].intern(value);
+	}
+
+	/**
+	 * @return the number of shared instances, including the ones collected but not yet purged
+	 */
+	public int size(){
+		int size = 0;
+		for(Segment segment : segments){
+			size += segment.size();
+		}
+		return size;
+	}
+
+	private static class Segment{
+
+//		the value refers to its own key weakly, so the entry does not keep the key alive
+		private final Map<Object, WeakReference<Object>> pool = new WeakHashMap<Object, WeakReference<Object>>();
+
+		@SuppressWarnings("unchecked")
+		synchronized <V> V intern(V value){
+
+			WeakReference<Object> reference = pool.get(value);
+
+			if(reference != null){
+				Object shared = reference.get();
+				if(shared != null){
+//					equal instances of another class, e.g. two List implementations, are not shared
+					return shared.getClass() == value.getClass() ? (V) shared : value;
+				}
+			}
+
+			pool.put(value, new WeakReference<Object>(value));
+			return value;
+		}
+
+		synchronized int size(){
+			return pool.size();
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package bgn.settings.cache;
+
+/**
+* Mutable probe that is equal to the {@link SettingKey} with the same name and grid values.
+* It lets a cache lookup for a grid setting be done without creating a key or copying 
+* the grid values, which for one to three grid values need not even be in an array. 
+* One instance is kept per thread and is only to be used for map reads, never as a stored key.
+*
+*/
+
+public final class LookupKey {
+
+	private String name;
+	private Object[] gridValues;
+//	the grid values given without an array, gridLength is 0 when they are in gridValues
+	private int gridLength;
+	private Object gridValue0;
+	private Object gridValue1;
+	private Object gridValue2;
+	private int hash;
+
+	public LookupKey set(String settingName, Object[] gridValues){
+		this.name = settingName;
+		this.gridValues = gridValues;
+		this.gridLength = 0;
+		this.hash = SettingKey.hash(settingName, gridValues);
+		return this;
+	}
+
+	/**
+	 * @param gridLength the number of grid values, 1 to 3. The values past it are ignored
+	 */
+	public LookupKey set(String settingName, int gridLength, Object gridValue0, Object gridValue1, Object gridValue2){
+		this.name = settingName;
+		this.gridValues = null;
+		this.gridLength = gridLength;
+		this.gridValue0 = gridValue0;
+		this.gridValue1 = gridValue1;
+		this.gridValue2 = gridValue2;
+		this.hash = SettingKey.hash(settingName, gridLength, gridValue0, gridValue1, gridValue2);
+		return this;
+	}
+
+	/**
+	 * drops the references held from the last lookup 
+	 */
+	public void clear(){
+		this.name = null;
+		this.gridValues = null;
+		this.gridValue0 = null;
+		this.gridValue1 = null;
+		this.gridValue2 = null;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(obj instanceof SettingKey){
+			SettingKey that = (SettingKey) obj;
+			if(hash != that.hashCode()){
+				return false;
+			}
+			return gridLength == 0 ? that.matches(name, gridValues) 
+					: that.matches(name, gridLength, gridValue0, gridValue1, gridValue2);
+		}
+		return this == obj;
+	}
+}
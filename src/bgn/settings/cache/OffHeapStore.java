@@ -0,0 +1,854 @@
+package bgn.settings.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+import bgn.settings.util.GridValueCodec;
+
+/**
+* The off heap tier of a {@link bgn.settings.SettingsUtilBase} settings cache. Each setting is
+* serialized into a record in direct ByteBuffer chunks: its key (the setting name and the grid
+* values encoded with {@link GridValueCodec}), value, description, expiry time and the value
+* already decoded as an int, long, float and boolean. An open addressing index of primitive
+* arrays maps the key hashes to the record addresses, so the tier adds no objects for the
+* garbage collector to trace however many settings it holds.
+* <br>
+* Replaced and removed records are left in place as garbage. When a put does not fit the
+* capacity and the garbage is at least a quarter of the used space, the live records are
+* moved to the front, one chunk at a time, through a spare chunk: a compaction allocates one
+* chunk over the capacity at most, and the chunks it empties are reused. A put that still
+* does not fit is rejected.
+* <br>
+* Reads share a read lock, writes take the write lock.
+*
+*/
+
+public final class OffHeapStore {
+
+	private static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+	private static final int INITIAL_INDEX_SIZE = 1024;
+
+	private static final long EMPTY = -1;
+	private static final long REMOVED = -2;
+
+	private static final int HAS_VALUE = 1;
+	private static final int INT_VALID = 1 << 1;
+	private static final int LONG_VALID = 1 << 2;
+	private static final int FLOAT_VALID = 1 << 3;
+	private static final int TRUE = 1 << 4;
+	private static final int FALSE = 1 << 5;
+
+//	record layout: record length, key length, key, expiry, flags, int, long and float values, value, description
+	private static final int RECORD_LENGTH_OFFSET = 0;
+	private static final int KEY_LENGTH_OFFSET = 4;
+	private static final int KEY_OFFSET = 8;
+	private static final int FIXED_LENGTH = 4 + 4 + 8 + 1 + 4 + 8 + 4 + 4 + 4;
+
+	private static final ThreadLocal<KeyEncoder> keyEncoders = new ThreadLocal<KeyEncoder>(){
+		@Override
+		protected KeyEncoder initialValue() {
+			return new KeyEncoder();
+		}
+	};
+
+	private static final ThreadLocal<TypedValue> typedValues = new ThreadLocal<TypedValue>(){
+		@Override
+		protected TypedValue initialValue() {
+			return new TypedValue();
+		}
+	};
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final long capacity;
+	private final int chunkSize;
+	private final String trueValue;
+	private final String falseValue;
+
+//	guarded by lock
+	private List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+//	the end of the records of each chunk but the last one, whose end is the write offset
+	private final int[] chunkEnds;
+	private int writeOffset;
+	private int[] hashes;
+	private long[] addresses;
+	private int size;
+	private int removedSlots;
+	private long usedBytes;
+	private long garbageBytes;
+	private long rejectedCount;
+
+	/**
+	 * @param capacity the maximum number of bytes of the record chunks
+	 * @param trueValue the upper case true value of the settings util
+	 * @param falseValue the upper case false value of the settings util
+	 */
+	public OffHeapStore(long capacity, String trueValue, String falseValue) {
+		this(capacity, (int) Math.min(capacity, DEFAULT_CHUNK_SIZE), trueValue, falseValue);
+	}
+
+	/**
+	 * @param capacity the maximum number of bytes of the record chunks
+	 * @param chunkSize the size of the direct buffers the records are written to, the largest record that fits
+	 * @param trueValue the upper case true value of the settings util
+	 * @param falseValue the upper case false value of the settings util
+	 */
+	public OffHeapStore(long capacity, int chunkSize, String trueValue, String falseValue) {
+
+		if(capacity <= 0){
+			throw new IllegalArgumentException("the off heap capacity must be greater than zero. Value found : "+capacity);
+		}
+		if(chunkSize <= 0 || chunkSize > capacity){
+			throw new IllegalArgumentException("the off heap chunk size must be greater than zero and at most the capacity. Value found : "+chunkSize);
+		}
+
+		this.capacity = capacity;
+		this.chunkSize = chunkSize;
+		this.chunkEnds = new int[(int) Math.min(Integer.MAX_VALUE, capacity / chunkSize)];
+		this.trueValue = trueValue;
+		this.falseValue = falseValue;
+		this.hashes = new int[INITIAL_INDEX_SIZE];
+		this.addresses = newAddresses(INITIAL_INDEX_SIZE);
+	}
+
+	/**
+	 * @return true if every grid value can be encoded, i.e. the setting can be stored off heap
+	 */
+	public static boolean isStorable(Object[] gridValues){
+		return gridValues == null || GridValueCodec.isEncodable(gridValues);
+	}
+
+	/**
+	 * Stores or replaces a setting
+	 *
+	 * @param expiresAt the System.nanoTime() after which the record is expired, 0 for never
+	 * @return false if the setting cannot be stored, it is then no longer in the store
+	 */
+	public boolean put(String settingName, Object[] gridValues, String value, String description, long expiresAt){
+
+		KeyEncoder key = keyEncoders.get();
+
+		if(!key.encode(settingName, gridValues)){
+			remove(settingName, gridValues);
+			return false;
+		}
+
+		byte[] valueBytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+		byte[] descriptionBytes = description == null ? null : description.getBytes(StandardCharsets.UTF_8);
+		int recordLength = FIXED_LENGTH + key.length()
+				+ (valueBytes == null ? 0 : valueBytes.length) + (descriptionBytes == null ? 0 : descriptionBytes.length);
+
+		int flags = 0;
+		int intValue = 0;
+		long longValue = 0;
+		float floatValue = 0;
+
+		if(value != null && !value.trim().isEmpty()){
+			ParsedValue parsedValue = ParsedValue.parse(value, trueValue, falseValue);
+			flags |= HAS_VALUE;
+			if(parsedValue.isIntValid()){
+				flags |= INT_VALID;
+				intValue = parsedValue.getIntValue();
+			}
+			if(parsedValue.isLongValid()){
+				flags |= LONG_VALID;
+				longValue = parsedValue.getLongValue();
+			}
+			if(parsedValue.isFloatValid()){
+				flags |= FLOAT_VALID;
+				floatValue = parsedValue.getFloatValue();
+			}
+			if(parsedValue.isBooleanValid()){
+				flags |= parsedValue.getBooleanValue() ? TRUE : FALSE;
+			}
+		}
+
+		lock.writeLock().lock();
+		try{
+
+			int slot = findSlot(key);
+
+			if(recordLength > chunkSize){
+				rejectedCount++;
+				if(slot >= 0){
+					removeSlot(slot);
+				}
+				return false;
+			}
+
+			long address = allocate(recordLength);
+
+			if(address < 0){
+				rejectedCount++;
+				slot = findSlot(key);
+				if(slot >= 0){
+					removeSlot(slot);
+				}
+				return false;
+			}
+
+//			a compaction may have moved the old record
+			slot = findSlot(key);
+
+			ByteBuffer chunk = chunks.get(chunkOf(address));
+			int offset = offsetOf(address);
+
+			chunk.putInt(offset + RECORD_LENGTH_OFFSET, recordLength);
+			chunk.putInt(offset + KEY_LENGTH_OFFSET, key.length());
+			int position = offset + KEY_OFFSET;
+			for(int x = 0; x < key.length(); x++){
+				chunk.put(position++, key.bytes()[x]);
+			}
+			chunk.putLong(position, expiresAt);
+			position += 8;
+			chunk.put(position++, (byte) flags);
+			chunk.putInt(position, intValue);
+			position += 4;
+			chunk.putLong(position, longValue);
+			position += 8;
+			chunk.putFloat(position, floatValue);
+			position += 4;
+			position = putBytes(chunk, position, valueBytes);
+			putBytes(chunk, position, descriptionBytes);
+
+			if(slot >= 0){
+				garbageBytes += recordLength(addresses[slot]);
+				addresses[slot] = address;
+			}else{
+				insert(key.hash(), address);
+			}
+
+			return true;
+
+		}finally{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the decoded value of a setting, or null if it is not stored, expired or has a blank value.
+	 * The returned object is reused by the next call on the same thread
+	 */
+	public TypedValue getTypedValue(String settingName, Object[] gridValues){
+
+		KeyEncoder key = keyEncoders.get();
+
+		if(!key.encode(settingName, gridValues)){
+			return null;
+		}
+
+		lock.readLock().lock();
+		try{
+
+			int slot = findSlot(key);
+
+			if(slot < 0){
+				return null;
+			}
+
+			long address = addresses[slot];
+			ByteBuffer chunk = chunks.get(chunkOf(address));
+			int position = offsetOf(address) + KEY_OFFSET + chunk.getInt(offsetOf(address) + KEY_LENGTH_OFFSET);
+
+			if(isExpired(chunk.getLong(position))){
+				return null;
+			}
+			position += 8;
+
+			int flags = chunk.get(position++);
+
+			if((flags & HAS_VALUE) == 0){
+				return null;
+			}
+
+			TypedValue typedValue = typedValues.get();
+			typedValue.flags = flags;
+			typedValue.intValue = chunk.getInt(position);
+			typedValue.longValue = chunk.getLong(position + 4);
+			typedValue.floatValue = chunk.getFloat(position + 12);
+			return typedValue;
+
+		}finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the stored setting, or null if it is not stored or expired
+	 */
+	public Record get(String settingName, Object[] gridValues){
+
+		KeyEncoder key = keyEncoders.get();
+
+		if(!key.encode(settingName, gridValues)){
+			return null;
+		}
+
+		lock.readLock().lock();
+		try{
+			int slot = findSlot(key);
+			if(slot < 0){
+				return null;
+			}
+			Record record = readRecord(addresses[slot]);
+			return isExpired(record.expiresAt) ? null : record;
+		}catch(IOException e){
+			throw new IllegalStateException("corrupt off heap record", e);
+		}finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	public boolean remove(String settingName, Object[] gridValues){
+
+		KeyEncoder key = keyEncoders.get();
+
+		if(!key.encode(settingName, gridValues)){
+			return false;
+		}
+
+		lock.writeLock().lock();
+		try{
+			int slot = findSlot(key);
+			if(slot < 0){
+				return false;
+			}
+			removeSlot(slot);
+			return true;
+		}finally{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes the records matching the filter, each record is decoded to be tested
+	 *
+	 * @return the number of removed records
+	 */
+	public int removeIf(Predicate<? super Record> filter){
+
+		lock.writeLock().lock();
+		try{
+			int removed = 0;
+			for(int slot = 0; slot < addresses.length; slot++){
+				if(addresses[slot] >= 0 && filter.test(readRecord(addresses[slot]))){
+					removeSlot(slot);
+					removed++;
+				}
+			}
+			return removed;
+		}catch(IOException e){
+			throw new IllegalStateException("corrupt off heap record", e);
+		}finally{
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void clear(){
+		lock.writeLock().lock();
+		try{
+			chunks = new ArrayList<ByteBuffer>();
+			writeOffset = 0;
+			hashes = new int[INITIAL_INDEX_SIZE];
+			addresses = newAddresses(INITIAL_INDEX_SIZE);
+			size = 0;
+			removedSlots = 0;
+			usedBytes = 0;
+			garbageBytes = 0;
+		}finally{
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size(){
+		lock.readLock().lock();
+		try{
+			return size;
+		}finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the bytes taken by the records, including the garbage of replaced and removed ones
+	 */
+	public long getUsedBytes(){
+		lock.readLock().lock();
+		try{
+			return usedBytes;
+		}finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of puts rejected because the capacity was reached
+	 */
+	public long getRejectedCount(){
+		lock.readLock().lock();
+		try{
+			return rejectedCount;
+		}finally{
+			lock.readLock().unlock();
+		}
+	}
+
+	public long getCapacity() {
+		return capacity;
+	}
+
+	private int findSlot(KeyEncoder key){
+
+		int mask = addresses.length - 1;
+		int hash = key.hash();
+
+		for(int slot = hash & mask; ; slot = (slot + 1) & mask){
+			long address = addresses[slot];
+			if(address == EMPTY){
+				return -1;
+			}
+			if(address != REMOVED && hashes[slot] == hash && keyEquals(address, key)){
+				return slot;
+			}
+		}
+	}
+
+	private boolean keyEquals(long address, KeyEncoder key){
+
+		ByteBuffer chunk = chunks.get(chunkOf(address));
+		int offset = offsetOf(address);
+
+		if(chunk.getInt(offset + KEY_LENGTH_OFFSET) != key.length()){
+			return false;
+		}
+
+		byte[] bytes = key.bytes();
+		int position = offset + KEY_OFFSET;
+
+		for(int x = 0; x < key.length(); x++){
+			if(chunk.get(position + x) != bytes[x]){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void insert(int hash, long address){
+
+		if((size + removedSlots + 1) * 4L > addresses.length * 3L){
+			resize(size + 1 > addresses.length / 2 ? addresses.length * 2 : addresses.length);
+		}
+
+		int mask = addresses.length - 1;
+		int slot = hash & mask;
+
+		while(addresses[slot] >= 0){
+			slot = (slot + 1) & mask;
+		}
+
+		if(addresses[slot] == REMOVED){
+			removedSlots--;
+		}
+
+		hashes[slot] = hash;
+		addresses[slot] = address;
+		size++;
+	}
+
+//	rebuilds the index without the removed slots
+	private void resize(int length){
+
+		int[] oldHashes = hashes;
+		long[] oldAddresses = addresses;
+
+		hashes = new int[length];
+		addresses = newAddresses(length);
+		removedSlots = 0;
+
+		int mask = length - 1;
+
+		for(int x = 0; x < oldAddresses.length; x++){
+			if(oldAddresses[x] >= 0){
+				int slot = oldHashes[x] & mask;
+				while(addresses[slot] != EMPTY){
+					slot = (slot + 1) & mask;
+				}
+				hashes[slot] = oldHashes[x];
+				addresses[slot] = oldAddresses[x];
+			}
+		}
+	}
+
+	private void removeSlot(int slot){
+		garbageBytes += recordLength(addresses[slot]);
+		addresses[slot] = REMOVED;
+		size--;
+		removedSlots++;
+	}
+
+	/**
+	 * @return the address of the space for a record, -1 if there is no room even after compaction
+	 */
+	private long allocate(int recordLength){
+
+		if(!chunks.isEmpty() && writeOffset + recordLength <= chunkSize){
+			return address(chunks.size() - 1, recordLength);
+		}
+
+		if((long) (chunks.size() + 1) * chunkSize <= capacity){
+			addChunk(ByteBuffer.allocateDirect(chunkSize));
+			return address(chunks.size() - 1, recordLength);
+		}
+
+		if(garbageBytes >= recordLength && garbageBytes * 4 >= usedBytes && compact(recordLength)){
+			return address(chunks.size() - 1, recordLength);
+		}
+
+		return -1;
+	}
+
+	private long address(int chunk, int recordLength){
+		long address = ((long) chunk << 32) | writeOffset;
+		writeOffset += recordLength;
+		usedBytes += recordLength;
+		return address;
+	}
+
+	private void addChunk(ByteBuffer chunk){
+		if(!chunks.isEmpty()){
+			chunkEnds[chunks.size() - 1] = writeOffset;
+		}
+		chunks.add(chunk);
+		writeOffset = 0;
+	}
+
+	/**
+	 * Moves the live records to the front, dropping the garbage. The chunks are walked in order and
+	 * the live records of each one are copied, in address order, to the end of the compacted ones.
+	 * The first chunk is copied into a spare one, the next ones into the chunks already emptied. 
+	 * As the records are packed in the order they were packed in the first place, the compacted 
+	 * records never need more chunks than the ones they came from
+	 *
+	 * @return true if there is room for a record of the given length afterwards
+	 */
+	private boolean compact(int recordLength){
+
+		List<ByteBuffer> oldChunks = chunks;
+		int oldWriteOffset = writeOffset;
+//		the moved records get new addresses, the records are matched to their slots with the old ones
+		long[] oldAddresses = addresses.clone();
+		List<ByteBuffer> emptyChunks = new ArrayList<ByteBuffer>();
+
+		chunks = new ArrayList<ByteBuffer>();
+		addChunk(ByteBuffer.allocateDirect(chunkSize));
+		usedBytes = 0;
+		garbageBytes = 0;
+
+		for(int index = 0; index < oldChunks.size(); index++){
+
+			ByteBuffer from = oldChunks.get(index);
+			int end = index == oldChunks.size() - 1 ? oldWriteOffset : chunkEnds[index];
+
+			for(int offset = 0; offset < end; ){
+
+				int length = from.getInt(offset + RECORD_LENGTH_OFFSET);
+				int slot = findSlot(oldAddresses, from, offset, ((long) index << 32) | offset);
+
+				if(slot >= 0){
+
+//					an emptied chunk is always there, see above, the allocation is only a safeguard
+					if(writeOffset + length > chunkSize){
+						addChunk(emptyChunks.isEmpty() ? ByteBuffer.allocateDirect(chunkSize) : emptyChunks.remove(emptyChunks.size() - 1));
+					}
+
+					ByteBuffer to = chunks.get(chunks.size() - 1);
+					for(int x = 0; x < length; x++){
+						to.put(writeOffset + x, from.get(offset + x));
+					}
+
+					addresses[slot] = address(chunks.size() - 1, length);
+				}
+
+				offset += length;
+			}
+
+			emptyChunks.add(from);
+		}
+
+		if(writeOffset + recordLength <= chunkSize){
+			return true;
+		}
+		if((long) (chunks.size() + 1) * chunkSize <= capacity){
+			addChunk(emptyChunks.isEmpty() ? ByteBuffer.allocateDirect(chunkSize) : emptyChunks.remove(emptyChunks.size() - 1));
+			return true;
+		}
+		return false;
+	}
+
+//	the slot of the record at an address, hashing its key as KeyEncoder does. -1 for garbage
+	private int findSlot(long[] slotAddresses, ByteBuffer chunk, int offset, long address){
+
+		int keyLength = chunk.getInt(offset + KEY_LENGTH_OFFSET);
+		int h = 1;
+		for(int x = 0; x < keyLength; x++){
+			h = 31 * h + chunk.get(offset + KEY_OFFSET + x);
+		}
+		int hash = h ^ (h >>> 16);
+		int mask = slotAddresses.length - 1;
+
+		for(int slot = hash & mask; ; slot = (slot + 1) & mask){
+			if(slotAddresses[slot] == EMPTY){
+				return -1;
+			}
+			if(slotAddresses[slot] == address && hashes[slot] == hash){
+				return slot;
+			}
+		}
+	}
+
+	private int recordLength(long address){
+		return chunks.get(chunkOf(address)).getInt(offsetOf(address) + RECORD_LENGTH_OFFSET);
+	}
+
+	private Record readRecord(long address) throws IOException{
+
+		ByteBuffer chunk = chunks.get(chunkOf(address));
+		int offset = offsetOf(address);
+		int keyLength = chunk.getInt(offset + KEY_LENGTH_OFFSET);
+
+		ByteBuffer keyBuffer = chunk.duplicate();
+		keyBuffer.limit(offset + KEY_OFFSET + keyLength);
+		keyBuffer.position(offset + KEY_OFFSET);
+
+		DataInputStream in = new DataInputStream(new ByteBufferInputStream(keyBuffer));
+		String settingName = in.readUTF();
+		Object[] gridValues = new Object[in.readUnsignedByte()];
+		for(int x = 0; x < gridValues.length; x++){
+			gridValues[x] = GridValueCodec.readValue(in);
+		}
+
+		int position = offset + KEY_OFFSET + keyLength;
+		long expiresAt = chunk.getLong(position);
+		position += 8 + 1 + 4 + 8 + 4;
+
+		int valueLength = chunk.getInt(position);
+		String value = getString(chunk, position + 4, valueLength);
+		position += 4 + Math.max(0, valueLength);
+
+		String description = getString(chunk, position + 4, chunk.getInt(position));
+
+		return new Record(settingName, gridValues, value, description, expiresAt);
+	}
+
+	private static int putBytes(ByteBuffer chunk, int position, byte[] bytes){
+		if(bytes == null){
+			chunk.putInt(position, -1);
+			return position + 4;
+		}
+		chunk.putInt(position, bytes.length);
+		position += 4;
+		for(int x = 0; x < bytes.length; x++){
+			chunk.put(position++, bytes[x]);
+		}
+		return position;
+	}
+
+	private static String getString(ByteBuffer chunk, int position, int length){
+		if(length < 0){
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		for(int x = 0; x < length; x++){
+			bytes[x] = chunk.get(position + x);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static boolean isExpired(long expiresAt){
+		return expiresAt != 0 && System.nanoTime() - expiresAt >= 0;
+	}
+
+	private static int chunkOf(long address){
+		return (int) (address >>> 32);
+	}
+
+	private static int offsetOf(long address){
+		return (int) address;
+	}
+
+	private static long[] newAddresses(int length){
+		long[] addresses = new long[length];
+		Arrays.fill(addresses, EMPTY);
+		return addresses;
+	}
+
+	/**
+	 * A stored setting, decoded
+	 */
+	public static final class Record{
+		private final String settingName;
+		private final Object[] gridValues;
+		private final String value;
+		private final String description;
+		private final long expiresAt;
+
+		Record(String settingName, Object[] gridValues, String value, String description, long expiresAt) {
+			this.settingName = settingName;
+			this.gridValues = gridValues;
+			this.value = value;
+			this.description = description;
+			this.expiresAt = expiresAt;
+		}
+
+		public String getSettingName() {
+			return settingName;
+		}
+
+		public Object[] getGridValues() {
+			return gridValues.clone();
+		}
+
+		public String getValue() {
+			return value;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+
+		/**
+		 * @return the nanoseconds left before it expires, zero if it does not expire
+		 */
+		public long getRemainingNanos() {
+			return expiresAt == 0 ? 0 : Math.max(1, expiresAt - System.nanoTime());
+		}
+	}
+
+	/**
+	 * The decoded value of a stored setting, see {@link OffHeapStore#getTypedValue(String, Object[])}
+	 */
+	public static final class TypedValue{
+		private int flags;
+		private int intValue;
+		private long longValue;
+		private float floatValue;
+
+		public boolean isIntValid() {
+			return (flags & INT_VALID) != 0;
+		}
+
+		public boolean isLongValid() {
+			return (flags & LONG_VALID) != 0;
+		}
+
+		public boolean isFloatValid() {
+			return (flags & FLOAT_VALID) != 0;
+		}
+
+		public boolean isBooleanValid() {
+			return (flags & (TRUE | FALSE)) != 0;
+		}
+
+		public int getIntValue() {
+			return intValue;
+		}
+
+		public long getLongValue() {
+			return longValue;
+		}
+
+		public float getFloatValue() {
+			return floatValue;
+		}
+
+		public boolean getBooleanValue() {
+			return (flags & TRUE) != 0;
+		}
+	}
+
+//	the encoded key of the last lookup of a thread and its hash
+	private static final class KeyEncoder extends ByteArrayOutputStream{
+
+		private final DataOutputStream out = new DataOutputStream(this);
+		private int hash;
+
+		KeyEncoder() {
+			super(64);
+		}
+
+		/**
+		 * @return false if a grid value cannot be encoded
+		 */
+		boolean encode(String settingName, Object[] gridValues){
+
+			reset();
+
+			try{
+				out.writeUTF(settingName);
+				int length = gridValues == null ? 0 : gridValues.length;
+				if(length > 255){
+					return false;
+				}
+				out.writeByte(length);
+				for(int x = 0; x < length; x++){
+					GridValueCodec.writeValue(out, gridValues[x]);
+				}
+			}catch(IOException e){
+				return false;
+			}
+
+			int h = 1;
+			for(int x = 0; x < count; x++){
+				h = 31 * h + buf[x];
+			}
+			hash = h ^ (h >>> 16);
+			return true;
+		}
+
+		byte[] bytes(){
+			return buf;
+		}
+
+		int length(){
+			return count;
+		}
+
+		int hash(){
+			return hash;
+		}
+	}
+
+	private static class ByteBufferInputStream extends InputStream{
+
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if(!buffer.hasRemaining()){
+				return -1;
+			}
+			length = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, length);
+			return length;
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package bgn.settings.cache;
+
+/**
+* The typed forms of a setting value, decoded once and kept on the cache entry 
+* so that typed getters do not parse the value string on every read. A value that 
+* is not a valid number or boolean is remembered as invalid for that type.
+*
+*/
+
+public final class ParsedValue {
+
+	private static final int INT_VALID = 1;
+	private static final int LONG_VALID = 1 << 1;
+	private static final int FLOAT_VALID = 1 << 2;
+	private static final int TRUE = 1 << 3;
+	private static final int FALSE = 1 << 4;
+//	the characters other than the digits a string accepted by Float.parseFloat can have, hex digits included
+	private static final String FLOAT_CHARACTERS = "+-.xXpPaAbBcCdDeEfF";
+
+	private final String source;
+	private final int flags;
+	private final int intValue;
+	private final long longValue;
+	private final float floatValue;
+
+	private ParsedValue(String source, int flags, int intValue, long longValue, float floatValue) {
+		this.source = source;
+		this.flags = flags;
+		this.intValue = intValue;
+		this.longValue = longValue;
+		this.floatValue = floatValue;
+	}
+
+	/**
+	 * @param trueValue the upper case true value of the settings util
+	 * @param falseValue the upper case false value of the settings util
+	 */
+	public static ParsedValue parse(String value, String trueValue, String falseValue){
+		
+		int flags = 0;
+		int intValue = 0;
+		long longValue = 0;
+		float floatValue = 0;
+		
+//		the character checks keep the common non numeric values, e.g. words, urls or lists, 
+//		from throwing a NumberFormatException per type. Only overflows still throw
+		if(isIntegerSyntax(value)){
+			try {
+				intValue = Integer.parseInt(value);
+				flags |= INT_VALID;
+			} catch (NumberFormatException e) {
+			}
+			
+			if((flags & INT_VALID) != 0){
+				longValue = intValue;
+				flags |= LONG_VALID;
+			}else{
+				try {
+					longValue = Long.parseLong(value);
+					flags |= LONG_VALID;
+				} catch (NumberFormatException e) {
+				}
+			}
+		}
+		
+		if(isFloatSyntax(value)){
+			try {
+				floatValue = Float.parseFloat(value);
+				flags |= FLOAT_VALID;
+			} catch (NumberFormatException e) {
+			}
+		}
+		
+		String upperCaseValue = value.trim().toUpperCase();
+		
+		if(upperCaseValue.equals(trueValue)){
+			flags |= TRUE;
+		}else if(upperCaseValue.equals(falseValue)){
+			flags |= FALSE;
+		}
+		
+		return new ParsedValue(value, flags, intValue, longValue, floatValue);
+	}
+
+//	an optional sign then decimal digits, the only strings Integer.parseInt and Long.parseLong accept
+	private static boolean isIntegerSyntax(String value){
+		
+		int length = value.length();
+		int start = length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+		
+		if(start == length){
+			return false;
+		}
+		for(int x = start; x < length; x++){
+			if(Character.digit(value.charAt(x), 10) < 0){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+//	a digit and no character a float cannot have, or NaN or Infinity. It lets some invalid strings 
+//	through, e.g. "1-2" or "0xface", which Float.parseFloat then rejects
+	private static boolean isFloatSyntax(String value){
+		
+		String trimmedValue = value.trim();
+		
+		if(trimmedValue.endsWith("NaN") || trimmedValue.endsWith("Infinity")){
+			return true;
+		}
+		
+		boolean digit = false;
+		
+		for(int x = 0; x < trimmedValue.length(); x++){
+			char character = trimmedValue.charAt(x);
+			if(character >= '0' && character <= '9'){
+				digit = true;
+			}else if(FLOAT_CHARACTERS.indexOf(character) < 0){
+				return false;
+			}
+		}
+		return digit;
+	}
+
+	/**
+	 * @return true if this was decoded from the given value string, i.e. it is still current 
+	 */
+	public boolean isParsedFrom(String value){
+		return source == value || source.equals(value);
+	}
+
+	public String getSource() {
+		return source;
+	}
+
+	public boolean isIntValid(){
+		return (flags & INT_VALID) != 0;
+	}
+
+	public int getIntValue() {
+		return intValue;
+	}
+
+	public boolean isLongValid(){
+		return (flags & LONG_VALID) != 0;
+	}
+
+	public long getLongValue() {
+		return longValue;
+	}
+
+	public boolean isFloatValid(){
+		return (flags & FLOAT_VALID) != 0;
+	}
+
+	public float getFloatValue() {
+		return floatValue;
+	}
+
+	public boolean isBooleanValid(){
+		return (flags & (TRUE | FALSE)) != 0;
+	}
+
+	public boolean getBooleanValue(){
+		return (flags & TRUE) != 0;
+	}
+}
@@ -0,0 +1,142 @@
+package bgn.settings.cache;
+
+import java.util.Arrays;
+
+/**
+* Immutable cache key for a grid setting, made up of the trimmed setting name 
+* and the ordered grid unique settings values. The hash is computed once on creation.
+* <br>
+* Simple (non grid) settings are not wrapped; the trimmed setting name String 
+* is used directly as the cache key. See {@link #of(String, Object...)}
+* <br>
+* Grid values take part in equality through their own equals and hashCode methods, 
+* exactly like keys of a {@link java.util.HashMap}. They are held by reference and are 
+* not copied, so a grid value (e.g. a Company) must not be mutated in a way that changes 
+* its equals or hashCode while it is used in a cached key. Null grid values are allowed.
+*
+*/
+
+public final class SettingKey {
+
+	private final String name;
+	private final Object[] gridValues;
+	private final int hash;
+
+	SettingKey(String name, Object[] gridValues, int hash) {
+		this.name = name;
+		this.gridValues = gridValues;
+		this.hash = hash;
+	}
+
+	/**
+	 * @return the settingName itself if there are no gridValues, else a new SettingKey 
+	 * holding a copy of the gridValues array (not of the values themselves)
+	 */
+	public static Object of(String settingName, Object... gridValues){
+		if(gridValues == null || gridValues.length == 0){
+			return settingName;
+		}
+		return new SettingKey(settingName, gridValues.clone(), hash(settingName, gridValues));
+	}
+
+	/**
+	 * @return the setting name of a key returned by {@link #of(String, Object...)}
+	 */
+	public static String nameOf(Object key){
+		if(key instanceof SettingKey){
+			return ((SettingKey) key).name;
+		}
+		return (String) key;
+	}
+
+	/**
+	 * @return a copy of the grid values of a key returned by {@link #of(String, Object...)}, 
+	 * an empty array for a simple setting
+	 */
+	public static Object[] gridValuesOf(Object key){
+		if(key instanceof SettingKey){
+			return ((SettingKey) key).getGridValues();
+		}
+		return new Object[0];
+	}
+
+	static int hash(String settingName, Object[] gridValues){
+		int hash = settingName.hashCode();
+		for(Object gridValue : gridValues){
+			hash = 31 * hash + (gridValue == null ? 0 : gridValue.hashCode());
+		}
+		return hash;
+	}
+
+//	the hash of one to three grid values given without an array, equal to the hash of the same values in an array
+	static int hash(String settingName, int gridLength, Object gridValue0, Object gridValue1, Object gridValue2){
+		int hash = 31 * settingName.hashCode() + (gridValue0 == null ? 0 : gridValue0.hashCode());
+		if(gridLength > 1){
+			hash = 31 * hash + (gridValue1 == null ? 0 : gridValue1.hashCode());
+		}
+		if(gridLength > 2){
+			hash = 31 * hash + (gridValue2 == null ? 0 : gridValue2.hashCode());
+		}
+		return hash;
+	}
+
+	boolean matches(String settingName, Object[] values){
+		return name.equals(settingName) && Arrays.equals(gridValues, values);
+	}
+
+	boolean matches(String settingName, int gridLength, Object gridValue0, Object gridValue1, Object gridValue2){
+		return gridValues.length == gridLength && name.equals(settingName) 
+				&& equal(gridValues[0], gridValue0)
+				&& (gridLength < 2 || equal(gridValues[1], gridValue1))
+				&& (gridLength < 3 || equal(gridValues[2], gridValue2));
+	}
+
+	private static boolean equal(Object a, Object b){
+		return a == null ? b == null : a.equals(b);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getGridValuesLength() {
+		return gridValues.length;
+	}
+
+	public Object getGridValue(int index) {
+		return gridValues[index];
+	}
+
+	public Object[] getGridValues() {
+		return gridValues.clone();
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		
+		if(this == obj){
+			return true;
+		}
+		
+		if(obj instanceof SettingKey){
+			SettingKey that = (SettingKey) obj;
+			return hash == that.hash && that.matches(name, gridValues);
+		}
+		
+		if(obj instanceof LookupKey){
+			return obj.equals(this);
+		}
+		
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return name+" "+Arrays.toString(gridValues);
+	}
+}
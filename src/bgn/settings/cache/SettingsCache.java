@@ -0,0 +1,463 @@
+package bgn.settings.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+* The settings cache of a {@link bgn.settings.SettingsUtilBase}. 
+* <br>
+* It is unbounded unless a maximum weight greater than zero is given, in which case 
+* entries are evicted with a W-TinyLFU policy: new entries go into a small LRU admission 
+* window (1% of the maximum) and the rest of the cache is a segmented LRU (probation and 
+* protected). An entry leaving the window only displaces the probation victim if its 
+* estimated access frequency is higher, so one-off lookups (e.g. a rarely seen tenant) 
+* do not flush frequently read settings.
+* <br>
+* Reads never take the eviction lock; they are recorded in a lossy buffer that is 
+* drained into the policy when the lock is free.
+*
+*/
+
+public class SettingsCache<T> {
+
+	private static final int READ_BUFFER_SIZE = 128;
+	private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+	private static final int DRAIN_THRESHOLD_MASK = 31;
+
+	private final Map<Object, CacheEntry<T>> data;
+	private final long maximumWeight;
+	private final boolean bounded;
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	private final FrequencySketch sketch;
+	private final AccessOrderQueue<T> window;
+	private final AccessOrderQueue<T> probation;
+	private final AccessOrderQueue<T> protectedQueue;
+	private final long windowMaximum;
+	private final long protectedMaximum;
+	private long weightedSize;
+
+	private final AtomicReferenceArray<CacheEntry<T>> readBuffer;
+	private final AtomicLong readCounter = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+	private final Consumer<? super CacheEntry<T>> evictionListener;
+
+	/**
+	 * @param concurrent whether the cache is shared between threads
+	 * @param maximumWeight the maximum total weight of the entries, zero or less for an unbounded cache
+	 */
+	public SettingsCache(boolean concurrent, long maximumWeight) {
+		this(concurrent, maximumWeight, null);
+	}
+
+	/**
+	 * @param concurrent whether the cache is shared between threads
+	 * @param maximumWeight the maximum total weight of the entries, zero or less for an unbounded cache
+	 * @param evictionListener told of every entry evicted to stay under the maximum weight, null for none. 
+	 * It runs under the eviction lock and must not call back into the cache
+	 */
+	public SettingsCache(boolean concurrent, long maximumWeight, Consumer<? super CacheEntry<T>> evictionListener) {
+		
+		this.evictionListener = evictionListener;
+		
+		if(concurrent){
+			data = new ConcurrentHashMap<Object, CacheEntry<T>>();
+		}else{
+			data = new HashMap<Object, CacheEntry<T>>();
+		}
+		
+		this.maximumWeight = maximumWeight;
+		this.bounded = maximumWeight > 0;
+		
+		if(bounded){
+			windowMaximum = Math.max(1, maximumWeight / 100);
+			protectedMaximum = (maximumWeight - windowMaximum) * 8 / 10;
+			sketch = new FrequencySketch(maximumWeight);
+			window = new AccessOrderQueue<T>(CacheEntry.WINDOW);
+			probation = new AccessOrderQueue<T>(CacheEntry.PROBATION);
+			protectedQueue = new AccessOrderQueue<T>(CacheEntry.PROTECTED);
+			readBuffer = new AtomicReferenceArray<CacheEntry<T>>(READ_BUFFER_SIZE);
+		}else{
+			windowMaximum = 0;
+			protectedMaximum = 0;
+			sketch = null;
+			window = null;
+			probation = null;
+			protectedQueue = null;
+			readBuffer = null;
+		}
+	}
+
+	public CacheEntry<T> getEntry(Object key){
+		CacheEntry<T> entry = data.get(key);
+		if(entry != null && bounded){
+			recordRead(entry);
+		}
+		return entry;
+	}
+
+	public T get(Object key){
+		CacheEntry<T> entry = getEntry(key);
+		return entry == null ? null : entry.getSetting();
+	}
+
+	/**
+	 * @return the previously cached setting or null if there was none
+	 */
+	public T put(Object key, T setting, int weight){
+		return put(key, setting, weight, 0, 0);
+	}
+
+	/**
+	 * @param expireAfterWriteNanos zero or less if the entry does not expire
+	 * @param refreshAfterWriteNanos zero or less if the entry is not to be refreshed
+	 * @return the previously cached setting or null if there was none
+	 */
+	public T put(Object key, T setting, int weight, long expireAfterWriteNanos, long refreshAfterWriteNanos){
+		
+		CacheEntry<T> entry = newEntry(key, setting, weight, expireAfterWriteNanos, refreshAfterWriteNanos);
+		CacheEntry<T> previous = data.put(key, entry);
+		
+		afterWrite(previous, entry);
+		
+		return previous == null ? null : previous.getSetting();
+	}
+
+	/**
+	 * Caches the setting only if there is no entry under the key, 
+	 * e.g. so that a setting read back from a slower tier does not overwrite a newer put
+	 * 
+	 * @return the entry cached under the key, the new one or the one already there
+	 */
+	public CacheEntry<T> putIfAbsent(Object key, T setting, int weight, long expireAfterWriteNanos, long refreshAfterWriteNanos){
+		
+		CacheEntry<T> entry = newEntry(key, setting, weight, expireAfterWriteNanos, refreshAfterWriteNanos);
+		CacheEntry<T> previous = data.putIfAbsent(key, entry);
+		
+		if(previous != null){
+			return previous;
+		}
+		
+		afterWrite(null, entry);
+		
+		return entry;
+	}
+
+	/**
+	 * Replaces the entry only if it is still the one cached under its key, 
+	 * e.g. so that a background refresh does not overwrite a newer update
+	 * 
+	 * @return true if the entry was replaced
+	 */
+	public boolean replace(CacheEntry<T> expected, T setting, int weight, long expireAfterWriteNanos, long refreshAfterWriteNanos){
+		
+		Object key = expected.getKey();
+		CacheEntry<T> entry = newEntry(key, setting, weight, expireAfterWriteNanos, refreshAfterWriteNanos);
+		
+		if(data instanceof ConcurrentMap){
+			if(!((ConcurrentMap<Object, CacheEntry<T>>) data).replace(key, expected, entry)){
+				return false;
+			}
+		}else{
+			if(data.get(key) != expected){
+				return false;
+			}
+			data.put(key, entry);
+		}
+		
+		afterWrite(expected, entry);
+		
+		return true;
+	}
+
+	/**
+	 * Removes the entry only if it is still the one cached under its key
+	 * 
+	 * @return true if the entry was removed
+	 */
+	public boolean remove(CacheEntry<T> entry){
+		
+		if(!removeFromData(entry)){
+			return false;
+		}
+		
+		if(bounded){
+			evictionLock.lock();
+			try{
+				unlink(entry);
+			}finally{
+				evictionLock.unlock();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Removes the entry cached under the key
+	 * 
+	 * @return the removed setting, or null if none was cached
+	 */
+	public T remove(Object key){
+		
+		CacheEntry<T> entry = data.get(key);
+		
+		if(entry == null || !remove(entry)){
+			return null;
+		}
+		return entry.getSetting();
+	}
+
+	/**
+	 * Removes the entries matching the filter. Entries written while it runs may be missed
+	 * 
+	 * @return the number of removed entries
+	 */
+	public int removeIf(Predicate<? super CacheEntry<T>> filter){
+		
+		List<CacheEntry<T>> matches = new ArrayList<CacheEntry<T>>();
+		
+		for(CacheEntry<T> entry : data.values()){
+			if(filter.test(entry)){
+				matches.add(entry);
+			}
+		}
+		
+		int removed = 0;
+		for(CacheEntry<T> entry : matches){
+			if(remove(entry)){
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * @return a copy of the current entries. Entries written while it runs may be missed
+	 */
+	public List<CacheEntry<T>> entries(){
+		return new ArrayList<CacheEntry<T>>(data.values());
+	}
+
+	private CacheEntry<T> newEntry(Object key, T setting, int weight, long expireAfterWriteNanos, long refreshAfterWriteNanos){
+		long writeTime = 0;
+		if(expireAfterWriteNanos > 0 || refreshAfterWriteNanos > 0){
+			writeTime = System.nanoTime();
+		}
+		return new CacheEntry<T>(key, setting, weight, writeTime, expireAfterWriteNanos, refreshAfterWriteNanos);
+	}
+
+	private void afterWrite(CacheEntry<T> previous, CacheEntry<T> entry){
+		
+		if(!bounded){
+			return;
+		}
+		
+		evictionLock.lock();
+		try{
+			drainReadBuffer();
+			if(previous != null){
+				unlink(previous);
+			}
+//			a racing put, remove or clear may have replaced the entry already
+			if(data.get(entry.getKey()) == entry){
+				sketch.increment(entry.getKey());
+				window.addLast(entry);
+				weightedSize += entry.weight;
+				evict();
+			}
+		}finally{
+			evictionLock.unlock();
+		}
+	}
+
+	public void clear(){
+		if(!bounded){
+			data.clear();
+			return;
+		}
+		evictionLock.lock();
+		try{
+			data.clear();
+			for(int i = 0; i < READ_BUFFER_SIZE; i++){
+				readBuffer.set(i, null);
+			}
+			window.clear();
+			probation.clear();
+			protectedQueue.clear();
+			weightedSize = 0;
+		}finally{
+			evictionLock.unlock();
+		}
+	}
+
+	public int size(){
+		return data.size();
+	}
+
+	public boolean isBounded() {
+		return bounded;
+	}
+
+	public long getMaximumWeight() {
+		return maximumWeight;
+	}
+
+	public long getWeightedSize(){
+		if(!bounded){
+			return data.size();
+		}
+		evictionLock.lock();
+		try{
+			return weightedSize;
+		}finally{
+			evictionLock.unlock();
+		}
+	}
+
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	private void recordRead(CacheEntry<T> entry){
+		long count = readCounter.getAndIncrement();
+		readBuffer.lazySet((int) (count & READ_BUFFER_MASK), entry);
+		if((count & DRAIN_THRESHOLD_MASK) == DRAIN_THRESHOLD_MASK && evictionLock.tryLock()){
+			try{
+				drainReadBuffer();
+			}finally{
+				evictionLock.unlock();
+			}
+		}
+	}
+
+	private void drainReadBuffer(){
+		for(int i = 0; i < READ_BUFFER_SIZE; i++){
+			CacheEntry<T> entry = readBuffer.getAndSet(i, null);
+			if(entry != null){
+				onAccess(entry);
+			}
+		}
+	}
+
+	private void onAccess(CacheEntry<T> entry){
+		
+		switch(entry.queue){
+		case CacheEntry.WINDOW:
+			sketch.increment(entry.getKey());
+			window.moveToLast(entry);
+			break;
+		case CacheEntry.PROBATION:
+			sketch.increment(entry.getKey());
+			probation.remove(entry);
+			protectedQueue.addLast(entry);
+			while(protectedQueue.weight > protectedMaximum){
+				CacheEntry<T> demoted = protectedQueue.peekFirst();
+				protectedQueue.remove(demoted);
+				probation.addLast(demoted);
+			}
+			break;
+		case CacheEntry.PROTECTED:
+			sketch.increment(entry.getKey());
+			protectedQueue.moveToLast(entry);
+			break;
+		default:
+//			already evicted or replaced
+			break;
+		}
+	}
+
+	private void evict(){
+		
+//		entries leaving the window are appended to the probation queue in order, 
+//		so the first candidate and its successors are the ones competing for admission
+		CacheEntry<T> candidate = null;
+		
+		while(window.weight > windowMaximum){
+			CacheEntry<T> entry = window.peekFirst();
+			window.remove(entry);
+			probation.addLast(entry);
+			if(candidate == null){
+				candidate = entry;
+			}
+		}
+		
+		while(weightedSize > maximumWeight){
+			
+			CacheEntry<T> victim = probation.peekFirst();
+			if(victim == null){
+				victim = protectedQueue.peekFirst();
+			}
+			if(victim == null){
+				victim = window.peekFirst();
+			}
+			if(victim == null){
+				break;
+			}
+			
+			if(candidate == null || victim.queue != CacheEntry.PROBATION){
+				evictEntry(victim);
+			}
+			else if(candidate == victim){
+				candidate = candidate.next;
+				evictEntry(victim);
+			}
+			else if(sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())){
+				evictEntry(victim);
+			}
+			else{
+				CacheEntry<T> next = candidate.next;
+				evictEntry(candidate);
+				candidate = next;
+			}
+		}
+	}
+
+	private void unlink(CacheEntry<T> entry){
+		switch(entry.queue){
+		case CacheEntry.WINDOW:
+			window.remove(entry);
+			break;
+		case CacheEntry.PROBATION:
+			probation.remove(entry);
+			break;
+		case CacheEntry.PROTECTED:
+			protectedQueue.remove(entry);
+			break;
+		default:
+			return;
+		}
+		weightedSize -= entry.weight;
+	}
+
+	private void evictEntry(CacheEntry<T> entry){
+		unlink(entry);
+//		an entry replaced or removed meanwhile was not evicted
+		if(!removeFromData(entry)){
+			return;
+		}
+		evictionCount.incrementAndGet();
+		if(evictionListener != null){
+			evictionListener.accept(entry);
+		}
+	}
+
+	private boolean removeFromData(CacheEntry<T> entry){
+		if(data instanceof ConcurrentMap){
+			return ((ConcurrentMap<Object, CacheEntry<T>>) data).remove(entry.getKey(), entry);
+		}
+		if(data.get(entry.getKey()) == entry){
+			data.remove(entry.getKey());
+			return true;
+		}
+		return false;
+	}
+}
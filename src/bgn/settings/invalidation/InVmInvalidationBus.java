@@ -0,0 +1,66 @@
+package bgn.settings.invalidation;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+* An {@link InvalidationBus} for the settings utils of one JVM. Messages are
+* delivered synchronously on the publishing thread
+*
+*/
+
+public class InVmInvalidationBus implements InvalidationBus {
+
+	private final Logger log = LoggerFactory.getLogger(InVmInvalidationBus.class);
+
+	private final ConcurrentMap<String, List<InvalidationListener>> listeners = new ConcurrentHashMap<String, List<InvalidationListener>>();
+
+	@Override
+	public void publish(InvalidationMessage message) {
+		
+		List<InvalidationListener> channelListeners = listeners.get(message.getChannel());
+		
+		if(channelListeners == null){
+			return;
+		}
+		
+		for(InvalidationListener listener : channelListeners){
+			try{
+				listener.onInvalidation(message);
+			}catch(RuntimeException e){
+				log.error("error delivering "+message, e);
+			}
+		}
+	}
+
+	@Override
+	public void subscribe(String channel, InvalidationListener listener) {
+		
+		List<InvalidationListener> channelListeners = listeners.get(channel);
+		
+		if(channelListeners == null){
+			List<InvalidationListener> created = new CopyOnWriteArrayList<InvalidationListener>();
+			channelListeners = listeners.putIfAbsent(channel, created);
+			if(channelListeners == null){
+				channelListeners = created;
+			}
+		}
+		
+		channelListeners.add(listener);
+	}
+
+	@Override
+	public void unsubscribe(String channel, InvalidationListener listener) {
+		
+		List<InvalidationListener> channelListeners = listeners.get(channel);
+		
+		if(channelListeners != null){
+			channelListeners.remove(listener);
+		}
+	}
+}
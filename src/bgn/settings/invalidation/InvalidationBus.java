@@ -0,0 +1,21 @@
+package bgn.settings.invalidation;
+
+/**
+* Carries setting invalidations between the settings utils of a cluster. A
+* {@link bgn.settings.SettingsUtilBase} returned one by its invalidationBus() hook
+* publishes the key of every setting it creates, updates or invalidates, and
+* evicts the keys published by the other utils on its channel.
+* <br>
+* Implementations must deliver a message to every listener of its channel, the
+* publisher included, and may call the listeners on any thread.
+*
+*/
+
+public interface InvalidationBus {
+
+	void publish(InvalidationMessage message);
+
+	void subscribe(String channel, InvalidationListener listener);
+
+	void unsubscribe(String channel, InvalidationListener listener);
+}
@@ -0,0 +1,6 @@
+package bgn.settings.invalidation;
+
+public interface InvalidationListener {
+
+	void onInvalidation(InvalidationMessage message);
+}
@@ -0,0 +1,61 @@
+package bgn.settings.invalidation;
+
+import java.util.Arrays;
+
+/**
+* A setting key to evict, published on an {@link InvalidationBus} channel. Null grid
+* values mean every cached grid combination of the setting name
+*
+*/
+
+public final class InvalidationMessage {
+
+	private final String channel;
+	private final String sourceId;
+	private final String settingName;
+	private final Object[] gridValues;
+
+	/**
+	 * @param sourceId identifies the publishing util, so it can skip its own messages
+	 */
+	public InvalidationMessage(String channel, String sourceId, String settingName, Object[] gridValues) {
+		
+		if(channel == null || sourceId == null || settingName == null){
+			throw new IllegalArgumentException("channel, sourceId and settingName are required");
+		}
+		
+		this.channel = channel;
+		this.sourceId = sourceId;
+		this.settingName = settingName;
+		this.gridValues = gridValues == null ? null : gridValues.clone();
+	}
+
+	public String getChannel() {
+		return channel;
+	}
+
+	public String getSourceId() {
+		return sourceId;
+	}
+
+	public String getSettingName() {
+		return settingName;
+	}
+
+	/**
+	 * @return a copy of the grid values, or null for all the grid values of the setting name
+	 */
+	public Object[] getGridValues() {
+		return gridValues == null ? null : gridValues.clone();
+	}
+
+	public boolean isAllGridValues() {
+		return gridValues == null;
+	}
+
+	@Override
+	public String toString() {
+		return "InvalidationMessage [channel = "+channel+", sourceId = "+sourceId+", settingName = "+settingName
+				+", gridValues = "+(gridValues == null ? "all" : Arrays.toString(gridValues))+"]";
+	}
+}
@@ -0,0 +1,239 @@
+package bgn.settings.invalidation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import bgn.exception.UtilException;
+import bgn.settings.util.GridValueCodec;
+
+/**
+* An {@link InvalidationBus} over UDP multicast. Messages are delivered to the listeners
+* of this JVM on the publishing thread and sent to the group, where the other buses
+* deliver them on their receiver thread.
+* <br>
+* Grid values are encoded by type with {@link GridValueCodec}, not with java serialization,
+* so a datagram never instantiates arbitrary classes. A message with a grid value the codec
+* cannot encode is sent for all the grid values of its setting name.
+* <br>
+* To try it on a single host, give every bus the loopback interface and a time to live of 0.
+*
+*/
+
+public class MulticastInvalidationBus implements InvalidationBus, Closeable {
+
+	private static final int MAGIC = 0x53494e56;
+	private static final byte VERSION = 1;
+	private static final int MAX_PACKET_SIZE = 65507;
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+	private final Logger log = LoggerFactory.getLogger(MulticastInvalidationBus.class);
+
+	private final InVmInvalidationBus localBus = new InVmInvalidationBus();
+	private final InetAddress group;
+	private final int port;
+	private final NetworkInterface networkInterface;
+	private final MulticastSocket socket;
+	private final long busId;
+	private final Thread receiver;
+	private volatile boolean closed;
+
+	public MulticastInvalidationBus(String group, int port) {
+		this(getAddress(group), port, null, 1);
+	}
+
+	/**
+	 * @param networkInterface the interface to send and receive on, null for the default one
+	 * @param timeToLive the multicast time to live, 0 to stay on the host
+	 */
+	public MulticastInvalidationBus(InetAddress group, int port, NetworkInterface networkInterface, int timeToLive) {
+
+		if(group == null || !group.isMulticastAddress()){
+			throw new IllegalArgumentException("group is not a multicast address : "+group);
+		}
+
+		this.group = group;
+		this.port = port;
+		this.networkInterface = networkInterface;
+		this.busId = newBusId();
+
+		try {
+			socket = new MulticastSocket(port);
+			socket.setTimeToLive(timeToLive);
+			if(networkInterface != null){
+				socket.setNetworkInterface(networkInterface);
+			}
+//			false enables the loopback, the other buses of this host are members too
+			socket.setLoopbackMode(false);
+			socket.joinGroup(new InetSocketAddress(group, port), networkInterface);
+		} catch (IOException e) {
+			throw new UtilException("error joining multicast group "+group+":"+port, e);
+		}
+
+		receiver = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				receive();
+			}
+		}, "settings-invalidation-"+THREAD_COUNT.incrementAndGet());
+		receiver.setDaemon(true);
+		receiver.start();
+	}
+
+	@Override
+	public void publish(InvalidationMessage message) {
+
+		localBus.publish(message);
+
+		if(closed){
+			return;
+		}
+
+		try {
+			byte[] bytes = encode(busId, message);
+			socket.send(new DatagramPacket(bytes, bytes.length, group, port));
+		} catch (IOException e) {
+			log.error("error sending "+message, e);
+		}
+	}
+
+	@Override
+	public void subscribe(String channel, InvalidationListener listener) {
+		localBus.subscribe(channel, listener);
+	}
+
+	@Override
+	public void unsubscribe(String channel, InvalidationListener listener) {
+		localBus.unsubscribe(channel, listener);
+	}
+
+	@Override
+	public void close() {
+
+		if(closed){
+			return;
+		}
+		closed = true;
+
+		try {
+			socket.leaveGroup(new InetSocketAddress(group, port), networkInterface);
+		} catch (IOException e) {
+			log.warn("error leaving multicast group "+group+":"+port, e);
+		}
+		socket.close();
+	}
+
+	private void receive(){
+
+		byte[] buffer = new byte[MAX_PACKET_SIZE];
+
+		while(!closed){
+
+			DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+
+			try {
+				socket.receive(packet);
+			} catch (SocketException e) {
+				if(!closed){
+					log.error("multicast receiver stopped", e);
+				}
+				return;
+			} catch (IOException e) {
+				log.error("error receiving an invalidation", e);
+				continue;
+			}
+
+			InvalidationMessage message;
+
+			try {
+				DataInputStream in = new DataInputStream(new ByteArrayInputStream(packet.getData(), packet.getOffset(), packet.getLength()));
+
+				if(in.readInt() != MAGIC || in.readByte() != VERSION){
+					log.warn("skipped a datagram that is not a settings invalidation from "+packet.getSocketAddress());
+					continue;
+				}
+				if(in.readLong() == busId){
+					continue;
+				}
+				message = decode(in);
+			} catch (IOException | RuntimeException e) {
+				log.warn("skipped a malformed invalidation from "+packet.getSocketAddress(), e);
+				continue;
+			}
+
+			localBus.publish(message);
+		}
+	}
+
+	static byte[] encode(long busId, InvalidationMessage message) throws IOException{
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+		DataOutputStream out = new DataOutputStream(bytes);
+
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		out.writeLong(busId);
+		out.writeUTF(message.getChannel());
+		out.writeUTF(message.getSourceId());
+		out.writeUTF(message.getSettingName());
+
+		Object[] gridValues = message.getGridValues();
+
+		if(gridValues == null || !GridValueCodec.isEncodable(gridValues)){
+			out.writeInt(-1);
+		}else{
+			out.writeInt(gridValues.length);
+			for(Object value : gridValues){
+				GridValueCodec.writeValue(out, value);
+			}
+		}
+
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	static InvalidationMessage decode(DataInputStream in) throws IOException{
+
+		String channel = in.readUTF();
+		String sourceId = in.readUTF();
+		String settingName = in.readUTF();
+		int length = in.readInt();
+
+		Object[] gridValues = null;
+
+		if(length >= 0){
+			gridValues = new Object[length];
+			for(int x = 0; x < length; x++){
+				gridValues[x] = GridValueCodec.readValue(in);
+			}
+		}
+
+		return new InvalidationMessage(channel, sourceId, settingName, gridValues);
+	}
+
+	private static long newBusId(){
+		return new SecureRandom().nextLong();
+	}
+
+	private static InetAddress getAddress(String group){
+		try {
+			return InetAddress.getByName(group);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("unknown multicast group "+group, e);
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package bgn.settings.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+* A lock free latency histogram with one bucket per power of two nanoseconds, so
+* recording is a couple of striped additions. Percentiles are reported as the upper
+* bound of their bucket, i.e. within a factor of two.
+*
+*/
+
+public class LatencyHistogram {
+
+	private static final int BUCKETS = 64;
+
+	private final LongAdder[] buckets = new LongAdder[BUCKETS];
+	private final LongAdder count = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+	public LatencyHistogram() {
+		for(int i = 0; i < BUCKETS; i++){
+			buckets[i] = new LongAdder();
+		}
+	}
+
+	public void record(long nanos){
+		if(nanos < 0){
+			nanos = 0;
+		}
+		buckets[bucketOf(nanos)].increment();
+		count.increment();
+		totalNanos.add(nanos);
+		maxNanos.accumulate(nanos);
+	}
+
+	public long getCount(){
+		return count.sum();
+	}
+
+	public double getMeanMillis(){
+		long n = count.sum();
+		return n == 0 ? 0 : toMillis(totalNanos.sum() / (double) n);
+	}
+
+	public double getMaxMillis(){
+		return toMillis(maxNanos.get());
+	}
+
+	/**
+	 * @param quantile between 0 and 1, e.g. 0.99
+	 * @return the upper bound of the bucket holding the quantile, in milliseconds
+	 */
+	public double getPercentileMillis(double quantile){
+
+		long[] counts = new long[BUCKETS];
+		long total = 0;
+		for(int i = 0; i < BUCKETS; i++){
+			counts[i] = buckets[i].sum();
+			total += counts[i];
+		}
+
+		if(total == 0){
+			return 0;
+		}
+
+		long rank = (long) Math.ceil(quantile * total);
+		long seen = 0;
+		for(int i = 0; i < BUCKETS; i++){
+			seen += counts[i];
+			if(seen >= rank && counts[i] > 0){
+				return Math.min(toMillis(upperBound(i)), getMaxMillis());
+			}
+		}
+		return getMaxMillis();
+	}
+
+	public void reset(){
+		for(LongAdder bucket : buckets){
+			bucket.reset();
+		}
+		count.reset();
+		totalNanos.reset();
+		maxNanos.reset();
+	}
+
+//	bucket i holds the values from 2^i to 2^(i+1) - 1, and 0
+	private static int bucketOf(long nanos){
+		return nanos == 0 ? 0 : BUCKETS - 1 - Long.numberOfLeadingZeros(nanos);
+	}
+
+	private static double upperBound(int bucket){
+		return bucket >= 62 ? Long.MAX_VALUE : (double) ((1L << (bucket + 1)) - 1);
+	}
+
+	private static double toMillis(double nanos){
+		return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+}
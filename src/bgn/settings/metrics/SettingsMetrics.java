@@ -0,0 +1,343 @@
+package bgn.settings.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import bgn.settings.SettingsUtilBase;
+
+/**
+* The counters and latency histograms of one settings util. The counters are
+* striped ({@link LongAdder}) so recording a cache hit does not contend between
+* threads; the cache size, eviction and write behind figures are read from the util
+* when asked for. Registered with the platform MBean server, when the util asks for it, as
+* <code>bgn.settings:type=SettingsUtil,clazz=&lt;setting class&gt;,util=&lt;util class&gt;</code>
+*
+*/
+
+public class SettingsMetrics implements SettingsMetricsMBean {
+
+//	the last instance number given out for each base name, so a new util does not probe every taken one
+	private static final ConcurrentMap<String, AtomicInteger> INSTANCES = new ConcurrentHashMap<String, AtomicInteger>();
+//	the registered metrics, to unregister the ones whose util was collected without a shutdown
+	private static final Set<SettingsMetrics> REGISTERED = ConcurrentHashMap.newKeySet();
+
+	private final Logger log = LoggerFactory.getLogger(SettingsMetrics.class);
+
+//	weak so a registered MBean does not keep an unused util and its cache alive
+	private final WeakReference<SettingsUtilBase<?>> settingsUtil;
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder negativeHitCount = new LongAdder();
+	private final LongAdder loadFailureCount = new LongAdder();
+	private final LongAdder createCount = new LongAdder();
+	private final LongAdder updateCount = new LongAdder();
+	private final LongAdder repairCount = new LongAdder();
+	private final LongAdder parseFailureCount = new LongAdder();
+	private final LongAdder offHeapHitCount = new LongAdder();
+	private final LatencyHistogram loadLatency = new LatencyHistogram();
+	private final LatencyHistogram writeLatency = new LatencyHistogram();
+
+	private ObjectName objectName;
+
+	public SettingsMetrics(SettingsUtilBase<?> settingsUtil) {
+		this.settingsUtil = new WeakReference<SettingsUtilBase<?>>(settingsUtil);
+	}
+
+	public void recordHit(){
+		hitCount.increment();
+	}
+
+	public void recordMisses(int count){
+		missCount.add(count);
+	}
+
+	public void recordNegativeHit(){
+		negativeHitCount.increment();
+	}
+
+	public void recordLoad(long nanos, boolean failed){
+		loadLatency.record(nanos);
+		if(failed){
+			loadFailureCount.increment();
+		}
+	}
+
+	public void recordCreates(int count, long nanos){
+		createCount.add(count);
+		writeLatency.record(nanos);
+	}
+
+	public void recordUpdates(int count, long nanos){
+		updateCount.add(count);
+		writeLatency.record(nanos);
+	}
+
+	public void recordRepair(){
+		repairCount.increment();
+	}
+
+	public void recordParseFailure(){
+		parseFailureCount.increment();
+	}
+
+//	also counted as a hit
+	public void recordOffHeapHit(){
+		hitCount.increment();
+		offHeapHitCount.increment();
+	}
+
+	/**
+	 * Registers the metrics with the platform MBean server. A second util of the same
+	 * classes gets an instance key property. The MBeans of collected utils are unregistered first
+	 */
+	public synchronized void register(Class<?> clazz, Class<?> utilClass){
+
+		if(objectName != null){
+			return;
+		}
+
+		unregisterCollected();
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		String name = "bgn.settings:type=SettingsUtil,clazz="+ObjectName.quote(clazz.getName())
+				+",util="+ObjectName.quote(utilClass.getName());
+
+		AtomicInteger instances = INSTANCES.get(name);
+		if(instances == null){
+			instances = new AtomicInteger();
+			AtomicInteger previousInstances = INSTANCES.putIfAbsent(name, instances);
+			if(previousInstances != null){
+				instances = previousInstances;
+			}
+		}
+
+		try {
+			while(objectName == null){
+				int instance = instances.incrementAndGet();
+				ObjectName candidate = new ObjectName(instance == 1 ? name : name+",instance="+instance);
+				try {
+					server.registerMBean(this, candidate);
+					objectName = candidate;
+					REGISTERED.add(this);
+				} catch (InstanceAlreadyExistsException e) {
+//					registered outside this class, try the next instance number
+				}
+			}
+		} catch (JMException e) {
+			log.error("error registering the settings metrics MBean "+name, e);
+		}
+	}
+
+	private static void unregisterCollected(){
+		for(SettingsMetrics metrics : REGISTERED){
+			if(metrics.settingsUtil.get() == null){
+				metrics.unregister();
+			}
+		}
+	}
+
+	public synchronized void unregister(){
+
+		if(objectName == null){
+			return;
+		}
+
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (JMException e) {
+			log.warn("error unregistering the settings metrics MBean "+objectName, e);
+		}
+		REGISTERED.remove(this);
+		objectName = null;
+	}
+
+	/**
+	 * @return the registered name, null if not registered
+	 */
+	public synchronized ObjectName getObjectName() {
+		return objectName;
+	}
+
+	@Override
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	@Override
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	@Override
+	public double getHitRatio() {
+		long hits = hitCount.sum();
+		long requests = hits + missCount.sum();
+		return requests == 0 ? 1 : (double) hits / requests;
+	}
+
+	@Override
+	public long getNegativeHitCount() {
+		return negativeHitCount.sum();
+	}
+
+	@Override
+	public long getLoadCount() {
+		return loadLatency.getCount();
+	}
+
+	@Override
+	public long getLoadFailureCount() {
+		return loadFailureCount.sum();
+	}
+
+	@Override
+	public long getCreateCount() {
+		return createCount.sum();
+	}
+
+	@Override
+	public long getUpdateCount() {
+		return updateCount.sum();
+	}
+
+	@Override
+	public long getRepairCount() {
+		return repairCount.sum();
+	}
+
+	@Override
+	public long getParseFailureCount() {
+		return parseFailureCount.sum();
+	}
+
+	@Override
+	public long getOffHeapHitCount() {
+		return offHeapHitCount.sum();
+	}
+
+	@Override
+	public long getEvictionCount() {
+		SettingsUtilBase<?> util = settingsUtil.get();
+		return util == null ? 0 : util.getEvictionCount();
+	}
+
+	@Override
+	public int getCacheSize() {
+		SettingsUtilBase<?> util = settingsUtil.get();
+		return util == null ? 0 : util.getCacheSize();
+	}
+
+	@Override
+	public int getOffHeapSize() {
+		SettingsUtilBase<?> util = settingsUtil.get();
+		return util == null ? 0 : util.getOffHeapSize();
+	}
+
+	@Override
+	public long getOffHeapUsedBytes() {
+		SettingsUtilBase<?> util = settingsUtil.get();
+		return util == null ? 0 : util.getOffHeapUsedBytes();
+	}
+
+	@Override
+	public int getNegativeCacheSize() {
+		SettingsUtilBase<?> util = settingsUtil.get();
+		return util == null ? 0 : util.getNegativeCacheSize();
+	}
+
+	@Override
+	public int getWriteBehindQueueDepth() {
+		SettingsUtilBase<?> util = settingsUtil.get();
+		return util == null ? 0 : util.getWriteBehindQueueDepth();
+	}
+
+	@Override
+	public long getDroppedWriteCount() {
+		SettingsUtilBase<?> util = settingsUtil.get();
+		return util == null ? 0 : util.getDroppedWriteCount();
+	}
+
+	@Override
+	public double getLoadLatencyMeanMillis() {
+		return loadLatency.getMeanMillis();
+	}
+
+	@Override
+	public double getLoadLatency50thPercentileMillis() {
+		return loadLatency.getPercentileMillis(0.5);
+	}
+
+	@Override
+	public double getLoadLatency99thPercentileMillis() {
+		return loadLatency.getPercentileMillis(0.99);
+	}
+
+	@Override
+	public double getLoadLatencyMaxMillis() {
+		return loadLatency.getMaxMillis();
+	}
+
+	@Override
+	public double getWriteLatencyMeanMillis() {
+		return writeLatency.getMeanMillis();
+	}
+
+	@Override
+	public double getWriteLatency50thPercentileMillis() {
+		return writeLatency.getPercentileMillis(0.5);
+	}
+
+	@Override
+	public double getWriteLatency99thPercentileMillis() {
+		return writeLatency.getPercentileMillis(0.99);
+	}
+
+	@Override
+	public double getWriteLatencyMaxMillis() {
+		return writeLatency.getMaxMillis();
+	}
+
+	public LatencyHistogram getLoadLatency() {
+		return loadLatency;
+	}
+
+	public LatencyHistogram getWriteLatency() {
+		return writeLatency;
+	}
+
+	@Override
+	public void reset() {
+		hitCount.reset();
+		missCount.reset();
+		negativeHitCount.reset();
+		loadFailureCount.reset();
+		createCount.reset();
+		updateCount.reset();
+		repairCount.reset();
+		parseFailureCount.reset();
+		offHeapHitCount.reset();
+		loadLatency.reset();
+		writeLatency.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "SettingsMetrics [hits = "+getHitCount()+", misses = "+getMissCount()+", loads = "+getLoadCount()
+				+", creates = "+getCreateCount()+", updates = "+getUpdateCount()+", repairs = "+getRepairCount()
+				+", parseFailures = "+getParseFailureCount()+", evictions = "+getEvictionCount()+"]";
+	}
+}
@@ -0,0 +1,63 @@
+package bgn.settings.metrics;
+
+/**
+* The JMX view of the {@link SettingsMetrics} of a settings util
+*
+*/
+
+public interface SettingsMetricsMBean {
+
+	long getHitCount();
+
+	long getMissCount();
+
+	double getHitRatio();
+
+	long getNegativeHitCount();
+
+	long getLoadCount();
+
+	long getLoadFailureCount();
+
+	long getCreateCount();
+
+	long getUpdateCount();
+
+	long getRepairCount();
+
+	long getParseFailureCount();
+
+	long getOffHeapHitCount();
+
+	long getEvictionCount();
+
+	int getCacheSize();
+
+	int getOffHeapSize();
+
+	long getOffHeapUsedBytes();
+
+	int getNegativeCacheSize();
+
+	int getWriteBehindQueueDepth();
+
+	long getDroppedWriteCount();
+
+	double getLoadLatencyMeanMillis();
+
+	double getLoadLatency50thPercentileMillis();
+
+	double getLoadLatency99thPercentileMillis();
+
+	double getLoadLatencyMaxMillis();
+
+	double getWriteLatencyMeanMillis();
+
+	double getWriteLatency50thPercentileMillis();
+
+	double getWriteLatency99thPercentileMillis();
+
+	double getWriteLatencyMaxMillis();
+
+	void reset();
+}
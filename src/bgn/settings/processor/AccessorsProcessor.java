@@ -0,0 +1,287 @@
+package bgn.settings.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+* Generates the {@link bgn.settings.util.GeneratedAccessors} of the setting classes and settings
+* enums annotated with {@link bgn.settings.util.GenerateAccessors}. The generated class holds an
+* accessor per bean property, resolved the way {@link bgn.settings.util.SUBUtils#getGetterMethod(Class, String)}
+* and the java.beans setter lookup resolve them at runtime: an is getter returning a boolean,
+* else a get getter, and a set method taking the type of the getter. The accessors call the
+* methods directly, so the settings utils read and write the fields without reflection.
+* <br>
+* A property the runtime lookup would reject, e.g. an is getter that does not return a boolean,
+* is left out and still goes through reflection, which reports the error.
+*
+*/
+
+@SupportedAnnotationTypes(AccessorsProcessor.ANNOTATION)
+public class AccessorsProcessor extends AbstractProcessor {
+
+	static final String ANNOTATION = "bgn.settings.util.GenerateAccessors";
+	private static final String SUFFIX = "_SettingAccessors";
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+		for(TypeElement annotation : annotations){
+			for(Element element : roundEnv.getElementsAnnotatedWith(annotation)){
+
+				if(element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.ENUM){
+					error(element, "only classes and enums can be annotated with @GenerateAccessors");
+					continue;
+				}
+
+				TypeElement type = (TypeElement) element;
+
+				if(!isAccessible(type)){
+					error(type, "cannot generate accessors for a private class or an inner class that is not static");
+					continue;
+				}
+
+				try {
+					generate(type);
+				} catch (IOException e) {
+					error(type, "cannot write the generated accessors : "+e);
+				}
+			}
+		}
+
+		return true;
+	}
+
+	private boolean isAccessible(TypeElement type){
+		for(Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()){
+			if(element.getModifiers().contains(Modifier.PRIVATE)){
+				return false;
+			}
+			if(((TypeElement) element).getNestingKind() == NestingKind.MEMBER
+					&& element.getKind() == ElementKind.CLASS && !element.getModifiers().contains(Modifier.STATIC)){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void generate(TypeElement type) throws IOException{
+
+		String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+		String typeName = erasure(type.asType());
+
+		Map<String, Property> properties = getProperties(type);
+
+		StringBuilder source = new StringBuilder();
+
+		if(!packageName.isEmpty()){
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+
+		source.append("/**\n");
+		source.append("* The accessors of {@link ").append(typeName).append("}, generated by ").append(getClass().getName()).append(".\n");
+		source.append("* Do not edit, they are generated again on every build\n");
+		source.append("*/\n");
+		source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+		source.append("public final class ").append(simpleName).append(" extends bgn.settings.util.GeneratedAccessors {\n\n");
+
+		source.append("\t@Override\n");
+		source.append("\tpublic Object newInstance() {\n");
+		source.append("\t\treturn ").append(hasNoArgumentConstructor(type) ? "new "+typeName+"()" : "null").append(";\n");
+		source.append("\t}\n\n");
+
+		source.append("\t@Override\n");
+		source.append("\tpublic bgn.settings.util.PropertyAccessor getAccessor(String fieldName) {\n");
+		source.append("\t\tswitch (bgn.settings.util.SUBUtils.makeFirstLetterCapital(fieldName)) {\n");
+
+		for(Map.Entry<String, Property> entry : properties.entrySet()){
+
+			Property property = entry.getValue();
+
+			if(property.getter == null){
+				continue;
+			}
+
+			source.append("\t\tcase \"").append(entry.getKey()).append("\":\n");
+			source.append("\t\t\treturn new bgn.settings.util.GeneratedPropertyAccessor(").append(typeName)
+					.append(".class, fieldName, ").append(property.setter != null).append(") {\n");
+			source.append("\t\t\t\t@Override\n");
+			source.append("\t\t\t\tprotected Object read(Object object) {\n");
+			source.append("\t\t\t\t\treturn ((").append(typeName).append(") object).")
+					.append(property.getter.getSimpleName()).append("();\n");
+			source.append("\t\t\t\t}\n");
+
+			if(property.setter != null){
+				source.append("\t\t\t\t@Override\n");
+				source.append("\t\t\t\tprotected void write(Object object, Object value) {\n");
+				source.append("\t\t\t\t\t((").append(typeName).append(") object).").append(property.setter.getSimpleName())
+						.append("((").append(castType(property.setter.getParameters().get(0).asType())).append(") value);\n");
+				source.append("\t\t\t\t}\n");
+			}
+
+			source.append("\t\t\t};\n");
+		}
+
+		source.append("\t\tdefault:\n");
+		source.append("\t\t\treturn null;\n");
+		source.append("\t\t}\n");
+		source.append("\t}\n");
+		source.append("}\n");
+
+		String generatedName = packageName.isEmpty() ? simpleName : packageName+"."+simpleName;
+
+		try(Writer writer = processingEnv.getFiler().createSourceFile(generatedName, type).openWriter()){
+			writer.write(source.toString());
+		}
+	}
+
+//	keyed by the property name with its first letter capitalized, the suffix of the getter and setter names
+	private Map<String, Property> getProperties(TypeElement type){
+
+		Map<String, Property> properties = new LinkedHashMap<String, Property>();
+		List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type));
+
+		for(ExecutableElement method : methods){
+
+			if(!isPublicInstanceMethod(method) || !method.getParameters().isEmpty()){
+				continue;
+			}
+
+			String name = method.getSimpleName().toString();
+
+			if(name.startsWith("is") && name.length() > 2){
+				Property property = property(properties, name.substring(2));
+				if(isBoolean(method.getReturnType())){
+					property.getter = method;
+				}else{
+//					rejected at runtime even if there is a get getter
+					property.invalid = true;
+				}
+			}
+		}
+
+		for(ExecutableElement method : methods){
+
+			if(!isPublicInstanceMethod(method) || !method.getParameters().isEmpty()){
+				continue;
+			}
+
+			String name = method.getSimpleName().toString();
+
+			if(name.startsWith("get") && name.length() > 3 && method.getReturnType().getKind() != TypeKind.VOID){
+				Property property = property(properties, name.substring(3));
+				if(property.getter == null){
+					property.getter = method;
+				}
+			}
+		}
+
+		for(ExecutableElement method : methods){
+
+			String name = method.getSimpleName().toString();
+
+			if(!isPublicInstanceMethod(method) || method.getParameters().size() != 1 || !name.startsWith("set")){
+				continue;
+			}
+
+			Property property = properties.get(name.substring(3));
+
+			if(property != null && property.getter != null && processingEnv.getTypeUtils().isSameType(
+					method.getParameters().get(0).asType(), property.getter.getReturnType())){
+				property.setter = method;
+			}
+		}
+
+		for(Property property : properties.values()){
+			if(property.invalid){
+				property.getter = null;
+			}
+		}
+
+		return properties;
+	}
+
+	private static Property property(Map<String, Property> properties, String suffix){
+		Property property = properties.get(suffix);
+		if(property == null){
+			property = new Property();
+			properties.put(suffix, property);
+		}
+		return property;
+	}
+
+	private static boolean isPublicInstanceMethod(ExecutableElement method){
+
+		if(!method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC)){
+			return false;
+		}
+
+		String declaringType = ((TypeElement) method.getEnclosingElement()).getQualifiedName().toString();
+		return !declaringType.equals("java.lang.Object") && !declaringType.equals("java.lang.Enum");
+	}
+
+	private boolean isBoolean(TypeMirror type){
+		return type.getKind() == TypeKind.BOOLEAN || type.toString().equals("java.lang.Boolean");
+	}
+
+	private boolean hasNoArgumentConstructor(TypeElement type){
+
+		if(type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)){
+			return false;
+		}
+
+		for(ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())){
+			if(constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private String castType(TypeMirror type){
+		if(type.getKind().isPrimitive()){
+			return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind()))
+					.getQualifiedName().toString();
+		}
+		return erasure(type);
+	}
+
+	private String erasure(TypeMirror type){
+		return processingEnv.getTypeUtils().erasure(type).toString();
+	}
+
+	private void error(Element element, String message){
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+
+	private static class Property{
+		private ExecutableElement getter;
+		private ExecutableElement setter;
+		private boolean invalid;
+	}
+}
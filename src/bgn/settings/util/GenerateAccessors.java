@@ -0,0 +1,20 @@
+package bgn.settings.util;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+* Marks a setting class or settings enum for {@link bgn.settings.processor.AccessorsProcessor},
+* which generates its {@link GeneratedAccessors} at compile time. The settings library jar must
+* be on the annotation processor path of the build, as it is by default on the class path.
+*
+*/
+
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateAccessors {
+}
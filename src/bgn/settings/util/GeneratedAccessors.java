@@ -0,0 +1,87 @@
+package bgn.settings.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+* The accessors of a setting class or settings enum generated at build time by
+* {@link bgn.settings.processor.AccessorsProcessor} for the classes annotated with
+* {@link GenerateAccessors}. The generated class is named after the binary name of the
+* annotated class with the {@link #SUFFIX}, e.g. {@code com.acme.Setting_SettingAccessors}, and
+* is looked up once per class by {@link #forClass(Class)}.
+* <br>
+* When it is present, {@link SUBUtils} and the settings utils use it instead of reflection.
+*
+*/
+
+public abstract class GeneratedAccessors {
+
+	public static final String SUFFIX = "_SettingAccessors";
+
+	private static final Logger log = LoggerFactory.getLogger(GeneratedAccessors.class);
+
+//	ClassValue does not hold nulls, NONE stands for a class without generated accessors
+	private static final GeneratedAccessors NONE = new GeneratedAccessors() {
+		@Override
+		public PropertyAccessor getAccessor(String fieldName) {
+			return null;
+		}
+		@Override
+		public Object newInstance() {
+			return null;
+		}
+	};
+
+	private static final ClassValue<GeneratedAccessors> generatedAccessors = new ClassValue<GeneratedAccessors>(){
+		@Override
+		protected GeneratedAccessors computeValue(Class<?> type) {
+			return load(type);
+		}
+	};
+
+	/**
+	 * @return the generated accessors of the class, null if none were generated
+	 */
+	public static GeneratedAccessors forClass(Class<?> clazz){
+		GeneratedAccessors accessors = generatedAccessors.get(clazz);
+		return accessors == NONE ? null : accessors;
+	}
+
+	/**
+	 * @param fieldName a trimmed field name, resolved to its getter and setter like
+	 * {@link SUBUtils#getGetterMethod(Class, String)} does
+	 * @return a new accessor of the field, null if the field has no public getter
+	 */
+	public abstract PropertyAccessor getAccessor(String fieldName);
+
+	/**
+	 * @return a new instance of the class, null if it has no accessible no argument constructor
+	 */
+	public abstract Object newInstance();
+
+	private static GeneratedAccessors load(Class<?> clazz){
+
+		Class<?> generatedClass;
+
+		try {
+			generatedClass = Class.forName(clazz.getName()+SUFFIX, true, clazz.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			return NONE;
+		} catch (LinkageError e) {
+			log.warn("cannot load the generated accessors of class "+clazz.getName()+" : "+e);
+			return NONE;
+		}
+
+		if(!GeneratedAccessors.class.isAssignableFrom(generatedClass)){
+			log.warn("ignored "+generatedClass.getName()+", it does not extend "+GeneratedAccessors.class.getName());
+			return NONE;
+		}
+
+		try {
+			return (GeneratedAccessors) generatedClass.newInstance();
+		} catch (Exception e) {
+			log.warn("cannot create the generated accessors of class "+clazz.getName()+" : "+e);
+			return NONE;
+		}
+	}
+}
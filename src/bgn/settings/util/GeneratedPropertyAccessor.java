@@ -0,0 +1,46 @@
+package bgn.settings.util;
+
+import bgn.exception.UtilException;
+
+/**
+* The base of the accessors generated by {@link bgn.settings.processor.AccessorsProcessor}, which
+* call the getter and setter of the field directly, without reflection or method handles.
+*
+*/
+
+public abstract class GeneratedPropertyAccessor extends PropertyAccessor {
+
+	protected GeneratedPropertyAccessor(Class<?> clazz, String fieldName, boolean writable) {
+		super(clazz, fieldName, writable);
+	}
+
+	@Override
+	public final Object get(Object object){
+		try {
+			return read(object);
+		} catch (RuntimeException e) {
+    		throw new UtilException("error invoking getter for field -"+getFieldName()+"- for class "+getClazz().getCanonicalName(), e);
+		}
+	}
+
+	@Override
+	public final void set(Object object, Object value){
+		if(!isWritable()){
+    		throw new UtilException("cannot find setter for field -"+getFieldName()+"- for class "+getClazz().getCanonicalName());
+		}
+		try {
+			write(object, value);
+		} catch (RuntimeException e) {
+    		throw new UtilException("error invoking setter for field -"+getFieldName()+"- for class "+getClazz().getCanonicalName(), e);
+		}
+	}
+
+	protected abstract Object read(Object object);
+
+	/**
+	 * Overridden when the field has a setter
+	 */
+	protected void write(Object object, Object value){
+		throw new UnsupportedOperationException();
+	}
+}
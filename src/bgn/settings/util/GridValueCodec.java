@@ -0,0 +1,111 @@
+package bgn.settings.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+* Writes and reads grid values by type instead of with java serialization, so decoding
+* never instantiates arbitrary classes. Only strings, primitive wrappers, BigDecimal and
+* BigInteger (and null) can be encoded; see {@link #isEncodable(Object[])}
+*
+*/
+
+public final class GridValueCodec {
+
+	private static final byte NULL = 0;
+	private static final byte STRING = 1;
+	private static final byte INTEGER = 2;
+	private static final byte LONG = 3;
+	private static final byte SHORT = 4;
+	private static final byte BYTE = 5;
+	private static final byte BOOLEAN = 6;
+	private static final byte CHARACTER = 7;
+	private static final byte FLOAT = 8;
+	private static final byte DOUBLE = 9;
+	private static final byte BIG_DECIMAL = 10;
+	private static final byte BIG_INTEGER = 11;
+
+	private GridValueCodec() {
+	}
+
+	/**
+	 * @return true if every grid value is null or of a type that can be written
+	 */
+	public static boolean isEncodable(Object[] gridValues){
+		for(Object value : gridValues){
+			if(value != null && typeOf(value) == NULL){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static byte typeOf(Object value){
+		Class<?> type = value.getClass();
+		if(type == String.class) return STRING;
+		if(type == Integer.class) return INTEGER;
+		if(type == Long.class) return LONG;
+		if(type == Short.class) return SHORT;
+		if(type == Byte.class) return BYTE;
+		if(type == Boolean.class) return BOOLEAN;
+		if(type == Character.class) return CHARACTER;
+		if(type == Float.class) return FLOAT;
+		if(type == Double.class) return DOUBLE;
+		if(type == BigDecimal.class) return BIG_DECIMAL;
+		if(type == BigInteger.class) return BIG_INTEGER;
+		return NULL;
+	}
+
+	public static void writeValue(DataOutput out, Object value) throws IOException{
+
+		if(value == null){
+			out.writeByte(NULL);
+			return;
+		}
+
+		byte type = typeOf(value);
+
+		if(type == NULL){
+			throw new IOException("cannot encode a grid value of type "+value.getClass().getName());
+		}
+
+		out.writeByte(type);
+
+		switch(type){
+		case STRING: out.writeUTF((String) value); break;
+		case INTEGER: out.writeInt((Integer) value); break;
+		case LONG: out.writeLong((Long) value); break;
+		case SHORT: out.writeShort((Short) value); break;
+		case BYTE: out.writeByte((Byte) value); break;
+		case BOOLEAN: out.writeBoolean((Boolean) value); break;
+		case CHARACTER: out.writeChar((Character) value); break;
+		case FLOAT: out.writeFloat((Float) value); break;
+		case DOUBLE: out.writeDouble((Double) value); break;
+		default: out.writeUTF(value.toString()); break;
+		}
+	}
+
+	public static Object readValue(DataInput in) throws IOException{
+
+		byte type = in.readByte();
+
+		switch(type){
+		case NULL: return null;
+		case STRING: return in.readUTF();
+		case INTEGER: return in.readInt();
+		case LONG: return in.readLong();
+		case SHORT: return in.readShort();
+		case BYTE: return in.readByte();
+		case BOOLEAN: return in.readBoolean();
+		case CHARACTER: return in.readChar();
+		case FLOAT: return in.readFloat();
+		case DOUBLE: return in.readDouble();
+		case BIG_DECIMAL: return new BigDecimal(in.readUTF());
+		case BIG_INTEGER: return new BigInteger(in.readUTF());
+		default: throw new IOException("unknown grid value type "+type);
+		}
+	}
+}
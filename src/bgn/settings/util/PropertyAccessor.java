@@ -0,0 +1,74 @@
+package bgn.settings.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+import bgn.exception.UtilException;
+
+/**
+* A precompiled getter/setter pair for a single bean field. The method handles
+* are resolved once (see {@link SUBUtils#getPropertyAccessor(Class, String, boolean)})
+* so reading or writing the field does not repeat the reflective method lookup.
+* A {@link GeneratedPropertyAccessor} calls the getter and setter directly instead.
+*
+*/
+
+public class PropertyAccessor {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final Class<?> clazz;
+	private final String fieldName;
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+	private final boolean writable;
+
+	PropertyAccessor(Class<?> clazz, String fieldName, MethodHandle getter, MethodHandle setter) {
+		this.clazz = clazz;
+		this.fieldName = fieldName;
+		this.getter = getter.asType(GETTER_TYPE);
+		this.setter = setter == null ? null : setter.asType(SETTER_TYPE);
+		this.writable = setter != null;
+	}
+
+//	for GeneratedPropertyAccessor, which overrides get and set
+	PropertyAccessor(Class<?> clazz, String fieldName, boolean writable) {
+		this.clazz = clazz;
+		this.fieldName = fieldName;
+		this.getter = null;
+		this.setter = null;
+		this.writable = writable;
+	}
+
+	public Object get(Object object){
+		try {
+			return (Object) getter.invokeExact(object);
+		} catch (Throwable e) {
+    		throw new UtilException("error invoking getter for field -"+fieldName+"- for class "+clazz.getCanonicalName(), e);
+		}
+	}
+
+	public void set(Object object, Object value){
+		if(setter == null){
+    		throw new UtilException("cannot find setter for field -"+fieldName+"- for class "+clazz.getCanonicalName());
+		}
+		try {
+			setter.invokeExact(object, value);
+		} catch (Throwable e) {
+    		throw new UtilException("error invoking setter for field -"+fieldName+"- for class "+clazz.getCanonicalName(), e);
+		}
+	}
+
+	public boolean isWritable() {
+		return writable;
+	}
+
+	public String getFieldName() {
+		return fieldName;
+	}
+
+	public Class<?> getClazz() {
+		return clazz;
+	}
+}
@@ -1,6 +1,8 @@
 package bgn.settings.util;
 
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.util.Locale;
 
@@ -16,6 +18,10 @@ public class SUBUtils {
     static final String IS = "is";
 	
 	public static Object getProperty(Class<?> clazz, Object object, String fieldName){
+		PropertyAccessor accessor = getGeneratedAccessor(clazz, fieldName, false);
+		if(accessor != null){
+			return accessor.get(object);
+		}
 		try {
 //			the getter method was obtained manually to accommodate for the settings enum which ideally should have no setters for its field
 //			since it values ought to be constants
@@ -67,7 +73,57 @@ public class SUBUtils {
 		
 	}
 
+	/**
+	 * Resolves the getter (and optionally the setter) of the field once into a {@link PropertyAccessor}
+	 * so that subsequent reads and writes do not repeat the reflective lookup done by 
+	 * {@link #getProperty(Class, Object, String)} and {@link #setProperty(Class, Object, String, Object)}
+	 */
+	public static PropertyAccessor getPropertyAccessor(Class<?> clazz, String fieldName, boolean writable){
+		PropertyAccessor accessor = getGeneratedAccessor(clazz, fieldName, writable);
+		if(accessor != null){
+			return accessor;
+		}
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle getter = lookup.unreflect(getGetterMethod(clazz, fieldName));
+			MethodHandle setter = null;
+			if(writable){
+				Method writeMethod = new PropertyDescriptor(fieldName.trim(), clazz).getWriteMethod();
+				if(writeMethod == null){
+		    		throw new UtilException("cannot find setter for field -"+fieldName+"- for class "+clazz.getCanonicalName());
+				}
+				setter = lookup.unreflect(writeMethod);
+			}
+			return new PropertyAccessor(clazz, fieldName.trim(), getter, setter);
+		} catch (UtilException e) {
+			throw e;
+		} catch (Exception e) {
+    		throw new UtilException("cannot resolve accessors for field -"+fieldName+"- for class "+clazz.getCanonicalName(), e);
+		}
+	}
+
+	/**
+	 * @return the accessor of the field from the {@link GeneratedAccessors} of the class, 
+	 * null if there are none or they do not cover the field
+	 */
+	public static PropertyAccessor getGeneratedAccessor(Class<?> clazz, String fieldName, boolean writable){
+		GeneratedAccessors generated = GeneratedAccessors.forClass(clazz);
+		if(generated == null || fieldName == null){
+			return null;
+		}
+		PropertyAccessor accessor = generated.getAccessor(fieldName.trim());
+		if(accessor == null || (writable && !accessor.isWritable())){
+			return null;
+		}
+		return accessor;
+	}
+
 	public static void setProperty(Class<?> clazz, Object object, String fieldName, Object value){
+		PropertyAccessor accessor = getGeneratedAccessor(clazz, fieldName, true);
+		if(accessor != null){
+			accessor.set(object, value);
+			return;
+		}
 		try {
 			Method method = new PropertyDescriptor(fieldName, clazz).getWriteMethod();
 			method.invoke(object, value);
@@ -103,6 +159,21 @@ public class SUBUtils {
         return false;
     }
     
+    /**
+     * @return true if the string is null or has only whitespace, without creating a trimmed copy
+     */
+    public static boolean isBlank(String str) {
+    	if (str == null) {
+    		return true;
+    	}
+    	for (int x = 0; x < str.length(); x++) {
+    		if (str.charAt(x) > ' ') {
+    			return false;
+    		}
+    	}
+    	return true;
+    }
+    
     public static String makeFirstLetterCapital(String str) {
       if ((str == null) || (str.length() == 0)) {
         return str;
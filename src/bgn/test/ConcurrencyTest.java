@@ -0,0 +1,100 @@
+package bgn.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+* Contention test for the concurrent settings cache. Many threads miss the same 
+* setting at the same time and only one backend load and one create must happen.
+*/
+public class ConcurrencyTest {
+	
+	static final int THREADS = 32;
+	
+	public static void main(String[] args) throws Exception {
+		testSingleFlightCreate();
+		testSingleFlightLoad();
+		System.out.println("ConcurrencyTest passed");
+	}
+
+	public static void testSingleFlightCreate() throws Exception{
+		
+		ConcurrentService service = new ConcurrentService(50);
+		final ConcurrentSettingsTestUtil settingUtil = new ConcurrentSettingsTestUtil(service);
+		
+		List<Integer> values = runConcurrently(new Callable<Integer>() {
+			@Override
+			public Integer call() throws Exception {
+				return settingUtil.getSettingIntValue("Concurrent_Setting", 10, "test", true);
+			}
+		});
+		
+		for(Integer value : values){
+			check(Integer.valueOf(10).equals(value), "unexpected value "+value);
+		}
+		check(service.getLoadCount() == 1, "expected 1 backend load, found "+service.getLoadCount());
+		check(service.getCreateCount() == 1, "expected 1 backend create, found "+service.getCreateCount());
+	}
+
+	public static void testSingleFlightLoad() throws Exception{
+		
+		ConcurrentService service = new ConcurrentService(50);
+		service.createSetting(new Setting("Existing_Setting", "TRUE", "test"));
+		service.resetCounts();
+		
+		final ConcurrentSettingsTestUtil settingUtil = new ConcurrentSettingsTestUtil(service);
+		
+		List<Boolean> values = runConcurrently(new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws Exception {
+				return settingUtil.getSettingBooleanValue("Existing_Setting", false, "test", false);
+			}
+		});
+		
+		for(Boolean value : values){
+			check(Boolean.TRUE.equals(value), "unexpected value "+value);
+		}
+		check(service.getLoadCount() == 1, "expected 1 backend load, found "+service.getLoadCount());
+		check(service.getCreateCount() == 0, "expected no backend create, found "+service.getCreateCount());
+	}
+	
+	static <V> List<V> runConcurrently(final Callable<V> callable) throws Exception{
+		
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		final CountDownLatch start = new CountDownLatch(1);
+		List<Future<V>> futures = new ArrayList<Future<V>>();
+		
+		try{
+			for(int x = 0; x < THREADS; x++){
+				futures.add(executor.submit(new Callable<V>() {
+					@Override
+					public V call() throws Exception {
+						start.await();
+						return callable.call();
+					}
+				}));
+			}
+			
+			start.countDown();
+			
+			List<V> values = new ArrayList<V>();
+			for(Future<V> future : futures){
+				values.add(future.get());
+			}
+			return values;
+		}finally{
+			executor.shutdown();
+		}
+	}
+	
+	static void check(boolean condition, String message){
+		if(!condition){
+			throw new IllegalStateException(message);
+		}
+	}
+}
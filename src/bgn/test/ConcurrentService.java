@@ -0,0 +1,96 @@
+package bgn.test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+* Thread safe variant of {@link Service} that counts the backend calls 
+* and simulates a slow database with a fixed latency per call
+*/
+public class ConcurrentService {
+	
+	private final ConcurrentMap<String, Setting> localDB = new ConcurrentHashMap<String, Setting>();
+	private final AtomicInteger loadCount = new AtomicInteger();
+	private final AtomicInteger createCount = new AtomicInteger();
+	private final AtomicInteger updateCount = new AtomicInteger();
+	private final long latencyMillis;
+	
+	public ConcurrentService(long latencyMillis) {
+		this.latencyMillis = latencyMillis;
+	}
+	
+	public Setting getSettingByName(String settingName){
+		loadCount.incrementAndGet();
+		simulateLatency();
+		return localDB.get(settingName.trim());
+	}
+
+	public boolean createSetting(Setting setting){
+		
+		validateSetting(setting);
+		createCount.incrementAndGet();
+		simulateLatency();
+		
+		if(localDB.putIfAbsent(setting.getName().trim(), setting) != null){
+			throw new IllegalArgumentException("setting with name already exists");
+		}
+		
+		return true;
+	}
+	
+	public boolean updateSetting(Setting setting){
+		validateSetting(setting);
+		updateCount.incrementAndGet();
+		simulateLatency();
+		localDB.put(setting.getName().trim(), setting);
+		return true;
+	}
+	
+	public Collection<Setting> getAllSettings(){
+		loadCount.incrementAndGet();
+		simulateLatency();
+		return new ArrayList<Setting>(localDB.values());
+	}
+	
+	public int getLoadCount() {
+		return loadCount.get();
+	}
+	
+	public int getCreateCount() {
+		return createCount.get();
+	}
+	
+	public int getUpdateCount() {
+		return updateCount.get();
+	}
+	
+	public void resetCounts(){
+		loadCount.set(0);
+		createCount.set(0);
+		updateCount.set(0);
+	}
+	
+	private void simulateLatency(){
+		if(latencyMillis <= 0){
+			return;
+		}
+		try {
+			Thread.sleep(latencyMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	public void validateSetting(Setting setting){
+		
+		if(setting == null){
+			throw new IllegalArgumentException("setting is null");
+		}
+		if(setting.getName() == null || setting.getName().trim().equals("")){
+			throw new IllegalArgumentException("setting name is null or empty");
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package bgn.test;
+
+import bgn.settings.SimpleSettingsUtilBase;
+
+
+public class ConcurrentSettingsTestUtil extends SimpleSettingsUtilBase<Setting>{
+
+	private final ConcurrentService service;
+	
+	public ConcurrentSettingsTestUtil(ConcurrentService service) {
+		super(true, Setting.class);
+		this.service = service;
+	}
+	
+	@Override
+	protected boolean concurrentCache() {
+		return true;
+	}
+
+	@Override
+	protected Setting getSettingByName(String settingName) throws Exception {
+		return service.getSettingByName(settingName);
+	}
+
+	@Override
+	protected boolean createSetting(Setting setting) throws Exception {
+		return service.createSetting(setting);
+	}
+
+	@Override
+	protected boolean updateSetting(Setting setting) throws Exception {
+		return service.updateSetting(setting);
+	}
+}
@@ -0,0 +1,147 @@
+package bgn.test;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.ServerSocket;
+import java.util.Collections;
+
+import bgn.settings.invalidation.InVmInvalidationBus;
+import bgn.settings.invalidation.InvalidationBus;
+import bgn.settings.invalidation.MulticastInvalidationBus;
+
+/**
+* Round trips of setting invalidations between two utils sharing a backend, over the in JVM bus
+* and over the multicast bus with datagrams that do not leave this host. A setting updated or
+* invalidated through one util must be evicted from the cache of the other.
+*/
+public class InvalidationBusTest {
+
+	private static final long DELIVERY_TIMEOUT_MILLIS = 5000;
+
+	public static void main(String[] args) throws Exception {
+		testInVmRoundTrip();
+		testMulticastRoundTrip();
+		System.out.println("InvalidationBusTest passed");
+	}
+
+	public static void testInVmRoundTrip() throws Exception{
+		InVmInvalidationBus bus = new InVmInvalidationBus();
+		testRoundTrip(bus, bus);
+	}
+
+	public static void testMulticastRoundTrip() throws Exception{
+
+		NetworkInterface networkInterface = getMulticastInterface();
+
+		if(networkInterface == null){
+			System.out.println("no network interface supporting multicast, skipped the multicast round trip");
+			return;
+		}
+
+		InetAddress group = InetAddress.getByName("239.255.42.99");
+		int port = getFreePort();
+
+		MulticastInvalidationBus firstBus = new MulticastInvalidationBus(group, port, networkInterface, 0);
+		MulticastInvalidationBus secondBus = new MulticastInvalidationBus(group, port, networkInterface, 0);
+
+		try{
+			testRoundTrip(firstBus, secondBus);
+		}finally{
+			firstBus.close();
+			secondBus.close();
+		}
+	}
+
+	static void testRoundTrip(InvalidationBus firstBus, InvalidationBus secondBus) throws Exception{
+
+		ConcurrentService service = new ConcurrentService(0);
+		ConcurrentSettingsTestUtil first = newUtil(service, firstBus);
+		ConcurrentSettingsTestUtil second = newUtil(service, secondBus);
+
+		try{
+			check("one".equals(first.getSettingValue("Shared_Setting", "one", "test", true)), "the setting was not created");
+			check("one".equals(second.getSettingValue("Shared_Setting", "one", "test", false)), "the setting was not loaded");
+
+//			updated through the second util, the first one must drop its cached copy
+			second.update(new Setting("Shared_Setting", "two", "test"));
+			awaitValue(first, "Shared_Setting", "two");
+
+//			changed in the backend behind both utils, then invalidated through the first one
+			service.updateSetting(new Setting("Shared_Setting", "three", "test"));
+			check("two".equals(second.getSettingValue("Shared_Setting", "one", "test", false)), "the second util is not caching the setting");
+			first.invalidate("Shared_Setting");
+			awaitValue(second, "Shared_Setting", "three");
+		}finally{
+			first.shutdown();
+			second.shutdown();
+		}
+	}
+
+	static ConcurrentSettingsTestUtil newUtil(ConcurrentService service, final InvalidationBus bus){
+//		the hook runs in the base constructor, the bus is captured rather than kept in a field of the util
+		return new ConcurrentSettingsTestUtil(service){
+			@Override
+			protected InvalidationBus invalidationBus() {
+				return bus;
+			}
+			@Override
+			protected String invalidationChannel() {
+				return "InvalidationBusTest";
+			}
+		};
+	}
+
+	static void awaitValue(ConcurrentSettingsTestUtil settingUtil, String settingName, String expected) throws InterruptedException{
+
+		long deadline = System.currentTimeMillis() + DELIVERY_TIMEOUT_MILLIS;
+		String value;
+
+		while(!expected.equals(value = settingUtil.getSettingValue(settingName, "default", "test", false))){
+			check(System.currentTimeMillis() < deadline, "the invalidation was not delivered, expected "+expected+" found "+value);
+			Thread.sleep(20);
+		}
+	}
+
+//	the loopback interface if it supports multicast, else the first interface of this host that does. 
+//	With a time to live of 0 the datagrams stay on the host either way
+	static NetworkInterface getMulticastInterface() throws Exception{
+
+		NetworkInterface loopback = NetworkInterface.getByInetAddress(InetAddress.getLoopbackAddress());
+
+		if(isMulticastCapable(loopback)){
+			return loopback;
+		}
+		for(NetworkInterface networkInterface : Collections.list(NetworkInterface.getNetworkInterfaces())){
+			if(isMulticastCapable(networkInterface)){
+				return networkInterface;
+			}
+		}
+		return null;
+	}
+
+	static boolean isMulticastCapable(NetworkInterface networkInterface) throws Exception{
+
+		if(networkInterface == null || !networkInterface.isUp() || !networkInterface.supportsMulticast()){
+			return false;
+		}
+		for(InetAddress address : Collections.list(networkInterface.getInetAddresses())){
+			if(address instanceof Inet4Address){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	static int getFreePort() throws Exception{
+		try(ServerSocket socket = new ServerSocket(0)){
+			return socket.getLocalPort();
+		}
+	}
+
+	static void check(boolean condition, String message){
+		if(!condition){
+			throw new IllegalStateException(message);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package bgn.test;
+
+/**
+* The negative cache. A missing setting read without creating it must reach the backend once
+* within the time to live, and again once it has passed. Creating, updating or invalidating the
+* setting through the util must clear its absent marker, so the next read finds it.
+*/
+public class NegativeCacheTest {
+
+	private static final long TTL_MILLIS = 300;
+
+	public static void main(String[] args) throws Exception {
+		testMissingSettingLoadedOncePerTtl();
+		testCreateClearsMarker();
+		testUpdateClearsMarker();
+		testInvalidateClearsMarker();
+		System.out.println("NegativeCacheTest passed");
+	}
+
+	public static void testMissingSettingLoadedOncePerTtl() throws Exception{
+
+		ConcurrentService service = new ConcurrentService(0);
+		ConcurrentSettingsTestUtil settingUtil = newUtil(service);
+
+		for(int x = 0; x < 10; x++){
+			check(settingUtil.getByName("Missing_Setting") == null, "a missing setting was found");
+		}
+		check(service.getLoadCount() == 1, "expected 1 backend load within the time to live, found "+service.getLoadCount());
+		check(settingUtil.getNegativeCacheSize() == 1, "expected 1 absent marker, found "+settingUtil.getNegativeCacheSize());
+
+		Thread.sleep(TTL_MILLIS + 50);
+
+		check(settingUtil.getByName("Missing_Setting") == null, "a missing setting was found");
+		check(service.getLoadCount() == 2, "the absent marker outlived its time to live, "+service.getLoadCount()+" backend loads");
+	}
+
+	public static void testCreateClearsMarker(){
+
+		ConcurrentService service = new ConcurrentService(0);
+		ConcurrentSettingsTestUtil settingUtil = newUtil(service);
+
+		checkMarked(settingUtil, "Created_Setting");
+		check(settingUtil.create(new Setting("Created_Setting", "created", "test")), "the setting was not created");
+
+		checkFound(settingUtil, "Created_Setting", "created");
+	}
+
+	public static void testUpdateClearsMarker(){
+
+		ConcurrentService service = new ConcurrentService(0);
+		ConcurrentSettingsTestUtil settingUtil = newUtil(service);
+
+		checkMarked(settingUtil, "Updated_Setting");
+		check(settingUtil.update(new Setting("Updated_Setting", "updated", "test")), "the setting was not updated");
+
+		checkFound(settingUtil, "Updated_Setting", "updated");
+	}
+
+	public static void testInvalidateClearsMarker(){
+
+		ConcurrentService service = new ConcurrentService(0);
+		ConcurrentSettingsTestUtil settingUtil = newUtil(service);
+
+		checkMarked(settingUtil, "Invalidated_Setting");
+
+//		created behind the util, e.g. by another node that publishes the invalidation
+		service.createSetting(new Setting("Invalidated_Setting", "backend", "test"));
+		check(settingUtil.getByName("Invalidated_Setting") == null, "the absent marker was skipped before the invalidation");
+
+		settingUtil.invalidate("Invalidated_Setting");
+		service.resetCounts();
+
+		checkFound(settingUtil, "Invalidated_Setting", "backend");
+		check(service.getLoadCount() == 1, "expected 1 backend load after the invalidation, found "+service.getLoadCount());
+	}
+
+	static void checkMarked(ConcurrentSettingsTestUtil settingUtil, String settingName){
+		check(settingUtil.getByName(settingName) == null, settingName+" was found before it exists");
+		check(settingUtil.getNegativeCacheSize() == 1, settingName+" was not marked absent");
+	}
+
+	static void checkFound(ConcurrentSettingsTestUtil settingUtil, String settingName, String expectedValue){
+		check(settingUtil.getNegativeCacheSize() == 0, "the absent marker of "+settingName+" was not cleared");
+		Setting setting = settingUtil.getByName(settingName);
+		check(setting != null && expectedValue.equals(setting.getValue()), settingName+" not found after its marker was cleared");
+	}
+
+	static ConcurrentSettingsTestUtil newUtil(ConcurrentService service){
+		return new ConcurrentSettingsTestUtil(service){
+			@Override
+			protected long negativeCacheTtlMillis() {
+				return TTL_MILLIS;
+			}
+		};
+	}
+
+	static void check(boolean condition, String message){
+		if(!condition){
+			throw new IllegalStateException(message);
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package bgn.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import bgn.settings.cache.OffHeapStore;
+
+/**
+* Tests of the off heap tier. Random puts, replaces and removes are checked against a map,
+* then against a store small enough that the garbage of replaced records forces compactions
+* across several chunks, and the typed reads are checked for every value type.
+*/
+public class OffHeapStoreTest {
+
+	public static void main(String[] args) throws Exception {
+		testAgainstReferenceMap();
+		testCompactionUnderCapacityPressure();
+		testTypedReads();
+		System.out.println("OffHeapStoreTest passed");
+	}
+
+	public static void testAgainstReferenceMap(){
+
+//		up to 18000 live records of about 120 bytes, the garbage of the replaced ones is compacted away
+		OffHeapStore store = new OffHeapStore(4 * 1024 * 1024, 256 * 1024, "TRUE", "FALSE");
+		Map<String, String> reference = new HashMap<String, String>();
+		Random random = new Random(42);
+		long previousUsedBytes = 0;
+		int compactions = 0;
+
+		for(int x = 0; x < 200000; x++){
+
+			String settingName = "Setting_"+random.nextInt(1000);
+			Object[] gridValues = {random.nextInt(3) == 0 ? null : "company"+random.nextInt(5), Long.valueOf(random.nextInt(3))};
+			String key = settingName+Arrays.toString(gridValues);
+
+			switch(random.nextInt(4)){
+			case 0:
+				check(store.remove(settingName, gridValues) == (reference.remove(key) != null), "remove disagrees for "+key);
+				break;
+			case 1:
+				checkRecord(store, settingName, gridValues, reference.get(key));
+				break;
+			default:
+				String value = random.nextInt(5) == 0 ? null : "value "+x;
+				check(store.put(settingName, gridValues, value, "description of "+key, 0), "put rejected for "+key);
+				reference.put(key, value == null ? "" : value);
+			}
+
+			check(store.size() == reference.size(), "expected "+reference.size()+" settings, found "+store.size());
+
+			if(store.getUsedBytes() < previousUsedBytes){
+				compactions++;
+			}
+			previousUsedBytes = store.getUsedBytes();
+		}
+
+		check(compactions > 0, "the store was never compacted");
+
+		for(Map.Entry<String, String> entry : reference.entrySet()){
+			String key = entry.getKey();
+			String settingName = key.substring(0, key.indexOf('['));
+			checkRecord(store, settingName, parseGridValues(key), entry.getValue());
+		}
+	}
+
+	public static void testCompactionUnderCapacityPressure(){
+
+//		four chunks of 4K, about 120 live records of 80 bytes, over half the capacity
+		OffHeapStore store = new OffHeapStore(16 * 1024, 4 * 1024, "TRUE", "FALSE");
+		List<String> values = new ArrayList<String>();
+
+		for(int x = 0; x < 120; x++){
+			values.add("initial "+x);
+			check(store.put("Setting_"+x, null, values.get(x), null, 0), "initial put rejected "+x);
+		}
+
+//		every round replaces all the records, its garbage fills the capacity several times over
+		for(int round = 0; round < 50; round++){
+			for(int x = 0; x < 120; x++){
+				String value = "round "+round+" value "+x;
+				check(store.put("Setting_"+x, null, value, null, 0), "put rejected in round "+round+" for "+x);
+				values.set(x, value);
+			}
+			check(store.getUsedBytes() <= store.getCapacity(), "used bytes "+store.getUsedBytes()+" over the capacity");
+		}
+
+		check(store.size() == 120, "expected 120 settings, found "+store.size());
+		check(store.getRejectedCount() == 0, "unexpected rejected puts "+store.getRejectedCount());
+
+		for(int x = 0; x < 120; x++){
+			OffHeapStore.Record record = store.get("Setting_"+x, null);
+			check(record != null && values.get(x).equals(record.getValue()), "Setting_"+x+" lost or corrupt after compaction");
+		}
+
+//		live records that fill the capacity leave no room to compact into
+		OffHeapStore fullStore = new OffHeapStore(4 * 1024, 1024, "TRUE", "FALSE");
+		int stored = 0;
+		while(fullStore.put("Full_"+stored, null, "a value long enough to fill the chunks", null, 0)){
+			stored++;
+		}
+		check(stored > 0 && fullStore.size() == stored, "expected "+stored+" settings, found "+fullStore.size());
+		check(fullStore.getRejectedCount() == 1, "expected 1 rejected put, found "+fullStore.getRejectedCount());
+		for(int x = 0; x < stored; x++){
+			check(fullStore.get("Full_"+x, null) != null, "Full_"+x+" lost by the rejected put");
+		}
+	}
+
+	public static void testTypedReads() throws Exception{
+
+		OffHeapStore store = new OffHeapStore(1024 * 1024, "TRUE", "FALSE");
+		Object[] gridValues = {"company", 7L};
+
+		store.put("Int", gridValues, "42", null, 0);
+		store.put("Long", gridValues, "9000000000", null, 0);
+		store.put("Float", gridValues, "2.5", null, 0);
+		store.put("True", gridValues, "true", null, 0);
+		store.put("False", gridValues, " FALSE ", null, 0);
+		store.put("Text", gridValues, "text", null, 0);
+		store.put("Blank", gridValues, " ", null, 0);
+		store.put("Expired", gridValues, "1", null, System.nanoTime() + 1000000);
+
+		OffHeapStore.TypedValue value = store.getTypedValue("Int", gridValues);
+		check(value.isIntValid() && value.getIntValue() == 42, "int not decoded");
+		check(value.isLongValid() && value.getLongValue() == 42, "int not decoded as a long");
+		check(value.isFloatValid() && value.getFloatValue() == 42f, "int not decoded as a float");
+		check(!value.isBooleanValid(), "int decoded as a boolean");
+
+		value = store.getTypedValue("Long", gridValues);
+		check(!value.isIntValid() && value.isLongValid() && value.getLongValue() == 9000000000L, "long not decoded");
+
+		value = store.getTypedValue("Float", gridValues);
+		check(!value.isIntValid() && !value.isLongValid() && value.isFloatValid() && value.getFloatValue() == 2.5f, "float not decoded");
+
+		value = store.getTypedValue("True", gridValues);
+		check(value.isBooleanValid() && value.getBooleanValue() && !value.isIntValid(), "true not decoded");
+
+		value = store.getTypedValue("False", gridValues);
+		check(value.isBooleanValid() && !value.getBooleanValue(), "false not decoded");
+
+		value = store.getTypedValue("Text", gridValues);
+		check(!value.isIntValid() && !value.isLongValid() && !value.isFloatValid() && !value.isBooleanValid(), "text decoded as a type");
+
+		check(store.getTypedValue("Blank", gridValues) == null, "blank value decoded");
+		check(store.getTypedValue("Int", new Object[]{"company", 8L}) == null, "other grid values found");
+
+		Thread.sleep(5);
+		check(store.getTypedValue("Expired", gridValues) == null, "expired value decoded");
+		check(store.get("Expired", gridValues) == null, "expired record read");
+	}
+
+	static void checkRecord(OffHeapStore store, String settingName, Object[] gridValues, String expectedValue){
+
+		OffHeapStore.Record record = store.get(settingName, gridValues);
+
+		if(expectedValue == null){
+			check(record == null, "found removed "+settingName+Arrays.toString(gridValues));
+			return;
+		}
+
+		check(record != null, "missing "+settingName+Arrays.toString(gridValues));
+		String value = record.getValue() == null ? "" : record.getValue();
+		check(expectedValue.equals(value), "expected "+expectedValue+" found "+value);
+		check(settingName.equals(record.getSettingName()) && Arrays.equals(gridValues, record.getGridValues()), "wrong key read back");
+	}
+
+//	the key of the reference map back into grid values, e.g. Setting_1[company2, 0]
+	static Object[] parseGridValues(String key){
+		String[] parts = key.substring(key.indexOf('[') + 1, key.length() - 1).split(", ");
+		return new Object[]{"null".equals(parts[0]) ? null : parts[0], Long.valueOf(parts[1])};
+	}
+
+	static void check(boolean condition, String message){
+		if(!condition){
+			throw new IllegalStateException(message);
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package bgn.test;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+* Restores of the persistent cache file. A util started on a valid file must serve the saved
+* values, one started on a truncated file, a file whose body does not match its checksum or a
+* file saved with another schema must skip it and load from the backend. A util dropped
+* without a shutdown must not be kept alive by its periodic save.
+*/
+public class PersistentCacheFileTest {
+
+	public static void main(String[] args) throws Exception {
+
+		Path directory = Files.createTempDirectory("settings-cache-test");
+
+		try{
+			testRestore(directory.resolve("valid.cache"));
+			testTruncatedFileSkipped(directory.resolve("truncated.cache"));
+			testChecksumMismatchSkipped(directory.resolve("checksum.cache"));
+			testSchemaMismatchSkipped(directory.resolve("schema.cache"));
+			testDroppedUtilCollected(directory.resolve("dropped.cache"));
+		}finally{
+			for(Path file : Files.newDirectoryStream(directory)){
+				Files.delete(file);
+			}
+			Files.delete(directory);
+		}
+		System.out.println("PersistentCacheFileTest passed");
+	}
+
+	public static void testRestore(Path file) throws Exception{
+		ConcurrentService service = saveCacheFile(file);
+		checkRestored(service, file);
+	}
+
+	public static void testTruncatedFileSkipped(Path file) throws Exception{
+
+		ConcurrentService service = saveCacheFile(file);
+
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+
+		checkSkipped(service, file, false);
+	}
+
+	public static void testChecksumMismatchSkipped(Path file) throws Exception{
+
+		ConcurrentService service = saveCacheFile(file);
+
+//		the last byte belongs to the load time of the last entry, the file keeps its length
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[bytes.length - 1] ^= 0x5A;
+		Files.write(file, bytes);
+
+		checkSkipped(service, file, false);
+	}
+
+	public static void testSchemaMismatchSkipped(Path file) throws Exception{
+
+		ConcurrentService service = saveCacheFile(file);
+
+//		a util ignoring the description reads the setting class with other fields
+		checkSkipped(service, file, true);
+	}
+
+	public static void testDroppedUtilCollected(Path file) throws Exception{
+
+		ConcurrentService service = new ConcurrentService(0);
+		WeakReference<ConcurrentSettingsTestUtil> dropped = new WeakReference<ConcurrentSettingsTestUtil>(
+				newUtil(service, file, 20, false));
+
+		long deadline = System.currentTimeMillis() + 5000;
+
+		while(dropped.get() != null){
+			check(System.currentTimeMillis() < deadline, "the periodic save keeps a dropped util alive");
+			System.gc();
+			Thread.sleep(20);
+		}
+	}
+
+//	the backend moves on after the save, so a restored util answers with the saved value and a fresh one with the new value
+	static ConcurrentService saveCacheFile(Path file) throws IOException{
+
+		ConcurrentService service = new ConcurrentService(0);
+		ConcurrentSettingsTestUtil settingUtil = newUtil(service, file, 0, false);
+
+		check("saved".equals(settingUtil.getSettingValue("Persisted_Setting", "saved", "test", true)), "the setting was not created");
+		check(Integer.valueOf(7).equals(settingUtil.getSettingIntValue("Persisted_Int_Setting", 7, "test", true)), "the setting was not created");
+		settingUtil.shutdown();
+
+		check(Files.size(file) > 0, "the settings cache file was not saved");
+
+		service.updateSetting(new Setting("Persisted_Setting", "backend", "test"));
+		return service;
+	}
+
+	static void checkRestored(ConcurrentService service, Path file){
+
+		ConcurrentSettingsTestUtil settingUtil = newUtil(service, file, 0, false);
+
+		try{
+			check(settingUtil.getCacheSize() == 2, "expected 2 restored settings, found "+settingUtil.getCacheSize());
+			String value = settingUtil.getSettingValue("Persisted_Setting", "default", "test", false);
+			check("saved".equals(value), "expected the restored value, found "+value);
+		}finally{
+			settingUtil.shutdown();
+		}
+	}
+
+	static void checkSkipped(ConcurrentService service, Path file, boolean withoutDescription){
+
+		service.resetCounts();
+		ConcurrentSettingsTestUtil settingUtil = newUtil(service, file, 0, withoutDescription);
+
+		try{
+			check(settingUtil.getCacheSize() == 0, "the settings cache file was not skipped, "+settingUtil.getCacheSize()+" settings restored");
+			String value = settingUtil.getSettingValue("Persisted_Setting", "default", "test", false);
+			check("backend".equals(value), "expected the backend value, found "+value);
+			check(service.getLoadCount() == 1, "expected 1 backend load, found "+service.getLoadCount());
+		}finally{
+			settingUtil.shutdown();
+		}
+	}
+
+	static ConcurrentSettingsTestUtil newUtil(ConcurrentService service, final Path file, final long writeIntervalMillis,
+			final boolean withoutDescription){
+//		the hooks run in the base constructor, the values are captured rather than kept in fields of the util
+		return new ConcurrentSettingsTestUtil(service){
+			@Override
+			protected Path persistentCacheFile() {
+				return file;
+			}
+			@Override
+			protected long persistentCacheWriteIntervalMillis() {
+				return writeIntervalMillis;
+			}
+			@Override
+			protected boolean ignoreDescription() {
+				return withoutDescription;
+			}
+		};
+	}
+
+	static void check(boolean condition, String message){
+		if(!condition){
+			throw new IllegalStateException(message);
+		}
+	}
+}
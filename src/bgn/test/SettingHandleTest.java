@@ -0,0 +1,112 @@
+package bgn.test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import bgn.settings.SettingHandle;
+
+/**
+* Staleness of the setting handles. A handle must return the new value right after an update
+* or an invalidation through its util, and a background refresh that read the backend before
+* an update must not bring the old value back into the handle.
+*/
+public class SettingHandleTest {
+
+	private static final long TIMEOUT_MILLIS = 5000;
+
+	public static void main(String[] args) throws Exception {
+		testUpdateSeenByHandle();
+		testInvalidateSeenByHandle();
+		testRefreshDoesNotOverwriteUpdate();
+		System.out.println("SettingHandleTest passed");
+	}
+
+	public static void testUpdateSeenByHandle(){
+
+		ConcurrentService service = new ConcurrentService(0);
+		ConcurrentSettingsTestUtil settingUtil = new ConcurrentSettingsTestUtil(service);
+		service.createSetting(new Setting("Handle_Setting", "one", "test"));
+
+		SettingHandle<String> handle = settingUtil.getHandle("Handle_Setting", String.class, "default");
+		check("one".equals(handle.get()), "the handle did not read the setting");
+
+		check(settingUtil.update(new Setting("Handle_Setting", "two", "test")), "the setting was not updated");
+		check("two".equals(handle.get()), "the handle kept its value after an update, found "+handle.get());
+
+		SettingHandle<Integer> intHandle = settingUtil.getHandle("Handle_Setting", Integer.class, 7);
+		check(intHandle.get() == 7, "the handle did not fall back to its default for a value of another type");
+		settingUtil.update(new Setting("Handle_Setting", "42", "test"));
+		check(intHandle.get() == 42 && "42".equals(handle.get()), "the handles kept their values after an update");
+	}
+
+	public static void testInvalidateSeenByHandle(){
+
+		ConcurrentService service = new ConcurrentService(0);
+		ConcurrentSettingsTestUtil settingUtil = new ConcurrentSettingsTestUtil(service);
+		service.createSetting(new Setting("Invalidated_Handle_Setting", "one", "test"));
+
+		SettingHandle<String> handle = settingUtil.getHandle("Invalidated_Handle_Setting", String.class, "default");
+		check("one".equals(handle.get()), "the handle did not read the setting");
+
+//		changed behind the util, the handle holds the cached value until the invalidation
+		service.updateSetting(new Setting("Invalidated_Handle_Setting", "two", "test"));
+		check("one".equals(handle.get()), "the handle went to the backend while bound");
+
+		settingUtil.invalidate("Invalidated_Handle_Setting");
+		check("two".equals(handle.get()), "the handle kept its value after an invalidation, found "+handle.get());
+	}
+
+	public static void testRefreshDoesNotOverwriteUpdate() throws Exception{
+
+		final ConcurrentService service = new ConcurrentService(0);
+		final CountDownLatch loading = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicBoolean blockLoads = new AtomicBoolean();
+
+//		once blocking, a load reads the backend then waits, so the update lands between the read and the bind
+		ConcurrentSettingsTestUtil settingUtil = new ConcurrentSettingsTestUtil(service){
+			@Override
+			protected long refreshAfterWriteMillis() {
+				return 100;
+			}
+			@Override
+			protected Setting getSettingByName(String settingName) throws Exception {
+				Setting setting = service.getSettingByName(settingName);
+				if(blockLoads.get()){
+					loading.countDown();
+					release.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+				}
+				return setting == null ? null : new Setting(setting.getName(), setting.getValue(), setting.getDescription());
+			}
+		};
+		service.createSetting(new Setting("Refreshed_Handle_Setting", "one", "test"));
+
+		SettingHandle<String> handle = settingUtil.getHandle("Refreshed_Handle_Setting", String.class, "default");
+		check("one".equals(handle.get()), "the handle did not read the setting");
+
+		Thread.sleep(150);
+		blockLoads.set(true);
+
+//		due for a refresh, the read serves the cached value and reloads it in the background
+		check("one".equals(handle.get()), "the handle waited on the refresh");
+		check(loading.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), "the refresh did not start");
+
+		blockLoads.set(false);
+		check(settingUtil.update(new Setting("Refreshed_Handle_Setting", "two", "test")), "the setting was not updated");
+		check("two".equals(handle.get()), "the handle kept its value after an update, found "+handle.get());
+
+		release.countDown();
+		Thread.sleep(100);
+
+		check("two".equals(handle.get()), "the refresh brought back the value read before the update");
+		check("two".equals(settingUtil.getSettingValue("Refreshed_Handle_Setting", "default", "test", false)),
+				"the refresh brought back the cached value read before the update");
+	}
+
+	static void check(boolean condition, String message){
+		if(!condition){
+			throw new IllegalStateException(message);
+		}
+	}
+}
@@ -0,0 +1,211 @@
+package bgn.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import bgn.settings.cache.CacheEntry;
+import bgn.settings.cache.SettingsCache;
+
+/**
+* Behaviour of the bounded settings cache: the maximum weight holds under a stream of new
+* keys, frequently read entries are not flushed by one-off keys, the weights of puts,
+* replaces and removes add up, and evicted entries are reported. The expiry and refresh
+* after write are checked on the entries and through a settings util.
+*/
+public class SettingsCacheTest {
+
+	private static final long TIMEOUT_MILLIS = 5000;
+
+	public static void main(String[] args) throws Exception {
+		testMaximumSizeBound();
+		testFrequentEntriesAdmittedOverOneOffKeys();
+		testWeightAccounting();
+		testEvictionListener();
+		testEntryExpiryAndRefresh();
+		testExpireAfterWrite();
+		testRefreshAfterWrite();
+		System.out.println("SettingsCacheTest passed");
+	}
+
+	public static void testMaximumSizeBound(){
+
+		SettingsCache<String> cache = new SettingsCache<String>(true, 100);
+
+		for(int x = 0; x < 10000; x++){
+			cache.put("key"+x, "value"+x, 1);
+			check(cache.getWeightedSize() <= 100, "weighted size "+cache.getWeightedSize()+" over the maximum after "+x+" puts");
+		}
+
+		check(cache.size() == 100, "expected 100 entries, found "+cache.size());
+		check(cache.getEvictionCount() == 10000 - cache.size(), "expected "+(10000 - cache.size())+" evictions, found "+cache.getEvictionCount());
+		check(!new SettingsCache<String>(true, 0).isBounded(), "a cache without a maximum weight is bounded");
+	}
+
+	public static void testFrequentEntriesAdmittedOverOneOffKeys(){
+
+		SettingsCache<String> cache = new SettingsCache<String>(true, 100);
+
+		for(int x = 0; x < 50; x++){
+			cache.put("hot"+x, "value", 1);
+		}
+		for(int read = 0; read < 20; read++){
+			for(int x = 0; x < 50; x++){
+				cache.get("hot"+x);
+			}
+		}
+
+//		a scan of keys read once, e.g. a rarely seen tenant
+		for(int x = 0; x < 5000; x++){
+			cache.put("cold"+x, "value", 1);
+		}
+
+		int survivors = 0;
+		for(int x = 0; x < 50; x++){
+			if(cache.getEntry("hot"+x) != null){
+				survivors++;
+			}
+		}
+		check(survivors >= 45, "only "+survivors+" of the 50 frequently read entries survived the scan");
+		check(cache.size() <= 100, "expected at most 100 entries, found "+cache.size());
+	}
+
+	public static void testWeightAccounting(){
+
+		SettingsCache<String> cache = new SettingsCache<String>(false, 100);
+
+		cache.put("a", "a", 10);
+		cache.put("b", "b", 20);
+		check(cache.getWeightedSize() == 30, "expected a weight of 30, found "+cache.getWeightedSize());
+
+		cache.put("a", "a2", 15);
+		check(cache.getWeightedSize() == 35, "replace not accounted, expected 35 found "+cache.getWeightedSize());
+
+		CacheEntry<String> entry = cache.getEntry("b");
+		check(cache.replace(entry, "b2", 5, 0, 0), "replace of the current entry failed");
+		check(!cache.replace(entry, "b3", 50, 0, 0), "replace of a stale entry succeeded");
+		check(cache.getWeightedSize() == 20, "conditional replace not accounted, expected 20 found "+cache.getWeightedSize());
+
+		check(cache.putIfAbsent("b", "b4", 40, 0, 0).getSetting().equals("b2"), "putIfAbsent replaced an entry");
+		check(cache.getWeightedSize() == 20, "putIfAbsent of a present key accounted");
+
+		check("a2".equals(cache.remove("a")), "remove did not return the setting");
+		check(cache.getWeightedSize() == 5, "remove not accounted, expected 5 found "+cache.getWeightedSize());
+
+		cache.put("heavy", "heavy", 90);
+		cache.put("c", "c", 10);
+		check(cache.getWeightedSize() <= 100, "weighted size "+cache.getWeightedSize()+" over the maximum");
+
+//		an entry heavier than the whole cache does not stay
+		cache.put("huge", "huge", 101);
+		check(cache.getEntry("huge") == null, "an entry over the maximum weight was kept");
+		check(cache.getWeightedSize() <= 100, "weighted size "+cache.getWeightedSize()+" over the maximum");
+
+		cache.clear();
+		check(cache.size() == 0 && cache.getWeightedSize() == 0, "clear left a weight of "+cache.getWeightedSize());
+	}
+
+	public static void testEvictionListener(){
+
+		final List<Object> evictedKeys = new ArrayList<Object>();
+		SettingsCache<String> cache = new SettingsCache<String>(false, 10, new Consumer<CacheEntry<String>>() {
+			@Override
+			public void accept(CacheEntry<String> entry) {
+				evictedKeys.add(entry.getKey());
+			}
+		});
+
+		for(int x = 0; x < 30; x++){
+			cache.put("key"+x, "value", 1);
+		}
+		cache.remove("key29");
+		cache.clear();
+
+		check(evictedKeys.size() == 20, "expected 20 evicted keys, found "+evictedKeys.size());
+		check(cache.getEvictionCount() == 20, "expected 20 evictions, found "+cache.getEvictionCount());
+		check(!evictedKeys.contains("key29"), "a removed entry was reported as evicted");
+	}
+
+	public static void testEntryExpiryAndRefresh() throws Exception{
+
+		SettingsCache<String> cache = new SettingsCache<String>(true, 0);
+		long millis = 1000000;
+
+		cache.put("timed", "value", 1, 100 * millis, 20 * millis);
+		cache.put("untimed", "value", 1);
+
+		CacheEntry<String> timed = cache.getEntry("timed");
+		CacheEntry<String> untimed = cache.getEntry("untimed");
+		long writeTime = timed.getWriteTime();
+
+		check(timed.isTimed() && !untimed.isTimed(), "timed entries not told apart");
+		check(!timed.isRefreshDue(writeTime + 19 * millis) && timed.isRefreshDue(writeTime + 20 * millis), "refresh due at the wrong time");
+		check(!timed.isExpired(writeTime + 99 * millis) && timed.isExpired(writeTime + 100 * millis), "expired at the wrong time");
+		check(!untimed.isExpired(Long.MAX_VALUE) && !untimed.isRefreshDue(Long.MAX_VALUE), "an untimed entry expired");
+
+		check(timed.startRefresh(), "the first refresh did not start");
+		check(!timed.startRefresh(), "a second refresh started while one is running");
+		timed.endRefresh();
+		check(timed.startRefresh(), "a refresh did not start after the previous one ended");
+	}
+
+	public static void testExpireAfterWrite() throws Exception{
+
+		ConcurrentService service = new ConcurrentService(0);
+		ConcurrentSettingsTestUtil settingUtil = newUtil(service, 100, 0);
+
+		check("one".equals(settingUtil.getSettingValue("Expiring_Setting", "one", "test", true)), "the setting was not created");
+		service.updateSetting(new Setting("Expiring_Setting", "two", "test"));
+		service.resetCounts();
+
+		check("one".equals(settingUtil.getSettingValue("Expiring_Setting", "one", "test", false)), "the setting expired early");
+		check(service.getLoadCount() == 0, "a cached read went to the backend");
+
+		Thread.sleep(150);
+
+		check("two".equals(settingUtil.getSettingValue("Expiring_Setting", "one", "test", false)), "the expired setting was served from the cache");
+		check(service.getLoadCount() == 1, "expected 1 backend load, found "+service.getLoadCount());
+	}
+
+	public static void testRefreshAfterWrite() throws Exception{
+
+		ConcurrentService service = new ConcurrentService(50);
+		ConcurrentSettingsTestUtil settingUtil = newUtil(service, 0, 100);
+
+		check("one".equals(settingUtil.getSettingValue("Refreshing_Setting", "one", "test", true)), "the setting was not created");
+		service.updateSetting(new Setting("Refreshing_Setting", "two", "test"));
+
+		Thread.sleep(150);
+
+//		due for a refresh, the cached value is served while the backend is read in the background
+		long start = System.nanoTime();
+		check("one".equals(settingUtil.getSettingValue("Refreshing_Setting", "one", "test", false)), "the read waited on the refresh");
+		check(System.nanoTime() - start < 40 * 1000000L, "the read waited on the backend");
+
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while(!"two".equals(settingUtil.getSettingValue("Refreshing_Setting", "one", "test", false))){
+			check(System.currentTimeMillis() < deadline, "the setting was not refreshed");
+			Thread.sleep(20);
+		}
+	}
+
+	static ConcurrentSettingsTestUtil newUtil(ConcurrentService service, final long expireMillis, final long refreshMillis){
+//		the hooks run in the base constructor, the values are captured rather than kept in fields of the util
+		return new ConcurrentSettingsTestUtil(service){
+			@Override
+			protected long expireAfterWriteMillis() {
+				return expireMillis;
+			}
+			@Override
+			protected long refreshAfterWriteMillis() {
+				return refreshMillis;
+			}
+		};
+	}
+
+	static void check(boolean condition, String message){
+		if(!condition){
+			throw new IllegalStateException(message);
+		}
+	}
+}
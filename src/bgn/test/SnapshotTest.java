@@ -0,0 +1,125 @@
+package bgn.test;
+
+import java.util.Collection;
+
+import bgn.settings.SettingsSnapshot;
+
+/**
+* The snapshot mode. A change made through the util must swap in a new snapshot while the one
+* already handed out keeps its values, reload requests made while a rebuild is running must
+* be coalesced, and a change made while the first snapshot is being built must not be lost.
+*/
+public class SnapshotTest {
+
+	private static final long TIMEOUT_MILLIS = 5000;
+
+	public static void main(String[] args) throws Exception {
+		testSwapOnUpdate();
+		testReloadsCoalesced();
+		testChangeDuringFirstBuild();
+		System.out.println("SnapshotTest passed");
+	}
+
+	public static void testSwapOnUpdate() throws Exception{
+
+		ConcurrentService service = new ConcurrentService(0);
+		service.createSetting(new Setting("Snapshot_Setting", "one", "test"));
+		service.createSetting(new Setting("Other_Setting", "other", "test"));
+		ConcurrentSettingsTestUtil settingUtil = newUtil(service, 0);
+
+		SettingsSnapshot<Setting> first = settingUtil.getSnapshot();
+		check(first.size() == 2 && "one".equals(first.getValue("Snapshot_Setting", null)), "the first snapshot is wrong");
+		check(settingUtil.getSnapshot() == first, "the snapshot was rebuilt without a change");
+
+		check(settingUtil.update(new Setting("Snapshot_Setting", "two", "test")), "the setting was not updated");
+
+		SettingsSnapshot<Setting> second = awaitValue(settingUtil, "Snapshot_Setting", "two");
+		check(second != first, "the snapshot was changed in place");
+		check("one".equals(first.getValue("Snapshot_Setting", null)), "the snapshot handed out changed its value");
+		check("other".equals(second.getValue("Other_Setting", null)), "the new snapshot lost a setting");
+	}
+
+	public static void testReloadsCoalesced() throws Exception{
+
+//		every rebuild takes 100ms, the requests made meanwhile wait for one more rebuild
+		ConcurrentService service = new ConcurrentService(0);
+		service.createSetting(new Setting("Coalesced_Setting", "one", "test"));
+		ConcurrentSettingsTestUtil settingUtil = newUtil(service, 100);
+
+		settingUtil.getSnapshot();
+		service.resetCounts();
+
+		for(int x = 0; x < 50; x++){
+			settingUtil.reloadSnapshot();
+		}
+		service.updateSetting(new Setting("Coalesced_Setting", "two", "test"));
+		settingUtil.reloadSnapshot();
+
+		awaitValue(settingUtil, "Coalesced_Setting", "two");
+		Thread.sleep(250);
+
+		check(service.getLoadCount() <= 3, "51 reload requests were not coalesced, "+service.getLoadCount()+" rebuilds");
+	}
+
+	public static void testChangeDuringFirstBuild() throws Exception{
+
+		final ConcurrentService service = new ConcurrentService(0);
+		service.createSetting(new Setting("Racing_Setting", "one", "test"));
+		final ConcurrentSettingsTestUtil settingUtil = newUtil(service, 200);
+
+//		changed after the first build read the table and before it is published
+		Thread writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(50);
+				} catch (InterruptedException e) {
+					return;
+				}
+				service.updateSetting(new Setting("Racing_Setting", "two", "test"));
+				settingUtil.reloadSnapshot();
+			}
+		});
+		writer.start();
+
+		SettingsSnapshot<Setting> first = settingUtil.getSnapshot();
+		writer.join();
+
+		check("one".equals(first.getValue("Racing_Setting", null)), "the first build did not race the change");
+		awaitValue(settingUtil, "Racing_Setting", "two");
+	}
+
+	static SettingsSnapshot<Setting> awaitValue(ConcurrentSettingsTestUtil settingUtil, String settingName, String value) throws InterruptedException{
+
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		SettingsSnapshot<Setting> snapshot;
+
+		while(!value.equals((snapshot = settingUtil.getSnapshot()).getValue(settingName, null))){
+			check(System.currentTimeMillis() < deadline, "the snapshot never showed "+value+" for "+settingName);
+			Thread.sleep(10);
+		}
+		return snapshot;
+	}
+
+//	the table is read before the build delay, so a change made while a build is slow is missed like in a query
+	static ConcurrentSettingsTestUtil newUtil(final ConcurrentService service, final long buildMillis){
+		return new ConcurrentSettingsTestUtil(service){
+			@Override
+			protected boolean snapshotMode() {
+				return true;
+			}
+			@Override
+			protected Collection<Setting> getAllSettings() throws Exception {
+				Collection<Setting> settings = service.getAllSettings();
+				Thread.sleep(buildMillis);
+				return settings;
+			}
+		};
+	}
+
+	static void check(boolean condition, String message){
+		if(!condition){
+			throw new IllegalStateException(message);
+		}
+	}
+}